@@ -0,0 +1,74 @@
+package com.provys.dokuwiki;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attachment upload and download throughput at several sizes, served by local stand-in server. Compares in-memory
+ * (byte array) and streamed variants
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class AttachmentBenchmark {
+
+    @Param({"1024", "1048576", "33554432"})
+    public int size;
+
+    private StandInServer server;
+    private DokuWikiClient client;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new StandInServer(0, size);
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "bench", "bench"));
+        content = new byte[size];
+        new Random(1).nextBytes(content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public byte[] download() {
+        return client.getAttachment("bench:file.bin");
+    }
+
+    @Benchmark
+    public long downloadStream() {
+        return client.getAttachment("bench:file.bin", OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void upload() {
+        client.putAttachment("bench:file.bin", content, true);
+    }
+
+    @Benchmark
+    public void uploadStream() {
+        client.putAttachment("bench:file.bin", new ByteArrayInputStream(content), content.length, true);
+    }
+}
@@ -0,0 +1,66 @@
+package com.provys.dokuwiki;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of page listing, served by local stand-in server. Compares listing materialized in memory with streamed
+ * listing
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ListingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    private StandInServer server;
+    private DokuWikiClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        server = new StandInServer(entries, 0);
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "bench", "bench"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public List<PageListResult> getPages() {
+        return client.getPages("bench", 0);
+    }
+
+    @Benchmark
+    public long streamPages() {
+        try (var pages = client.streamPages("bench", 0)) {
+            return pages.count();
+        }
+    }
+
+    @Benchmark
+    public List<String> getNamespaceNames() {
+        return client.getNamespaceNames("bench");
+    }
+}
@@ -0,0 +1,59 @@
+package com.provys.dokuwiki;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations on page ids, performed per item in namespace listings
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageIdParserBenchmark {
+
+    private static final String[] IDS = {"start", "playground:start", "playground:java:benchmark:page",
+            "a:b:c:d:e:f:g:h:deeply_nested_page_name", ":leading:colon"};
+
+    private final PageIdParser parser = new PageIdParser();
+
+    @Benchmark
+    public void getNamespace(Blackhole blackhole) {
+        for (var id : IDS) {
+            blackhole.consume(parser.getNamespace(id));
+        }
+    }
+
+    @Benchmark
+    public void getName(Blackhole blackhole) {
+        for (var id : IDS) {
+            blackhole.consume(parser.getName(id));
+        }
+    }
+
+    @Benchmark
+    public void getDepth(Blackhole blackhole) {
+        for (var id : IDS) {
+            blackhole.consume(parser.getDepth(id));
+        }
+    }
+
+    @Benchmark
+    public void pageIdOf(Blackhole blackhole) {
+        for (var id : IDS) {
+            blackhole.consume(PageId.of(id));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcStruct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of Xml-Rpc responses - conversion of structs to result objects and parsing of response xml
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseResponseBenchmark {
+
+    /** number of items in parsed page list response */
+    private static final int LIST_SIZE = 10_000;
+
+    private XmlRpcStruct pageData;
+    private XmlRpcStruct pageListResult;
+    private XmlRpcStruct searchResult;
+    private XmlRpcStruct attachmentInfo;
+    private byte[] pageListResponse;
+
+    @Setup
+    public void setup() {
+        var lastModified = LocalDateTime.of(2020, 1, 15, 10, 12, 13);
+        pageData = new XmlRpcStruct();
+        pageData.put("id", "playground:java:benchmark:page");
+        pageData.put("perms", 8);
+        pageData.put("size", 1234);
+        pageData.put("lastModified", lastModified);
+        pageListResult = new XmlRpcStruct();
+        pageListResult.put("id", "playground:java:benchmark:page");
+        pageListResult.put("rev", 1580000000);
+        pageListResult.put("mtime", 1580000000);
+        pageListResult.put("size", 1234);
+        searchResult = new XmlRpcStruct();
+        searchResult.putAll(pageListResult);
+        searchResult.put("snippet", "Text with <strong class=\"search_hit\">hit</strong> highlighted");
+        searchResult.put("score", 3);
+        searchResult.put("title", "Benchmark page");
+        attachmentInfo = new XmlRpcStruct();
+        attachmentInfo.put("id", "playground:java:benchmark:file.png");
+        attachmentInfo.put("file", "file.png");
+        attachmentInfo.put("size", 123456);
+        attachmentInfo.put("mtime", 1580000000);
+        attachmentInfo.put("lastModified", lastModified);
+        attachmentInfo.put("isimg", true);
+        attachmentInfo.put("writable", true);
+        attachmentInfo.put("perms", 8);
+        var response = new StringBuilder("<?xml version=\"1.0\"?>\n<methodResponse><params><param><value><array>"
+                + "<data>");
+        for (int i = 0; i < LIST_SIZE; i++) {
+            response.append("<value><struct><member><name>id</name><value><string>bench:ns").append(i / 1000)
+                    .append(":page").append(i).append("</string></value></member>")
+                    .append("<member><name>rev</name><value><int>1580000000</int></value></member>")
+                    .append("<member><name>mtime</name><value><int>1580000000</int></value></member>")
+                    .append("<member><name>size</name><value><int>").append(100 + i)
+                    .append("</int></value></member></struct></value>");
+        }
+        response.append("</data></array></value></param></params></methodResponse>");
+        pageListResponse = response.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public PageData parsePageData() {
+        return PageData.parseResponse(pageData);
+    }
+
+    @Benchmark
+    public PageListResult parsePageListResult() {
+        return PageListResult.parseResponse(pageListResult);
+    }
+
+    @Benchmark
+    public SearchResult parseSearchResult() {
+        return SearchResult.parseResponse(searchResult);
+    }
+
+    @Benchmark
+    public AttachmentInfo parseAttachmentInfo() {
+        return AttachmentInfo.parseResponse(attachmentInfo);
+    }
+
+    /**
+     * Parse complete page list response (10k items) from memory, without network
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object readPageListResponse() {
+        try (var reader = new XmlRpcReader(new ByteArrayInputStream(pageListResponse))) {
+            return reader.readResponse();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.provys.dokuwiki;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal in-process stand-in of DokuWiki Xml-Rpc endpoint, used by benchmarks. Responses are generated while being
+ * sent, so listings with millions of entries and large attachments do not occupy memory of benchmark process. Server
+ * does not keep any state - page list contains configured number of generated pages, attachment download returns
+ * configured number of bytes and uploads are read and discarded.
+ */
+final class StandInServer implements AutoCloseable {
+
+    private static final String RESPONSE_START = "<?xml version=\"1.0\"?>\n<methodResponse><params><param>";
+    private static final String RESPONSE_END = "</param></params></methodResponse>";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    /** number of pages returned by dokuwiki.getPagelist */
+    private final int pageCount;
+    /** number of bytes returned by wiki.getAttachment */
+    private final int attachmentSize;
+
+    StandInServer(int pageCount, int attachmentSize) throws IOException {
+        this.pageCount = pageCount;
+        this.attachmentSize = attachmentSize;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 50);
+        this.executor = Executors.newCachedThreadPool(BulkExecutor.daemonThreadFactory("stand-in-server-"));
+        server.setExecutor(executor);
+        server.createContext("/lib/exe/xmlrpc.php", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return url of Xml-Rpc endpoint
+     */
+    String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/lib/exe/xmlrpc.php";
+    }
+
+    /**
+     * Read name of called method and discard rest of request
+     */
+    private static String readMethodName(InputStream body) throws IOException {
+        var head = new ByteArrayOutputStream();
+        String method = null;
+        int b;
+        while ((method == null) && ((b = body.read()) >= 0)) {
+            head.write(b);
+            if (b == '>') {
+                var text = head.toString(StandardCharsets.UTF_8);
+                var end = text.indexOf("</methodName>");
+                if (end >= 0) {
+                    method = text.substring(text.indexOf("<methodName>") + "<methodName>".length(), end);
+                }
+            }
+        }
+        body.transferTo(OutputStream.nullOutputStream());
+        if (method == null) {
+            throw new IOException("Method name not found in request");
+        }
+        return method;
+    }
+
+    private void writePageList(Writer writer) throws IOException {
+        writer.write(RESPONSE_START);
+        writer.write("<value><array><data>");
+        for (int i = 0; i < pageCount; i++) {
+            writer.write("<value><struct><member><name>id</name><value><string>bench:ns");
+            writer.write(Integer.toString(i / 1000));
+            writer.write(":page");
+            writer.write(Integer.toString(i));
+            writer.write("</string></value></member><member><name>rev</name><value><int>1580000000</int></value>"
+                    + "</member><member><name>mtime</name><value><int>1580000000</int></value></member>"
+                    + "<member><name>size</name><value><int>");
+            writer.write(Integer.toString(100 + i % 10000));
+            writer.write("</int></value></member></struct></value>");
+        }
+        writer.write("</data></array></value>");
+        writer.write(RESPONSE_END);
+    }
+
+    private void writeAttachment(OutputStream out) throws IOException {
+        out.write(RESPONSE_START.getBytes(StandardCharsets.UTF_8));
+        out.write("<value><base64>".getBytes(StandardCharsets.UTF_8));
+        var encoder = Base64.getEncoder().wrap(new NonClosingOutputStream(out));
+        var block = new byte[48 * 1024];
+        Arrays.fill(block, (byte) 'x');
+        for (int remaining = attachmentSize; remaining > 0; remaining -= block.length) {
+            encoder.write(block, 0, Math.min(remaining, block.length));
+        }
+        // writes final padding, underlying stream is kept open
+        encoder.close();
+        out.write("</base64></value>".getBytes(StandardCharsets.UTF_8));
+        out.write(RESPONSE_END.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            var method = readMethodName(exchange.getRequestBody());
+            exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8");
+            // length 0 means chunked response
+            exchange.sendResponseHeaders(200, 0);
+            var out = new BufferedOutputStream(exchange.getResponseBody(), 64 * 1024);
+            var writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            switch (method) {
+                case "dokuwiki.getPagelist":
+                    writePageList(writer);
+                    break;
+                case "wiki.getAttachment":
+                    writeAttachment(out);
+                    break;
+                case "wiki.putAttachment":
+                    writer.write(RESPONSE_START + "<value><boolean>1</boolean></value>" + RESPONSE_END);
+                    break;
+                case "wiki.getPage":
+                    writer.write(RESPONSE_START + "<value><string>Benchmark page</string></value>" + RESPONSE_END);
+                    break;
+                default:
+                    writer.write("<?xml version=\"1.0\"?>\n<methodResponse><fault><value><struct>"
+                            + "<member><name>faultCode</name><value><int>-32601</int></value></member>"
+                            + "<member><name>faultString</name><value><string>server error. requested method "
+                            + method + " does not exist.</string></value></member></struct></value></fault>"
+                            + "</methodResponse>");
+            }
+            writer.flush();
+            out.flush();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stream protecting underlying stream from being closed by base64 encoder
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+
+        NonClosingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
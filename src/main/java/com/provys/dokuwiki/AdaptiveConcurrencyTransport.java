@@ -0,0 +1,193 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Transport decorator limiting number of calls processed by wiki in parallel. Limit is adapted to observed behaviour
+ * of wiki (AIMD - additive increase, multiplicative decrease): each call that is answered within latency threshold
+ * while limit is being utilized increases limit by 1/limit (thus by roughly one per round of calls), while call that
+ * is slow or fails because of overload decreases limit by given factor. Calls exceeding limit wait until some call
+ * in flight finishes.
+ * <p>
+ * Call is considered in flight until its response is fully read and response stream is closed, as wiki's worker is
+ * busy until then.
+ */
+@SuppressWarnings("WeakerAccess") // AdaptiveConcurrencyTransport is published library class
+public final class AdaptiveConcurrencyTransport implements DokuWikiTransport {
+
+    /** default factor limit is multiplied by when wiki is overloaded */
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+    @Nonnull
+    private final DokuWikiTransport delegate;
+    private final int minLimit;
+    private final int maxLimit;
+    /** time to response headers above which wiki is considered overloaded */
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    /** current limit; fractional part accumulates additive increases */
+    private double limit;
+    /** number of calls in flight */
+    private int inFlight;
+    /** number of calls that had to wait for free slot */
+    private long throttledCalls;
+
+    /**
+     * Create adaptive concurrency limiter.
+     *
+     * @param delegate is transport used to send calls
+     * @param initialLimit is initial number of calls allowed in parallel
+     * @param minLimit is lower bound of limit
+     * @param maxLimit is upper bound of limit
+     * @param latencyThreshold is time to receive response headers above which wiki is considered overloaded
+     */
+    public AdaptiveConcurrencyTransport(DokuWikiTransport delegate, int initialLimit, int minLimit, int maxLimit,
+                                        Duration latencyThreshold) {
+        this(delegate, initialLimit, minLimit, maxLimit, latencyThreshold, DEFAULT_BACKOFF_RATIO);
+    }
+
+    /**
+     * Create adaptive concurrency limiter.
+     *
+     * @param delegate is transport used to send calls
+     * @param initialLimit is initial number of calls allowed in parallel
+     * @param minLimit is lower bound of limit
+     * @param maxLimit is upper bound of limit
+     * @param latencyThreshold is time to receive response headers above which wiki is considered overloaded
+     * @param backoffRatio is factor limit is multiplied by when wiki is overloaded, between 0 and 1
+     */
+    public AdaptiveConcurrencyTransport(DokuWikiTransport delegate, int initialLimit, int minLimit, int maxLimit,
+                                        Duration latencyThreshold, double backoffRatio) {
+        if ((minLimit < 1) || (maxLimit < minLimit) || (initialLimit < minLimit) || (initialLimit > maxLimit)) {
+            throw new IllegalArgumentException("Invalid limits: initial " + initialLimit + ", min " + minLimit
+                    + ", max " + maxLimit);
+        }
+        if (!(backoffRatio > 0) || !(backoffRatio < 1)) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1, " + backoffRatio
+                    + " supplied");
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * @return current number of calls allowed in parallel
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return number of calls currently in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return number of calls that had to wait for free slot
+     */
+    public synchronized long getThrottledCalls() {
+        return throttledCalls;
+    }
+
+    private synchronized void acquire(String method) throws InterruptedIOException {
+        if (inFlight >= (int) limit) {
+            throttledCalls++;
+            while (inFlight >= (int) limit) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    var exception = new InterruptedIOException("Interrupted while waiting to send Xml-Rpc call "
+                            + method);
+                    exception.initCause(e);
+                    throw exception;
+                }
+            }
+        }
+        inFlight++;
+    }
+
+    private synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * Adapt limit to outcome of call
+     *
+     * @param overloaded indicates that call signals overload of wiki
+     * @param utilized indicates that number of calls in flight was close to limit when call was sent
+     */
+    private synchronized void adapt(boolean overloaded, boolean utilized) {
+        if (overloaded) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (utilized) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        notifyAll();
+    }
+
+    private synchronized boolean isUtilized() {
+        return inFlight * 2 >= limit;
+    }
+
+    @Nonnull
+    @Override
+    public InputStream send(String method, RequestBody body) throws IOException {
+        acquire(method);
+        var utilized = isUtilized();
+        var start = System.nanoTime();
+        InputStream response;
+        try {
+            response = delegate.send(method, body);
+        } catch (IOException e) {
+            adapt(((e instanceof HttpStatusException) && ((HttpStatusException) e).isTransient())
+                    || (e instanceof HttpTimeoutException)
+                    || (e instanceof SocketTimeoutException), false);
+            release();
+            throw e;
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+        adapt(System.nanoTime() - start > latencyThresholdNanos, utilized);
+        return new FilterInputStream(response) {
+            private boolean released;
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!released) {
+                        released = true;
+                        release();
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AdaptiveConcurrencyTransport{" +
+                "delegate=" + delegate +
+                ", limit=" + limit +
+                ", inFlight=" + inFlight +
+                '}';
+    }
+}
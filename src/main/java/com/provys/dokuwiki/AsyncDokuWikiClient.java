@@ -0,0 +1,392 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over {@link DokuWikiClient}. Calls are executed on supplied executor and return
+ * {@link CompletableFuture}. Number of requests in flight is limited; calls above limit are queued (without blocking
+ * executor threads) and started when previous calls finish. If no executor is supplied, client creates its own bounded
+ * pool of daemon threads, that is shut down when client is closed. Calls that cannot be executed (executor rejects
+ * them or client is closed before they are started) are completed exceptionally, thus returned futures never hang.
+ */
+@SuppressWarnings("WeakerAccess") // AsyncDokuWikiClient is published library class
+public class AsyncDokuWikiClient implements AutoCloseable {
+
+    /** default maximal number of requests sent to wiki in parallel */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+
+    /** synchronous client used to execute calls */
+    @Nonnull
+    private final DokuWikiClient client;
+    /** executor used to run calls */
+    @Nonnull
+    private final Executor executor;
+    /** executor created by this client; it is shut down when client is closed. Null if executor was supplied */
+    @Nullable
+    private final ExecutorService ownExecutor;
+    /** maximal number of requests in flight */
+    private final int maxInFlight;
+    /** number of requests currently in flight */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** calls waiting for free slot */
+    private final Queue<Call<?>> waiting = new ConcurrentLinkedQueue<>();
+    /** set when client is closed; no new calls are accepted after that */
+    private volatile boolean closed = false;
+
+    /**
+     * Call together with future that receives its result
+     *
+     * @param <T> is type of value returned by call
+     */
+    private static final class Call<T> {
+        @Nonnull
+        private final Supplier<T> supplier;
+        @Nonnull
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Call(Supplier<T> supplier) {
+            this.supplier = Objects.requireNonNull(supplier);
+        }
+
+        private void run() {
+            try {
+                result.complete(supplier.get());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void fail(Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Create asynchronous client with default limit of requests in flight, using own thread pool.
+     *
+     * @param client is synchronous client used to execute calls
+     */
+    public AsyncDokuWikiClient(DokuWikiClient client) {
+        this(client, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Create asynchronous client, using own thread pool sized to maximal number of requests in flight.
+     *
+     * @param client is synchronous client used to execute calls
+     * @param maxInFlight is maximal number of requests sent to wiki in parallel
+     */
+    public AsyncDokuWikiClient(DokuWikiClient client, int maxInFlight) {
+        this(client, null, maxInFlight);
+    }
+
+    /**
+     * Create asynchronous client, running calls on supplied executor.
+     *
+     * @param client is synchronous client used to execute calls
+     * @param executor is executor used to run calls; if null, own bounded thread pool is created
+     * @param maxInFlight is maximal number of requests sent to wiki in parallel
+     */
+    public AsyncDokuWikiClient(DokuWikiClient client, @Nullable Executor executor, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Maximal number of requests in flight must be positive, "
+                    + maxInFlight + " supplied");
+        }
+        this.client = Objects.requireNonNull(client);
+        this.maxInFlight = maxInFlight;
+        if (executor == null) {
+            this.ownExecutor = Executors.newFixedThreadPool(maxInFlight,
+                    BulkExecutor.daemonThreadFactory("dokuwiki-async"));
+            this.executor = ownExecutor;
+        } else {
+            this.ownExecutor = null;
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * @return synchronous client used to execute calls
+     */
+    @Nonnull
+    public DokuWikiClient getClient() {
+        return client;
+    }
+
+    /**
+     * @return maximal number of requests sent to wiki in parallel
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return number of requests currently being executed
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return number of requests waiting for free slot
+     */
+    public int getWaiting() {
+        return waiting.size();
+    }
+
+    /**
+     * Schedule call; it is started immediately if number of requests in flight is bellow limit, otherwise it waits in
+     * queue
+     *
+     * @param supplier is call to be executed
+     * @param <T> is type of value returned by call
+     * @return future that will be completed with result of call
+     */
+    @Nonnull
+    private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+        var call = new Call<>(supplier);
+        if (closed) {
+            call.fail(new RejectedExecutionException("Asynchronous client has been closed"));
+            return call.result;
+        }
+        waiting.add(call);
+        dispatch();
+        return call.result;
+    }
+
+    /**
+     * Take slot and waiting call
+     *
+     * @return waiting call if there was one and slot was free, null otherwise
+     */
+    @Nullable
+    private Call<?> acquire() {
+        while (!waiting.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return null;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            var call = waiting.poll();
+            if (call != null) {
+                return call;
+            }
+            inFlight.decrementAndGet();
+        }
+        return null;
+    }
+
+    /**
+     * Start waiting calls while there are free slots
+     */
+    private void dispatch() {
+        Call<?> call;
+        while ((call = acquire()) != null) {
+            var first = call;
+            try {
+                executor.execute(() -> runCalls(first));
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                first.fail(e);
+            }
+        }
+    }
+
+    /**
+     * Run call and then waiting calls, keeping slot while there are any. Loop (instead of dispatching next call from
+     * finished one) ensures that stack does not grow even when executor runs tasks in calling thread
+     */
+    private void runCalls(Call<?> first) {
+        var call = first;
+        while (call != null) {
+            call.run();
+            call = waiting.poll();
+            if (call == null) {
+                inFlight.decrementAndGet();
+                // call might have been queued after poll, while slot was still taken
+                call = acquire();
+            }
+        }
+    }
+
+    /**
+     * Get content of page from wiki asynchronously
+     *
+     * @param id is page name to be retrieved
+     * @return future with content of given page, empty string if page does not exist
+     */
+    @Nonnull
+    public CompletableFuture<String> getPageAsync(String id) {
+        return submit(() -> client.getPage(id));
+    }
+
+    /**
+     * Put page (update its content) on wiki asynchronously. Shortened version without summary and minor change marker
+     *
+     * @param id is name of page to be created / updated
+     * @param text is new text of page
+     * @return future completed when page has been written
+     */
+    @Nonnull
+    public CompletableFuture<Void> putPageAsync(String id, String text) {
+        return putPageAsync(id, text, null, null);
+    }
+
+    /**
+     * Put page (update its content) on wiki asynchronously.
+     *
+     * @param id is name of page to be created / updated
+     * @param text is new text of page
+     * @param summary is change summary to be stored in history for given version of page
+     * @param minor indicates that modification should be marked minor
+     * @return future completed when page has been written
+     */
+    @Nonnull
+    public CompletableFuture<Void> putPageAsync(String id, String text, @Nullable String summary,
+                                                @Nullable Boolean minor) {
+        return submit(() -> {
+            client.putPage(id, text, summary, minor);
+            return null;
+        });
+    }
+
+    /**
+     * Delete page asynchronously; translates to changing content of page to empty
+     *
+     * @param id is name of page to be removed
+     * @return future completed when page has been removed
+     */
+    @Nonnull
+    public CompletableFuture<Void> deletePageAsync(String id) {
+        return submit(() -> {
+            client.deletePage(id);
+            return null;
+        });
+    }
+
+    /**
+     * Get pages in namespace asynchronously
+     *
+     * @param namespace is namespace in which search is done
+     * @param depth is depth of search, 0 means unlimited
+     * @return future with list of pages in given namespace up to specified depth
+     */
+    @Nonnull
+    public CompletableFuture<List<PageListResult>> getPagesAsync(String namespace, int depth) {
+        return submit(() -> client.getPages(namespace, depth));
+    }
+
+    /**
+     * Get all pages from wiki asynchronously
+     *
+     * @return future with list of all pages in wiki
+     */
+    @Nonnull
+    public CompletableFuture<List<PageData>> getAllPagesAsync() {
+        return submit(client::getAllPages);
+    }
+
+    /**
+     * Find pages in wiki matching search term asynchronously
+     *
+     * @param query is search query (using wiki syntax)
+     * @return future with list of matching pages
+     */
+    @Nonnull
+    public CompletableFuture<List<SearchResult>> searchPagesAsync(String query) {
+        return submit(() -> client.searchPages(query));
+    }
+
+    /**
+     * Get list of attachments in given namespace asynchronously
+     *
+     * @param namespace is namespace that should be searched
+     * @param depth is depth of sub-spaces to be searched through (absolute from root, not from given namespace);
+     *             0 means unlimited
+     * @return future with list of attachments in given namespace
+     */
+    @Nonnull
+    public CompletableFuture<List<AttachmentInfo>> getAttachmentsAsync(String namespace, int depth) {
+        return submit(() -> client.getAttachments(namespace, depth));
+    }
+
+    /**
+     * Get content of attachment (file) from wiki asynchronously
+     *
+     * @param id is name of attachment we want to retrieve
+     * @return future with content of attachment; completed exceptionally if file does not exist
+     */
+    @Nonnull
+    public CompletableFuture<byte[]> getAttachmentAsync(String id) {
+        return submit(() -> client.getAttachment(id));
+    }
+
+    /**
+     * Put attachment (file) to wiki asynchronously
+     *
+     * @param id is location where attachment should be put to
+     * @param file is byte array with file content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @return future completed when attachment has been written
+     */
+    @Nonnull
+    public CompletableFuture<Void> putAttachmentAsync(String id, byte[] file, boolean overwrite) {
+        return submit(() -> {
+            client.putAttachment(id, file, overwrite);
+            return null;
+        });
+    }
+
+    /**
+     * Delete attachment from wiki asynchronously
+     *
+     * @param id is name of attachment we want to remove
+     * @return future completed when attachment has been removed
+     */
+    @Nonnull
+    public CompletableFuture<Void> deleteAttachmentAsync(String id) {
+        return submit(() -> {
+            client.deleteAttachment(id);
+            return null;
+        });
+    }
+
+    /**
+     * Close client. Calls in flight are finished, calls waiting for free slot and calls submitted after close are
+     * completed exceptionally with {@link RejectedExecutionException}. Thread pool created by this client is shut down,
+     * executor supplied by caller is left untouched
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+        Call<?> call;
+        while ((call = waiting.poll()) != null) {
+            call.fail(new RejectedExecutionException("Asynchronous client has been closed"));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncDokuWikiClient{" +
+                "client=" + client +
+                ", maxInFlight=" + maxInFlight +
+                ", inFlight=" + inFlight +
+                '}';
+    }
+}
@@ -0,0 +1,402 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bounded off-heap cache of attachment content, keyed by attachment id. Each entry remembers modification time
+ * ({@link AttachmentInfo#getMtime()}) of attachment it was retrieved for and is only returned if caller asks for the
+ * same modification time. Content is kept in files in cache directory, named by SHA-256 digest of content, thus
+ * attachments with identical content share single file; files are memory-mapped and callers receive read-only
+ * {@link ByteBuffer} views of mapping, so serving cached content does not copy it to heap. Least recently used entries
+ * are evicted when total size of (distinct) cached content exceeds limit. Cache is thread safe.
+ * <p>
+ * Buffer returned by cache remains valid after its entry has been evicted, as mapping is only released when buffer is
+ * garbage collected. Content file is removed only after it has been removed from index; on platforms that do not allow
+ * removal of mapped file (Windows), removal fails while buffer is reachable and it is repeated on next eviction.
+ * Directory should be dedicated to cache - content files left in it by previous instance are removed when cache is
+ * created.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AttachmentCache {
+
+    /** suffix of temporary files content is written to before it is moved to its content file */
+    private static final String TEMP_SUFFIX = ".part";
+
+    /** directory content files are kept in */
+    @Nonnull
+    private final Path directory;
+    /** maximal size of cached content in bytes */
+    private final long maxBytes;
+    /** cached entries in access order, eldest first */
+    @Nonnull
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** mapped content files, indexed by content digest */
+    @Nonnull
+    private final Map<String, Blob> blobs = new HashMap<>();
+    /** files that should have been removed, but removal failed (e.g. because file was still mapped) */
+    @Nonnull
+    private final Set<Path> pendingDeletes = new HashSet<>();
+    /** current size of cached content in bytes; content shared by multiple entries is only counted once */
+    private long sizeInBytes = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Create new empty cache.
+     *
+     * @param directory is directory content files are kept in; it is created if it does not exist
+     * @param maxBytes is maximal size of cached content in bytes
+     */
+    public AttachmentCache(Path directory, long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative, " + maxBytes + " supplied");
+        }
+        this.directory = Objects.requireNonNull(directory);
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            // remove content left by previous instance; index is not persisted, thus such content is not accessible
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.collect(Collectors.toList());
+            }
+            for (var file : files) {
+                var name = file.getFileName().toString();
+                if (name.matches("[0-9a-f]{64}") || name.endsWith(TEMP_SUFFIX)) {
+                    delete(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize attachment cache in " + directory, e);
+        }
+    }
+
+    /**
+     * Retrieve attachment content from cache.
+     *
+     * @param id is id of attachment
+     * @param mtime is current modification time of attachment
+     * @return read-only buffer with cached content if it is present and has been retrieved for given modification
+     * time, null otherwise
+     */
+    @Nullable
+    public synchronized ByteBuffer get(String id, int mtime) {
+        var entry = entries.get(id);
+        if ((entry != null) && (entry.mtime == mtime)) {
+            hitCount++;
+            return blobs.get(entry.digest).view();
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Retrieve attachment content from cache.
+     *
+     * @param attachment is attachment as retrieved via attachment listing
+     * @return read-only buffer with cached content if it is present and has been retrieved for current modification
+     * time of attachment, null otherwise
+     */
+    @Nullable
+    public ByteBuffer get(AttachmentInfo attachment) {
+        return get(attachment.getId(), attachment.getMtime());
+    }
+
+    /**
+     * Create temporary file in cache directory. Caller should write content to this file and pass it to
+     * {@link #put(String, int, Path)}, thus content is not copied again
+     *
+     * @return new empty temporary file
+     */
+    @Nonnull
+    public Path createTempFile() {
+        try {
+            return Files.createTempFile(directory, "attachment", TEMP_SUFFIX);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create temporary file in " + directory, e);
+        }
+    }
+
+    /**
+     * Store attachment content in cache, replacing previous content of given attachment.
+     *
+     * @param id is id of attachment
+     * @param mtime is modification time of attachment content belongs to
+     * @param content is attachment content
+     * @return read-only buffer with content, backed by content file
+     */
+    @Nonnull
+    public ByteBuffer put(String id, int mtime, byte[] content) {
+        var tempFile = createTempFile();
+        try {
+            Files.write(tempFile, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write attachment " + id + " to cache " + directory, e);
+        }
+        return put(id, mtime, tempFile);
+    }
+
+    /**
+     * Store attachment content in cache, replacing previous content of given attachment. File is moved to cache
+     * directory (or removed if cache already holds the same content) and must not be used by caller afterwards. Evicts
+     * least recently used entries if limit is exceeded; content bigger than whole cache is not stored at all, but
+     * returned buffer is still valid
+     *
+     * @param id is id of attachment
+     * @param mtime is modification time of attachment content belongs to
+     * @param file is file with attachment content, should be located in cache directory
+     * @return read-only buffer with content, backed by content file
+     */
+    @Nonnull
+    public ByteBuffer put(String id, int mtime, Path file) {
+        var digest = ContentDigest.of(file);
+        try {
+            synchronized (this) {
+                var blob = blobs.get(digest);
+                if (blob != null) {
+                    Files.delete(file);
+                } else {
+                    var size = Files.size(file);
+                    if (size > maxBytes) {
+                        invalidate(id);
+                        // mapping is valid even after file is removed
+                        var buffer = Blob.map(file, size);
+                        delete(file);
+                        return buffer.asReadOnlyBuffer();
+                    }
+                    var contentFile = directory.resolve(digest);
+                    if (pendingDeletes.remove(contentFile) && Files.exists(contentFile)) {
+                        // evicted file with the same content could not be removed yet - reuse it
+                        Files.delete(file);
+                    } else {
+                        Files.move(file, contentFile, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    blob = new Blob(contentFile, Blob.map(contentFile, size));
+                    blobs.put(digest, blob);
+                    sizeInBytes += size;
+                }
+                blob.references++;
+                var previous = entries.put(id, new Entry(mtime, digest));
+                if (previous != null) {
+                    release(previous);
+                }
+                evict();
+                return blob.view();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store attachment " + id + " in cache " + directory, e);
+        }
+    }
+
+    /**
+     * Evict least recently used entries until size of content is within limit; also retries removal of files that
+     * could not be removed before
+     */
+    private void evict() {
+        if (!pendingDeletes.isEmpty()) {
+            for (var file : pendingDeletes.toArray(new Path[0])) {
+                pendingDeletes.remove(file);
+                delete(file);
+            }
+        }
+        var iterator = entries.values().iterator();
+        while (sizeInBytes > maxBytes) {
+            var eldest = iterator.next();
+            iterator.remove();
+            release(eldest);
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Release reference to content of entry removed from index; content file is removed if no other entry references
+     * it
+     */
+    private void release(Entry entry) {
+        var blob = blobs.get(entry.digest);
+        if (--blob.references == 0) {
+            blobs.remove(entry.digest);
+            sizeInBytes -= blob.buffer.capacity();
+            delete(blob.file);
+        }
+    }
+
+    /**
+     * Remove file; if removal fails (e.g. because file is still mapped by buffer returned to caller), it is
+     * registered to be retried on next eviction
+     */
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            pendingDeletes.add(file);
+        }
+    }
+
+    /**
+     * Remove attachment from cache; used when attachment is modified via this client
+     *
+     * @param id is id of attachment to be removed
+     */
+    public synchronized void invalidate(String id) {
+        var entry = entries.remove(id);
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    /**
+     * Remove all entries from cache. Statistics are kept
+     */
+    public synchronized void clear() {
+        for (var id : entries.keySet().toArray(new String[0])) {
+            invalidate(id);
+        }
+    }
+
+    /**
+     * @return directory content files are kept in
+     */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return maximal size of cached content in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return current size of cached content in bytes; content shared by multiple attachments is counted once
+     */
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * @return number of attachments currently cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of distinct content files currently cached
+     */
+    public synchronized int getContentCount() {
+        return blobs.size();
+    }
+
+    /**
+     * @return number of files whose removal failed and will be retried on next eviction
+     */
+    synchronized int getPendingDeleteCount() {
+        return pendingDeletes.size();
+    }
+
+    /**
+     * @return number of lookups answered from cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of lookups that did not find valid entry in cache
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of entries evicted because of size limit
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AttachmentCache{" +
+                "directory=" + directory +
+                ", maxBytes=" + maxBytes +
+                ", sizeInBytes=" + sizeInBytes +
+                ", entries=" + entries.size() +
+                ", contents=" + blobs.size() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+
+    private static final class Entry {
+        private final int mtime;
+        /** digest of content, identifying blob */
+        @Nonnull
+        private final String digest;
+
+        private Entry(int mtime, String digest) {
+            this.mtime = mtime;
+            this.digest = Objects.requireNonNull(digest);
+        }
+    }
+
+    /**
+     * Memory-mapped content file, shared by all entries with the same content
+     */
+    private static final class Blob {
+        @Nonnull
+        private final Path file;
+        @Nonnull
+        private final MappedByteBuffer buffer;
+        /** number of entries referencing this content */
+        private int references;
+
+        private Blob(Path file, MappedByteBuffer buffer) {
+            this.file = Objects.requireNonNull(file);
+            this.buffer = Objects.requireNonNull(buffer);
+        }
+
+        @Nonnull
+        private static MappedByteBuffer map(Path file, long size) throws IOException {
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Attachment of size " + size + " is too big to be mapped to single buffer");
+            }
+            // mapping remains valid after channel is closed
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+
+        /**
+         * @return new read-only view of content, with independent position
+         */
+        @Nonnull
+        private ByteBuffer view() {
+            return buffer.asReadOnlyBuffer();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Manifest of attachments uploaded by this client. For each attachment it keeps size, modification time on wiki and
+ * digest of content that was uploaded. If size and modification time on wiki still match manifest entry, content on
+ * wiki is the content that was uploaded and it can be compared with new content using digest, without downloading old
+ * content. Manifest can be kept in memory only or persisted to local file. Manifest is thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AttachmentManifest {
+
+    @Nonnull
+    private final EntryStore<Entry> store;
+
+    /**
+     * Create empty in-memory manifest.
+     */
+    public AttachmentManifest() {
+        this.store = newStore(null);
+    }
+
+    /**
+     * Create manifest persisted to given file. If file exists, manifest is loaded from it.
+     *
+     * @param file is file manifest is persisted to
+     */
+    public AttachmentManifest(Path file) {
+        this.store = newStore(Objects.requireNonNull(file));
+    }
+
+    @Nonnull
+    private static EntryStore<Entry> newStore(@Nullable Path file) {
+        return new EntryStore<>(file, "attachment manifest", 4,
+                fields -> new Entry(Long.parseLong(fields[1]), LocalDateTime.parse(fields[2]), fields[3]),
+                entry -> String.valueOf(entry.size) + '\t' + entry.lastModified + '\t' + entry.digest);
+    }
+
+    /**
+     * Verify if attachment on wiki contains given content.
+     *
+     * @param id is id of attachment
+     * @param size is current size of attachment on wiki
+     * @param lastModified is current modification time of attachment on wiki
+     * @param digest is digest of content to be compared
+     * @return true if manifest proves that attachment on wiki has given content; false if content is different or
+     * manifest does not contain valid entry for attachment
+     */
+    public boolean isUnchanged(String id, long size, LocalDateTime lastModified, String digest) {
+        var entry = store.get(id);
+        return (entry != null) && (entry.size == size) && entry.lastModified.equals(lastModified)
+                && entry.digest.equals(digest);
+    }
+
+    /**
+     * Record content of attachment on wiki.
+     *
+     * @param id is id of attachment
+     * @param size is current size of attachment on wiki
+     * @param lastModified is current modification time of attachment on wiki
+     * @param digest is digest of attachment content
+     */
+    public void record(String id, long size, LocalDateTime lastModified, String digest) {
+        store.put(id, new Entry(size, lastModified, digest));
+    }
+
+    /**
+     * Remove attachment from manifest
+     *
+     * @param id is id of attachment
+     */
+    public void remove(String id) {
+        store.remove(id);
+    }
+
+    /**
+     * @return number of attachments in manifest
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Write manifest to its file; does nothing for in-memory manifest. Manifest is written to temporary file first and
+     * moved to target location afterwards
+     */
+    public void save() {
+        store.save();
+    }
+
+    @Override
+    public String toString() {
+        return "AttachmentManifest{" +
+                "file=" + store.getFile() +
+                ", entries=" + store.size() +
+                '}';
+    }
+
+    private static final class Entry {
+        private final long size;
+        @Nonnull
+        private final LocalDateTime lastModified;
+        @Nonnull
+        private final String digest;
+
+        private Entry(long size, LocalDateTime lastModified, String digest) {
+            this.size = size;
+            this.lastModified = Objects.requireNonNull(lastModified);
+            this.digest = Objects.requireNonNull(digest);
+        }
+    }
+}
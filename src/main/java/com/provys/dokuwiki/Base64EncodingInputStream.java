@@ -0,0 +1,77 @@
+package com.provys.dokuwiki;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Input stream that reads given number of bytes from underlying stream and produces their base64 encoding (without
+ * line breaks). Content is encoded in small chunks, thus memory consumption does not depend on length of content.
+ */
+final class Base64EncodingInputStream extends InputStream {
+
+    /** size of chunk of raw data encoded at once; must be multiple of 3 */
+    private static final int CHUNK_SIZE = 3 * 2048;
+
+    private final InputStream source;
+    /** number of bytes still to be read from source */
+    private long remaining;
+    private final byte[] raw = new byte[CHUNK_SIZE];
+    private final byte[] encoded = new byte[CHUNK_SIZE / 3 * 4];
+    private int encodedLength = 0;
+    private int encodedPos = 0;
+
+    Base64EncodingInputStream(InputStream source, long length) {
+        this.source = source;
+        this.remaining = length;
+    }
+
+    /**
+     * Encode next chunk of source
+     *
+     * @return false if there is no more content
+     */
+    private boolean fill() throws IOException {
+        if (remaining == 0) {
+            return false;
+        }
+        var toRead = (int) Math.min(CHUNK_SIZE, remaining);
+        var read = source.readNBytes(raw, 0, toRead);
+        if (read < toRead) {
+            throw new IOException("Stream ended " + (remaining - read) + " bytes before declared length");
+        }
+        remaining -= read;
+        encodedLength = (read == CHUNK_SIZE) ? Base64.getEncoder().encode(raw, encoded)
+                : Base64.getEncoder().encode(Arrays.copyOf(raw, read), encoded);
+        encodedPos = 0;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if ((encodedPos == encodedLength) && !fill()) {
+            return -1;
+        }
+        return encoded[encodedPos++];
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if ((encodedPos == encodedLength) && !fill()) {
+            return -1;
+        }
+        var count = Math.min(len, encodedLength - encodedPos);
+        System.arraycopy(encoded, encodedPos, b, off, count);
+        encodedPos += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
@@ -0,0 +1,75 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Binary parameter of Xml-Rpc call that is not held in memory; content is read from stream and base64 encoded while
+ * request is being sent. Used by client's own streaming Xml-Rpc implementation.
+ */
+final class Base64Source {
+
+    /**
+     * Opens stream with content
+     */
+    @FunctionalInterface
+    interface StreamOpener {
+        InputStream open() throws IOException;
+    }
+
+    /** number of bytes of content */
+    private final long length;
+    @Nonnull
+    private final StreamOpener opener;
+    /** indicates that opener produces content from its beginning each time it is called */
+    private final boolean repeatable;
+
+    Base64Source(long length, StreamOpener opener, boolean repeatable) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative, " + length + " supplied");
+        }
+        this.length = length;
+        this.opener = Objects.requireNonNull(opener);
+        this.repeatable = repeatable;
+    }
+
+    /**
+     * @return number of bytes of content
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * @return true if content can be read repeatedly, false if it can only be read once
+     */
+    boolean isRepeatable() {
+        return repeatable;
+    }
+
+    /**
+     * @return number of characters of base64 encoded content (without line breaks)
+     */
+    long getEncodedLength() {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * @return stream producing base64 encoded content
+     * @throws IOException if content cannot be opened
+     */
+    @Nonnull
+    InputStream openEncoded() throws IOException {
+        return new Base64EncodingInputStream(opener.open(), length);
+    }
+
+    @Override
+    public String toString() {
+        return "Base64Source{" +
+                "length=" + length +
+                ", repeatable=" + repeatable +
+                '}';
+    }
+}
@@ -0,0 +1,158 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcArray;
+import com.provys.xmlrpc.XmlRpcStruct;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Result of single call executed as part of {@link DokuWikiBatch}. Each call in batch is evaluated independently on
+ * wiki and either returns value or fault.
+ */
+@SuppressWarnings("WeakerAccess")
+public class BatchCallResult {
+
+    /** fault code reported for call wiki did not return result for (Xml-Rpc internal error) */
+    public static final int MISSING_RESULT = -32603;
+
+    /**
+     * Parse item of system.multicall response. Successful call is represented by array containing single value,
+     * failed call by struct with faultCode and faultString
+     *
+     * @param methodName is name of method that has been called
+     * @param id is id of page or attachment call has been executed for
+     * @param response is item of multicall response, corresponding to given call
+     * @return new {@code BatchCallResult} representing result of call
+     */
+    @Nonnull
+    static BatchCallResult parseResponse(String methodName, String id, Object response) {
+        if (response instanceof XmlRpcStruct) {
+            var fault = (XmlRpcStruct) response;
+            return new BatchCallResult(methodName, id, null, (int) fault.get("faultCode"),
+                    (String) fault.get("faultString"));
+        }
+        return new BatchCallResult(methodName, id, ((XmlRpcArray) response).stream().findFirst().orElse(null),
+                0, null);
+    }
+
+    /**
+     * Create result of call that is missing in system.multicall response. Such call might or might not have been
+     * executed on wiki
+     *
+     * @param methodName is name of method that has been called
+     * @param id is id of page or attachment call has been sent for
+     * @return new {@code BatchCallResult} representing failed call
+     */
+    @Nonnull
+    static BatchCallResult ofMissing(String methodName, String id) {
+        return new BatchCallResult(methodName, id, null, MISSING_RESULT,
+                "Wiki did not return result for call in multicall response");
+    }
+
+    /** name of Xml-Rpc method that has been called */
+    @Nonnull
+    private final String methodName;
+    /** id of page or attachment call has been executed for */
+    @Nonnull
+    private final String id;
+    /** value returned by call; null if call failed or did not return value */
+    @Nullable
+    private final Object value;
+    /** fault code if call failed, 0 otherwise */
+    private final int faultCode;
+    /** fault message if call failed, null otherwise */
+    @Nullable
+    private final String faultString;
+
+    private BatchCallResult(String methodName, String id, @Nullable Object value, int faultCode,
+                            @Nullable String faultString) {
+        this.methodName = Objects.requireNonNull(methodName);
+        this.id = Objects.requireNonNull(id);
+        this.value = value;
+        this.faultCode = faultCode;
+        this.faultString = faultString;
+    }
+
+    /**
+     * @return name of Xml-Rpc method that has been called
+     */
+    @Nonnull
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * @return id of page or attachment call has been executed for
+     */
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return value returned by call; null if call failed or did not return value
+     */
+    @Nullable
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return fault code if call failed, 0 otherwise
+     */
+    public int getFaultCode() {
+        return faultCode;
+    }
+
+    /**
+     * @return fault message if call failed, null otherwise
+     */
+    @Nullable
+    public String getFaultString() {
+        return faultString;
+    }
+
+    /**
+     * @return true if call has been executed successfully
+     */
+    public boolean isSuccess() {
+        return faultString == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BatchCallResult)) return false;
+
+        BatchCallResult that = (BatchCallResult) o;
+
+        if (getFaultCode() != that.getFaultCode()) return false;
+        if (!getMethodName().equals(that.getMethodName())) return false;
+        if (!getId().equals(that.getId())) return false;
+        if (!Objects.equals(getValue(), that.getValue())) return false;
+        return Objects.equals(getFaultString(), that.getFaultString());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getMethodName().hashCode();
+        result = 31 * result + getId().hashCode();
+        result = 31 * result + Objects.hashCode(getValue());
+        result = 31 * result + getFaultCode();
+        result = 31 * result + Objects.hashCode(getFaultString());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCallResult{" +
+                "methodName='" + methodName + '\'' +
+                ", id='" + id + '\'' +
+                ", value=" + value +
+                ", faultCode=" + faultCode +
+                ", faultString='" + faultString + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Execution of {@link DokuWikiBatch} failed part way - multicall request with one of chunks failed. Calls from chunks
+ * sent before it have been applied on wiki; their results are available via {@link #getResults()}. Calls from failed
+ * and following chunks remain pending in batch, thus repeated execution only sends calls that have not been applied
+ */
+@SuppressWarnings("WeakerAccess")
+public class BatchExecutionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** results of calls executed before failure */
+    @Nonnull
+    private final transient List<BatchCallResult> results;
+
+    BatchExecutionException(List<BatchCallResult> results, int pendingCalls, RuntimeException cause) {
+        super("Batch execution failed after " + results.size() + " calls; " + pendingCalls
+                + " calls remain pending", cause);
+        this.results = List.copyOf(results);
+    }
+
+    /**
+     * @return results of calls executed before failure, in order in which calls were added to batch
+     */
+    @Nonnull
+    public List<BatchCallResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,117 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Executes single-item wiki operation for collection of ids, using bounded number of parallel requests. Failure of
+ * operation on one item does not prevent processing of remaining items; failures are collected in result.
+ */
+final class BulkExecutor {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    /** maximal number of requests running in parallel */
+    private final int parallelism;
+
+    /**
+     * Create bulk executor with given parallelism.
+     *
+     * @param parallelism is maximal number of requests sent to wiki in parallel; 1 means sequential processing
+     */
+    BulkExecutor(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, " + parallelism + " supplied");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param prefix is prefix used for names of created threads
+     * @return thread factory producing daemon threads, so unfinished bulk operation does not block jvm shutdown
+     */
+    static ThreadFactory daemonThreadFactory(String prefix) {
+        var poolNumber = POOL_NUMBER.incrementAndGet();
+        var threadNumber = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, prefix + "-" + poolNumber + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Execute action for all supplied ids.
+     *
+     * @param ids are ids of items action should be executed for
+     * @param action is action to be executed for each id
+     * @return result containing ids of items processed successfully and failures
+     */
+    @Nonnull
+    BulkOperationResult execute(List<String> ids, Consumer<String> action) {
+        var succeeded = new ArrayList<String>(ids.size());
+        var failed = new LinkedHashMap<String, RuntimeException>();
+        if (parallelism == 1 || ids.size() <= 1) {
+            for (var id : ids) {
+                try {
+                    action.accept(id);
+                    succeeded.add(id);
+                } catch (RuntimeException e) {
+                    failed.put(id, e);
+                }
+            }
+            return new BulkOperationResult(succeeded, failed);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, ids.size()),
+                daemonThreadFactory("dokuwiki-bulk"));
+        try {
+            var futures = new ArrayList<Future<?>>(ids.size());
+            for (var id : ids) {
+                futures.add(executor.submit(() -> action.accept(id)));
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                collect(ids.get(i), futures.get(i), succeeded, failed);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new BulkOperationResult(succeeded, failed);
+    }
+
+    private static void collect(String id, Future<?> future, List<String> succeeded,
+                                Map<String, RuntimeException> failed) {
+        try {
+            future.get();
+            succeeded.add(id);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                failed.put(id, (RuntimeException) cause);
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                failed.put(id, new RuntimeException("Bulk operation failed for " + id, cause));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for bulk operation", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BulkExecutor{" +
+                "parallelism=" + parallelism +
+                '}';
+    }
+}
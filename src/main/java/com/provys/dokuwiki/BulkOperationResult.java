@@ -0,0 +1,93 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of bulk operation, executed on multiple pages or attachments. Unlike single item operations, bulk operation
+ * does not stop on first failure; instead it collects ids of items processed successfully and failures for remaining
+ * ones.
+ */
+@SuppressWarnings("WeakerAccess")
+public class BulkOperationResult {
+
+    /** ids of items, processed successfully (in order in which they were submitted) */
+    @Nonnull
+    private final List<String> succeeded;
+    /** ids of items where operation failed, together with exception that caused failure */
+    @Nonnull
+    private final Map<String, RuntimeException> failed;
+
+    BulkOperationResult(List<String> succeeded, Map<String, RuntimeException> failed) {
+        this.succeeded = List.copyOf(succeeded);
+        this.failed = Collections.unmodifiableMap(new LinkedHashMap<>(failed));
+    }
+
+    /**
+     * Merge two results into one; used when bulk operation consists of multiple phases
+     *
+     * @param other is result of another phase of the same operation
+     * @return new result containing successes and failures from both results
+     */
+    @Nonnull
+    BulkOperationResult merge(BulkOperationResult other) {
+        var mergedSucceeded = new ArrayList<>(succeeded);
+        mergedSucceeded.addAll(other.succeeded);
+        var mergedFailed = new LinkedHashMap<>(failed);
+        mergedFailed.putAll(other.failed);
+        return new BulkOperationResult(mergedSucceeded, mergedFailed);
+    }
+
+    /**
+     * @return ids of items, processed successfully
+     */
+    @Nonnull
+    public List<String> getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return ids of items where operation failed, together with exception that caused failure
+     */
+    @Nonnull
+    public Map<String, RuntimeException> getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return true if operation succeeded for all items
+     */
+    public boolean isSuccess() {
+        return failed.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BulkOperationResult)) return false;
+
+        BulkOperationResult that = (BulkOperationResult) o;
+
+        if (!getSucceeded().equals(that.getSucceeded())) return false;
+        return getFailed().equals(that.getFailed());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getSucceeded().hashCode();
+        result = 31 * result + getFailed().hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperationResult{" +
+                "succeeded=" + succeeded +
+                ", failed=" + failed +
+                '}';
+    }
+}
@@ -0,0 +1,268 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcFaultException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * DokuWiki client that keeps content of retrieved pages in {@link PageCache} and optionally content of attachments in
+ * {@link AttachmentCache}. Cached content is validated against
+ * current page revision, retrieved via cheap wiki.getPageInfo call, or against revision supplied by caller (e.g. from
+ * {@link PageListResult}), in which case no call to wiki is needed at all. Attachments are validated against
+ * modification time from attachment listing ({@link AttachmentInfo}) and are served as read-only buffers backed by
+ * memory-mapped files, thus cached attachments do not occupy heap. Pages and attachments modified via this client are
+ * removed from cache.
+ */
+@SuppressWarnings("WeakerAccess") // CachingDokuWikiClient is published library class
+public class CachingDokuWikiClient extends DokuWikiClient {
+
+    /** cache holding page content */
+    @Nonnull
+    private final PageCache pageCache;
+    /** cache holding attachment content; null if attachments are not cached */
+    @Nullable
+    private final AttachmentCache attachmentCache;
+
+    /**
+     * Create new caching DokuWiki client instance.
+     *
+     * @param url is url used to access xml-rpc endpoint of DokuWiki
+     * @param userName used to login to wiki
+     * @param password used to login to wiki
+     * @param pageCache is cache used to keep page content
+     */
+    public CachingDokuWikiClient(String url, String userName, String password, PageCache pageCache) {
+        this(url, userName, password, pageCache, null);
+    }
+
+    /**
+     * Create new caching DokuWiki client instance, caching both pages and attachments.
+     *
+     * @param url is url used to access xml-rpc endpoint of DokuWiki
+     * @param userName used to login to wiki
+     * @param password used to login to wiki
+     * @param pageCache is cache used to keep page content
+     * @param attachmentCache is cache used to keep attachment content; null if attachments should not be cached
+     */
+    public CachingDokuWikiClient(String url, String userName, String password, PageCache pageCache,
+                                 @Nullable AttachmentCache attachmentCache) {
+        super(url, userName, password);
+        this.pageCache = Objects.requireNonNull(pageCache);
+        this.attachmentCache = attachmentCache;
+    }
+
+    /**
+     * Create new caching DokuWiki client instance, sending all calls via supplied transport.
+     *
+     * @param transport is transport used to deliver calls to wiki
+     * @param pageCache is cache used to keep page content
+     */
+    public CachingDokuWikiClient(DokuWikiTransport transport, PageCache pageCache) {
+        this(transport, pageCache, null);
+    }
+
+    /**
+     * Create new caching DokuWiki client instance, caching both pages and attachments and sending all calls via
+     * supplied transport.
+     *
+     * @param transport is transport used to deliver calls to wiki
+     * @param pageCache is cache used to keep page content
+     * @param attachmentCache is cache used to keep attachment content; null if attachments should not be cached
+     */
+    public CachingDokuWikiClient(DokuWikiTransport transport, PageCache pageCache,
+                                 @Nullable AttachmentCache attachmentCache) {
+        super(transport);
+        this.pageCache = Objects.requireNonNull(pageCache);
+        this.attachmentCache = attachmentCache;
+    }
+
+    /**
+     * @return cache used to keep page content; can be used to access cache statistics
+     */
+    @Nonnull
+    public PageCache getPageCache() {
+        return pageCache;
+    }
+
+    /**
+     * @return cache used to keep attachment content; null if attachments are not cached
+     */
+    @Nullable
+    public AttachmentCache getAttachmentCache() {
+        return attachmentCache;
+    }
+
+    /**
+     * Get content of page from wiki or from cache, if cached content corresponds to current page revision
+     *
+     * @param id is page name to be retrieved
+     * @return content of given page, empty string if page does not exist
+     */
+    @Nonnull
+    @Override
+    public String getPage(String id) {
+        int rev;
+        try {
+            rev = getPageInfo(id).getVersion();
+        } catch (XmlRpcFaultException | DokuWikiFaultException e) {
+            // page does not exist (or info is not accessible) - nothing to validate cache against
+            pageCache.invalidate(id);
+            return super.getPage(id);
+        }
+        return getPage(id, rev);
+    }
+
+    /**
+     * Get content of page from cache if cached content belongs to given revision, otherwise retrieve it from wiki.
+     * Revision is usually obtained from page listing ({@link PageListResult#getRev()}), thus valid cache entry is
+     * returned without any call to wiki
+     *
+     * @param id is page name to be retrieved
+     * @param rev is current revision of page
+     * @return content of given page, empty string if page does not exist
+     */
+    @Nonnull
+    public String getPage(String id, int rev) {
+        var text = pageCache.get(id, rev);
+        if (text == null) {
+            text = super.getPage(id);
+            pageCache.put(id, rev, text);
+        }
+        return text;
+    }
+
+    /**
+     * Get content of page from cache if cached content belongs to revision of page in listing, otherwise retrieve it
+     * from wiki
+     *
+     * @param page is page as retrieved via page listing
+     * @return content of given page
+     */
+    @Nonnull
+    public String getPage(PageListResult page) {
+        return getPage(page.getId(), page.getRev());
+    }
+
+    /**
+     * Get content of attachment from cache if cached content belongs to given modification time, otherwise retrieve it
+     * from wiki and store it in cache. Content retrieved from wiki is streamed directly to cache file, thus it is never
+     * held on heap. If client has no attachment cache, content is retrieved from wiki and wrapped in buffer
+     *
+     * @param id is name of attachment we want to retrieve
+     * @param mtime is current modification time of attachment
+     * @return read-only buffer with content of attachment
+     * @throws DokuWikiFaultException if file does not exist
+     */
+    @Nonnull
+    public ByteBuffer getAttachmentBuffer(String id, int mtime) {
+        if (attachmentCache == null) {
+            return ByteBuffer.wrap(getAttachment(id)).asReadOnlyBuffer();
+        }
+        var buffer = attachmentCache.get(id, mtime);
+        if (buffer == null) {
+            var tempFile = attachmentCache.createTempFile();
+            try {
+                try (var outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                    getAttachment(id, outputStream);
+                }
+                buffer = attachmentCache.put(id, mtime, tempFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write attachment " + id + " to cache", e);
+            } finally {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    // temporary file is removed by cache next time it is created
+                }
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Get content of attachment from cache if cached content belongs to modification time of attachment in listing,
+     * otherwise retrieve it from wiki
+     *
+     * @param attachment is attachment as retrieved via attachment listing
+     * @return read-only buffer with content of attachment
+     */
+    @Nonnull
+    public ByteBuffer getAttachmentBuffer(AttachmentInfo attachment) {
+        return getAttachmentBuffer(attachment.getId(), attachment.getMtime());
+    }
+
+    /**
+     * Remove attachment from attachment cache, if client has one; used when attachment is modified via this client
+     */
+    private void invalidateAttachment(String id) {
+        if (attachmentCache != null) {
+            attachmentCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void putAttachment(String id, byte[] file, boolean overwrite) {
+        invalidateAttachment(id);
+        super.putAttachment(id, file, overwrite);
+    }
+
+    @Override
+    public void putAttachment(String id, InputStream inputStream, long length, boolean overwrite) {
+        invalidateAttachment(id);
+        super.putAttachment(id, inputStream, length, overwrite);
+    }
+
+    @Override
+    public void putAttachment(String id, Path file, boolean overwrite) {
+        invalidateAttachment(id);
+        super.putAttachment(id, file, overwrite);
+    }
+
+    @Override
+    public void putAttachment(String id, byte[] file, boolean overwrite, boolean onlyIfChanged) {
+        invalidateAttachment(id);
+        super.putAttachment(id, file, overwrite, onlyIfChanged);
+    }
+
+    @Override
+    public boolean putAttachment(String id, byte[] file, boolean overwrite, AttachmentManifest manifest) {
+        invalidateAttachment(id);
+        return super.putAttachment(id, file, overwrite, manifest);
+    }
+
+    @Override
+    public boolean putAttachment(String id, Path file, boolean overwrite, AttachmentManifest manifest) {
+        invalidateAttachment(id);
+        return super.putAttachment(id, file, overwrite, manifest);
+    }
+
+    @Override
+    public void deleteAttachment(String id) {
+        invalidateAttachment(id);
+        super.deleteAttachment(id);
+    }
+
+    @Override
+    public void putPage(String id, String text, @Nullable String summary, @Nullable Boolean minor) {
+        pageCache.invalidate(id);
+        super.putPage(id, text, summary, minor);
+    }
+
+    @Override
+    public String toString() {
+        return "CachingDokuWikiClient{" +
+                "pageCache=" + pageCache +
+                ", attachmentCache=" + attachmentCache +
+                ", " + super.toString() +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Incremental feed of page and media changes. Feed keeps cursor (timestamp of newest change seen so far); each
+ * {@link #poll()} returns changes made since previous poll, thus cost of synchronisation depends on number of changes
+ * rather than on size of wiki. Cursor can be persisted via {@link #getCursor()} and used to resume feed later; changes
+ * made in the same second as cursor might be returned again after resume. Feed is not thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ChangeFeed {
+
+    /** client used to retrieve changes */
+    @Nonnull
+    private final DokuWikiClient client;
+    /** indicates if page changes should be retrieved */
+    private final boolean pages;
+    /** indicates if media changes should be retrieved */
+    private final boolean media;
+    /** timestamp of newest change seen so far */
+    private int cursor;
+    /** changes with version equal to cursor that have already been returned */
+    @Nonnull
+    private final Set<RecentChange> seenAtCursor = new HashSet<>();
+
+    ChangeFeed(DokuWikiClient client, int since, boolean pages, boolean media) {
+        this.client = Objects.requireNonNull(client);
+        this.cursor = since;
+        this.pages = pages;
+        this.media = media;
+    }
+
+    /**
+     * @return timestamp of newest change returned so far (or initial timestamp if no changes were returned yet)
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Retrieve changes made since last poll and advance cursor.
+     *
+     * @return changes made since last poll, ordered by version (oldest first)
+     */
+    @Nonnull
+    public List<RecentChange> poll() {
+        var changes = new ArrayList<RecentChange>();
+        if (pages) {
+            changes.addAll(client.getRecentChanges(cursor));
+        }
+        if (media) {
+            changes.addAll(client.getRecentMediaChanges(cursor));
+        }
+        changes.removeIf(change -> (change.getVersion() < cursor) || seenAtCursor.contains(change));
+        changes.sort(Comparator.comparingInt(RecentChange::getVersion));
+        if (!changes.isEmpty()) {
+            var newCursor = changes.get(changes.size() - 1).getVersion();
+            if (newCursor != cursor) {
+                seenAtCursor.clear();
+                cursor = newCursor;
+            }
+            for (var change : changes) {
+                if (change.getVersion() == cursor) {
+                    seenAtCursor.add(change);
+                }
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeFeed{" +
+                "pages=" + pages +
+                ", media=" + media +
+                ", cursor=" + cursor +
+                '}';
+    }
+}
@@ -0,0 +1,16 @@
+package com.provys.dokuwiki;
+
+import java.io.IOException;
+
+/**
+ * Xml-Rpc call has been rejected without contacting wiki, as circuit breaker is open after repeated failures
+ */
+@SuppressWarnings("WeakerAccess")
+public class CircuitBreakerOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    CircuitBreakerOpenException(String method) {
+        super("Xml-Rpc call " + method + " rejected; wiki is considered unavailable after repeated failures");
+    }
+}
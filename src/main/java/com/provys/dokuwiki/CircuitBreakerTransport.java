@@ -0,0 +1,182 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Transport decorator that stops sending calls to wiki that is down. After given number of consecutive transient
+ * failures (see {@link RetryingTransport#isTransient}), breaker opens and calls fail immediately with
+ * {@link CircuitBreakerOpenException}. After open duration, single trial call is let through; if it succeeds, breaker
+ * closes again, otherwise it stays open for another period.
+ * <p>
+ * When combined with {@link RetryingTransport}, breaker should be placed under retrying transport, so each attempt is
+ * registered by breaker and calls rejected by open breaker are not retried.
+ */
+@SuppressWarnings("WeakerAccess") // CircuitBreakerTransport is published library class
+public final class CircuitBreakerTransport implements DokuWikiTransport {
+
+    /** default number of consecutive failures that opens breaker */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    /** default time breaker stays open before trial call is let through */
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * State of circuit breaker
+     */
+    public enum State {
+        /** calls are sent to wiki */
+        CLOSED,
+        /** calls are rejected */
+        OPEN,
+        /** trial call is being sent to wiki, other calls are rejected */
+        HALF_OPEN
+    }
+
+    @Nonnull
+    private final DokuWikiTransport delegate;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    @Nonnull
+    private State state = State.CLOSED;
+    /** number of consecutive transient failures */
+    private int failures;
+    /** time (in nanoTime) breaker has been opened */
+    private long openedAt;
+    /** number of times breaker has been opened */
+    private long openedCount;
+    /** number of calls rejected by open breaker */
+    private long rejectedCount;
+
+    /**
+     * Create circuit breaker with default settings.
+     *
+     * @param delegate is transport used to send calls
+     */
+    public CircuitBreakerTransport(DokuWikiTransport delegate) {
+        this(delegate, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION);
+    }
+
+    /**
+     * Create circuit breaker.
+     *
+     * @param delegate is transport used to send calls
+     * @param failureThreshold is number of consecutive transient failures that opens breaker
+     * @param openDuration is time breaker stays open before trial call is let through
+     */
+    public CircuitBreakerTransport(DokuWikiTransport delegate, int failureThreshold, Duration openDuration) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be positive, " + failureThreshold
+                    + " supplied");
+        }
+        if (openDuration.isNegative()) {
+            throw new IllegalArgumentException("Open duration cannot be negative, " + openDuration + " supplied");
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return current state of breaker
+     */
+    @Nonnull
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return number of times breaker has been opened
+     */
+    public synchronized long getOpenedCount() {
+        return openedCount;
+    }
+
+    /**
+     * @return number of calls rejected by open breaker
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Verify that call might be sent
+     *
+     * @param method is name of method being called
+     * @throws CircuitBreakerOpenException if breaker is open
+     */
+    private synchronized void acquire(String method) throws CircuitBreakerOpenException {
+        if ((state == State.OPEN) && (System.nanoTime() - openedAt >= openDurationNanos)) {
+            state = State.HALF_OPEN;
+            return;
+        }
+        if (state != State.CLOSED) {
+            rejectedCount++;
+            throw new CircuitBreakerOpenException(method);
+        }
+    }
+
+    private synchronized void onSuccess() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    private synchronized void onFailure() {
+        failures++;
+        if ((state == State.HALF_OPEN) || ((state == State.CLOSED) && (failures >= failureThreshold))) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            openedCount++;
+        }
+    }
+
+    /**
+     * Call has been abandoned (e.g. thread has been interrupted) and its result says nothing about wiki availability
+     */
+    private synchronized void onAbandoned() {
+        if (state == State.HALF_OPEN) {
+            // let next call try again
+            state = State.OPEN;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public InputStream send(String method, RequestBody body) throws IOException {
+        acquire(method);
+        InputStream result;
+        try {
+            result = delegate.send(method, body);
+        } catch (IOException e) {
+            if (RetryingTransport.isTransient(e)) {
+                onFailure();
+            } else if (e instanceof InterruptedIOException) {
+                onAbandoned();
+            } else {
+                // wiki responded - it is alive
+                onSuccess();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            // unexpected failure of transport says nothing good about wiki
+            onFailure();
+            throw e;
+        }
+        onSuccess();
+        return result;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreakerTransport{" +
+                "delegate=" + delegate +
+                ", state=" + state +
+                ", failures=" + failures +
+                ", openedCount=" + openedCount +
+                ", rejectedCount=" + rejectedCount +
+                '}';
+    }
+}
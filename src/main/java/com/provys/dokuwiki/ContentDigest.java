@@ -0,0 +1,85 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Evaluates content fingerprints (SHA-256, hex encoded), used to detect changed content without retrieving old content
+ * from wiki.
+ */
+final class ContentDigest {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ContentDigest() {
+    }
+
+    /**
+     * @return new SHA-256 message digest
+     */
+    @Nonnull
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 digest not available", e);
+        }
+    }
+
+    /**
+     * @param digest is digest value
+     * @return hex encoded digest
+     */
+    @Nonnull
+    static String toHex(byte[] digest) {
+        var result = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            result[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            result[2 * i + 1] = HEX_DIGITS[digest[i] & 0xF];
+        }
+        return new String(result);
+    }
+
+    /**
+     * @param content is content to be digested
+     * @return hex encoded SHA-256 digest of content
+     */
+    @Nonnull
+    static String of(byte[] content) {
+        return toHex(newDigest().digest(content));
+    }
+
+    /**
+     * @param text is text to be digested (UTF-8 encoded)
+     * @return hex encoded SHA-256 digest of text
+     */
+    @Nonnull
+    static String of(String text) {
+        return of(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param file is local file to be digested; it is read via memory mapping
+     * @return hex encoded SHA-256 digest of file content
+     */
+    @Nonnull
+    static String of(Path file) {
+        var digest = newDigest();
+        try (InputStream inputStream = new MappedFileInputStream(file)) {
+            var buffer = new byte[65536];
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+        return toHex(digest.digest());
+    }
+}
@@ -0,0 +1,197 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcArray;
+import com.provys.xmlrpc.XmlRpcStruct;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Collects write calls (page and attachment updates and removals) and sends them to wiki using system.multicall,
+ * thus saving round-trip and authentication overhead of individual requests. Calls are sent when {@link #execute()} is
+ * invoked, in chunks of configured batch size. Batch is not thread safe; it is expected to be filled and executed by
+ * single thread. Obtain new batch via {@link DokuWikiClient#newBatch()}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DokuWikiBatch {
+
+    /** default number of calls sent in single multicall request */
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    /** client used to send multicall requests */
+    @Nonnull
+    private final DokuWikiClient client;
+    /** maximal number of calls sent in single multicall request */
+    private final int batchSize;
+    /** calls collected so far and not yet sent to wiki */
+    @Nonnull
+    private final List<PendingCall> pendingCalls = new ArrayList<>();
+
+    DokuWikiBatch(DokuWikiClient client, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, " + batchSize + " supplied");
+        }
+        this.client = Objects.requireNonNull(client);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return maximal number of calls sent in single multicall request
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return number of calls collected and not yet sent to wiki
+     */
+    public int size() {
+        return pendingCalls.size();
+    }
+
+    private DokuWikiBatch add(String methodName, String id, Object... params) {
+        pendingCalls.add(new PendingCall(methodName, id, params));
+        return this;
+    }
+
+    /**
+     * Add put page call to batch. Shortened version without summary and minor change marker
+     *
+     * @param id is name of page to be created / updated
+     * @param text is new text of page
+     * @return self to support chaining
+     */
+    @Nonnull
+    public DokuWikiBatch putPage(String id, String text) {
+        return putPage(id, text, null, null);
+    }
+
+    /**
+     * Add put page call to batch.
+     *
+     * @param id is name of page to be created / updated
+     * @param text is new text of page
+     * @param summary is change summary to be stored in history for given version of page
+     * @param minor indicates that modification should be marked minor
+     * @return self to support chaining
+     */
+    @Nonnull
+    public DokuWikiBatch putPage(String id, String text, @Nullable String summary, @Nullable Boolean minor) {
+        return add("wiki.putPage", id, id, text, DokuWikiClient.getPutPageAttrs(summary, minor));
+    }
+
+    /**
+     * Add delete page call to batch; as with {@link DokuWikiClient#deletePage(String)}, it translates to changing
+     * content of page to empty
+     *
+     * @param id is name of page to be removed
+     * @return self to support chaining
+     */
+    @Nonnull
+    public DokuWikiBatch deletePage(String id) {
+        return putPage(id, "");
+    }
+
+    /**
+     * Add put attachment call to batch
+     *
+     * @param id is location where attachment should be put to
+     * @param file is byte array with file content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @return self to support chaining
+     */
+    @Nonnull
+    public DokuWikiBatch putAttachment(String id, byte[] file, boolean overwrite) {
+        return add("wiki.putAttachment", id, id, file, Map.of("ow", overwrite));
+    }
+
+    /**
+     * Add delete attachment call to batch
+     *
+     * @param id is name of attachment to be removed
+     * @return self to support chaining
+     */
+    @Nonnull
+    public DokuWikiBatch deleteAttachment(String id) {
+        return add("wiki.deleteAttachment", id, id);
+    }
+
+    /**
+     * Send all collected calls to wiki and clear batch. Calls are sent in chunks of batch size, in order in which they
+     * have been added. Fault in individual call does not prevent execution of other calls; it is reported in
+     * corresponding result. Call wiki did not return result for is reported as failed with fault code
+     * {@link BatchCallResult#MISSING_RESULT}; surplus results in response are ignored. Each chunk is removed from
+     * batch as soon as it has been executed; if sending of chunk fails, calls from this and following chunks remain in
+     * batch, so that execution can be repeated
+     *
+     * @return results of calls, in order in which calls were added to batch
+     * @throws BatchExecutionException if multicall request fails; exception carries results of calls executed before
+     */
+    @Nonnull
+    public List<BatchCallResult> execute() {
+        var results = new ArrayList<BatchCallResult>(pendingCalls.size());
+        while (!pendingCalls.isEmpty()) {
+            var chunk = pendingCalls.subList(0, Math.min(batchSize, pendingCalls.size()));
+            var calls = new XmlRpcArray();
+            for (var pendingCall : chunk) {
+                calls.add(pendingCall.toStruct());
+            }
+            XmlRpcArray responses;
+            try {
+                responses = client.multicall(calls);
+            } catch (RuntimeException e) {
+                throw new BatchExecutionException(results, pendingCalls.size(), e);
+            }
+            var responseIterator = responses.iterator();
+            for (var pendingCall : chunk) {
+                results.add(responseIterator.hasNext()
+                        ? BatchCallResult.parseResponse(pendingCall.methodName, pendingCall.id, responseIterator.next())
+                        : BatchCallResult.ofMissing(pendingCall.methodName, pendingCall.id));
+            }
+            // chunk has been applied on wiki
+            chunk.clear();
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return "DokuWikiBatch{" +
+                "batchSize=" + batchSize +
+                ", pendingCalls=" + pendingCalls.size() +
+                '}';
+    }
+
+    /**
+     * Call collected in batch, waiting to be sent to wiki
+     */
+    private static final class PendingCall {
+        private final String methodName;
+        private final String id;
+        private final Object[] params;
+
+        private PendingCall(String methodName, String id, Object[] params) {
+            this.methodName = methodName;
+            this.id = id;
+            this.params = params;
+        }
+
+        /**
+         * @return struct describing call in format expected by system.multicall
+         */
+        private XmlRpcStruct toStruct() {
+            var paramArray = new XmlRpcArray();
+            for (var param : params) {
+                paramArray.add(param);
+            }
+            var call = new XmlRpcStruct();
+            call.put("methodName", methodName);
+            call.put("params", paramArray);
+            return call;
+        }
+    }
+}
@@ -7,27 +7,71 @@ import com.provys.xmlrpc.XmlRpcStruct;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Client class that represents connection to DokuWiki via Xml-Rpc
+ * Client class that represents connection to DokuWiki via Xml-Rpc. Faults reported by wiki are thrown as
+ * {@link XmlRpcFaultException} by client created with url (as calls are processed by Xml-Rpc library) and as
+ * {@link DokuWikiFaultException} by client created on top of transport; calls with streamed content always throw
+ * {@link DokuWikiFaultException}.
  */
 @SuppressWarnings("WeakerAccess") // DokuWikiClient is published library class
 public class DokuWikiClient {
+
+    /** default number of parallel requests used to retrieve multiple pages */
+    public static final int DEFAULT_FETCH_PARALLELISM = 4;
+
     /**
      * Xml-Rpc client used for communication with wiki. Intentionally kept private, as if any additional methods are
      * needed, they should be added to DokuWikiClient class rather than implemented by directly accessing Xml-Rpc
-     * client
+     * client. Null if client has been created on top of transport; all calls then go through own Xml-Rpc
+     * implementation
      */
+    @Nullable
     private final XmlRpcClient xmlRpcClient;
+    /**
+     * Own Xml-Rpc implementation, used for calls that need to stream content instead of holding it in memory. If
+     * client uses Xml-Rpc library, it is only created on first streamed call, so that clients that never stream do
+     * not pay for second http client
+     */
+    @Nullable
+    private volatile StreamingXmlRpcClient streamingClient;
+    /** creates streaming client on first use; null if streaming client has been created in constructor */
+    @Nullable
+    private final Supplier<StreamingXmlRpcClient> streamingClientFactory;
+    /** metrics all calls are reported to */
+    @Nonnull
+    private final DokuWikiMetrics metrics;
     private final PageIdParser pageIdParser = new PageIdParser();
 
     /**
@@ -38,12 +82,106 @@ public class DokuWikiClient {
      * @param password used to login to wiki
      */
     public DokuWikiClient(String url, String userName, String password) {
+        this(url, userName, password, new InMemoryDokuWikiMetrics());
+    }
+
+    /**
+     * Create new DokuWiki client instance, reporting calls to supplied metrics. Size of request and response is only
+     * reported for calls with streamed content, other calls are processed by Xml-Rpc library that does not provide it.
+     *
+     * @param url is url used to access xml-rpc endpoint of DokuWiki
+     * @param userName used to login to wiki
+     * @param password used to login to wiki
+     * @param metrics is metrics calls are reported to
+     */
+    public DokuWikiClient(String url, String userName, String password, DokuWikiMetrics metrics) {
         try {
             this.xmlRpcClient = new XmlRpcClient(new URL(Objects.requireNonNull(url)), Objects.requireNonNull(userName),
                     Objects.requireNonNull(password), true, StandardCharsets.UTF_8);
         } catch (MalformedURLException e) {
             throw new RuntimeException("Malformed URL " + url, e);
         }
+        this.metrics = Objects.requireNonNull(metrics);
+        this.streamingClient = null;
+        this.streamingClientFactory = () -> new StreamingXmlRpcClient(new HttpClientTransport(url, userName, password),
+                metrics);
+    }
+
+    /**
+     * Create new DokuWiki client instance, sending all calls via supplied transport. Faults reported by wiki are
+     * thrown as {@link DokuWikiFaultException}. Transport can be shared by multiple clients.
+     *
+     * @param transport is transport used to deliver calls to wiki
+     */
+    public DokuWikiClient(DokuWikiTransport transport) {
+        this(transport, new InMemoryDokuWikiMetrics());
+    }
+
+    /**
+     * Create new DokuWiki client instance, sending all calls via supplied transport and reporting them to supplied
+     * metrics.
+     *
+     * @param transport is transport used to deliver calls to wiki
+     * @param metrics is metrics calls are reported to
+     */
+    public DokuWikiClient(DokuWikiTransport transport, DokuWikiMetrics metrics) {
+        this.xmlRpcClient = null;
+        this.metrics = Objects.requireNonNull(metrics);
+        this.streamingClient = new StreamingXmlRpcClient(transport, metrics);
+        this.streamingClientFactory = null;
+    }
+
+    /**
+     * @return metrics calls of this client are reported to; unless supplied in constructor, it is
+     * {@link InMemoryDokuWikiMetrics} instance that can be used to inspect per-method statistics
+     */
+    @Nonnull
+    public DokuWikiMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return own Xml-Rpc implementation, created on first use if client uses Xml-Rpc library
+     */
+    @Nonnull
+    private StreamingXmlRpcClient getStreamingClient() {
+        var result = streamingClient;
+        if (result == null) {
+            synchronized (this) {
+                result = streamingClient;
+                if (result == null) {
+                    result = Objects.requireNonNull(streamingClientFactory).get();
+                    streamingClient = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Invoke Xml-Rpc method, using Xml-Rpc library if available and own implementation otherwise
+     *
+     * @param method is name of Xml-Rpc method to be called
+     * @param params are parameters of call
+     * @return value returned by method
+     */
+    private Object invoke(String method, Object... params) {
+        if (xmlRpcClient == null) {
+            return getStreamingClient().invoke(method, params);
+        }
+        metrics.callStarted(method);
+        var start = System.nanoTime();
+        var outcome = DokuWikiMetrics.Outcome.ERROR;
+        try {
+            var result = xmlRpcClient.invoke(method, params);
+            outcome = DokuWikiMetrics.Outcome.SUCCESS;
+            return result;
+        } catch (XmlRpcFaultException e) {
+            outcome = DokuWikiMetrics.Outcome.FAULT;
+            throw e;
+        } finally {
+            metrics.callCompleted(method, outcome, System.nanoTime() - start, -1, -1);
+        }
     }
 
     /**
@@ -58,7 +196,7 @@ public class DokuWikiClient {
      */
     @Nonnull
     public String getVersion() {
-        return (String) xmlRpcClient.invoke("dokuwiki.getVersion");
+        return (String) invoke("dokuwiki.getVersion");
     }
 
     /**
@@ -70,27 +208,83 @@ public class DokuWikiClient {
      * @return list of names of namespaces one level bellow our namespace
      */
     public List<String> getNamespaceNames(String namespace) {
-        return (getPagesInt(namespace, pageIdParser.getDepth(namespace) + 1))
-                .stream()
-                .map(page -> (String) ((XmlRpcStruct) page).get("id"))
-                .map(id -> (id.lastIndexOf(':') >= 0) ? id.substring(0, id.lastIndexOf(':')) : "")// remove page name
-                .filter(ns -> !ns.equals(namespace)) // filter out pages directly in namespace
-                .map(ns -> (ns.lastIndexOf(':') >= 0) ? ns.substring(ns.lastIndexOf(':') + 1) : ns) // leave only trailing name
-                .distinct() // and leave each namespace only once
-                .collect(Collectors.toList());
+        var prefix = pageIdParser.trimNamespace(namespace);
+        var result = new LinkedHashSet<String>(); // leave each namespace only once
+        for (var page : getPagesInt(prefix, pageIdParser.getDepth(prefix) + 1)) {
+            var id = (String) ((XmlRpcStruct) page).get("id");
+            var nameStart = id.lastIndexOf(':');
+            // filter out pages directly in namespace
+            if ((nameStart > prefix.length()) && id.startsWith(prefix)) {
+                // leave only trailing name of namespace
+                result.add(id.substring(id.lastIndexOf(':', nameStart - 1) + 1, nameStart));
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Get list of names of namespaces right bellow specified one
+     *
+     * @param namespace is namespace search is done in
+     * @return list of names of namespaces one level bellow our namespace
+     */
+    public List<String> getNamespaceNames(PageId namespace) {
+        return getNamespaceNames(namespace.getId());
     }
 
     /**
      * Remove namespace - tries to remove all pages and attachments under given namespace
      *
      * @param namespace is namespace to be removed
-     * @throws XmlRpcFaultException if attachments are referenced from existing topics
+     * @throws XmlRpcFaultException if attachments are referenced from existing topics (client created with url)
+     * @throws DokuWikiFaultException if attachments are referenced from existing topics (client created on top of
+     * transport)
      */
     public void deleteNamespace(String namespace) {
         deletePages(namespace);
         deleteAttachments(namespace);
     }
 
+    /**
+     * Remove namespace - tries to remove all pages and attachments under given namespace
+     *
+     * @param namespace is namespace to be removed
+     * @throws XmlRpcFaultException if attachments are referenced from existing topics (client created with url)
+     * @throws DokuWikiFaultException if attachments are referenced from existing topics (client created on top of
+     * transport)
+     */
+    public void deleteNamespace(PageId namespace) {
+        deleteNamespace(namespace.getId());
+    }
+
+    /**
+     * Remove namespace - tries to remove all pages and attachments under given namespace, sending up to parallelism
+     * requests to wiki in parallel. Unlike {@link #deleteNamespace(String)}, it does not stop on first failure. Pages
+     * are removed first and attachments are only removed after all pages have been processed, as attachments
+     * referenced from existing pages cannot be removed
+     *
+     * @param namespace is namespace to be removed
+     * @param parallelism is maximal number of delete requests sent to wiki in parallel
+     * @return result with ids of removed pages and attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult deleteNamespace(String namespace, int parallelism) {
+        return deletePages(namespace, parallelism)
+                .merge(deleteAttachments(namespace, parallelism));
+    }
+
+    /**
+     * Remove namespace, sending up to parallelism requests to wiki in parallel
+     *
+     * @param namespace is namespace to be removed
+     * @param parallelism is maximal number of delete requests sent to wiki in parallel
+     * @return result with ids of removed pages and attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult deleteNamespace(PageId namespace, int parallelism) {
+        return deleteNamespace(namespace.getId(), parallelism);
+    }
+
     /**
      * Envelope for Xml-Rpc call to retrieve pages in namespace
      *
@@ -99,7 +293,7 @@ public class DokuWikiClient {
      * @return wiki response as array
      */
     private XmlRpcArray getPagesInt(String namespace, int depth) {
-        return (XmlRpcArray) xmlRpcClient.invoke("dokuwiki.getPagelist", namespace, Map.of("depth", depth));
+        return (XmlRpcArray) invoke("dokuwiki.getPagelist", namespace, Map.of("depth", depth));
     }
 
     /**
@@ -118,267 +312,1467 @@ public class DokuWikiClient {
     }
 
     /**
-     * Get names of pages directly in namespace, conforming to specified criteria
+     * Get pages in namespace, conforming to specified criteria
      *
      * @param namespace is namespace in which search is done
-     * @return list of names of pages directly in given namespace (not in sub-namespaces)
+     * @param depth is depth of search, 0 means unlimited
+     * @return list of pages in given namespace up to specified depth
      */
     @Nonnull
-    public List<String> getPageNames(String namespace) {
-        return (getPagesInt(namespace, pageIdParser.getDepth(namespace)))
-                .stream()
-                .map(page -> (String) ((XmlRpcStruct) page).get("id"))
-                .map(pageIdParser::getName)
-                .collect(Collectors.toList());
+    public List<PageListResult> getPages(PageId namespace, int depth) {
+        return getPages(namespace.getId(), depth);
     }
 
     /**
-     * Get all pages from wiki
+     * Invoke Xml-Rpc method returning array of structs and parse items lazily, as they are read from response
      *
-     * @return list of all pages in wiki
+     * @param parser is function used to parse array item
+     * @param method is name of Xml-Rpc method to be called
+     * @param params are parameters of call
+     * @param <T> is type of parsed items
+     * @return stream of parsed items; response is closed when stream is exhausted or closed
      */
-    public List<PageData> getAllPages() {
-        return ((XmlRpcArray) xmlRpcClient.invoke("wiki.getAllPages"))
-                .stream()
-                .map(page -> PageData.parseResponse((XmlRpcStruct) page))
-                .collect(Collectors.toList());
+    private <T> Stream<T> streamArray(Function<XmlRpcStruct, T> parser, String method, Object... params) {
+        var reader = getStreamingClient().open(method, params);
+        try {
+            reader.readArrayStart();
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean finished = false;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (finished) {
+                    return false;
+                }
+                if (!reader.nextArrayItem()) {
+                    finished = true;
+                    reader.close();
+                    return false;
+                }
+                action.accept(parser.apply((XmlRpcStruct) reader.readValue()));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                .onClose(reader::close);
     }
 
     /**
-     * Internal method - Xml-Rpc call to DokuWiki. Public methods translate result to more reasonable types
+     * Stream pages in namespace, conforming to specified criteria. Unlike {@link #getPages(String, int)}, items are
+     * parsed as response is being received and response is never held in memory as a whole. Stream should be closed
+     * (e.g. using try-with-resources) if it is not consumed completely
      *
-     * @param query is query executed against wiki
-     * @return response from wiki as array
+     * @param namespace is namespace in which search is done
+     * @param depth is depth of search, 0 means unlimited
+     * @return stream of pages in given namespace up to specified depth
      */
-    private XmlRpcArray searchPagesInt(String query) {
-        return (XmlRpcArray) xmlRpcClient.invoke("dokuwiki.search", query);
+    @Nonnull
+    public Stream<PageListResult> streamPages(String namespace, int depth) {
+        return streamArray(PageListResult::parseResponse, "dokuwiki.getPagelist", namespace,
+                Map.of("depth", depth));
     }
 
     /**
-     * Find pages in wiki matching search term.
+     * Stream pages in namespace, conforming to specified criteria. See {@link #streamPages(String, int)}
      *
-     * @param query is search query (using wiki syntax)
-     * @return list of matching pages
+     * @param namespace is namespace in which search is done
+     * @param depth is depth of search, 0 means unlimited
+     * @return stream of pages in given namespace up to specified depth
      */
-    public List<SearchResult> searchPages(String query) {
-        return searchPagesInt(query)
-                .stream()
-                .map(searchResult -> SearchResult.parseResponse((XmlRpcStruct) searchResult))
-                .collect(Collectors.toList());
+    @Nonnull
+    public Stream<PageListResult> streamPages(PageId namespace, int depth) {
+        return streamPages(namespace.getId(), depth);
     }
 
     /**
-     * Get Ids (full names) of pages conforming to search criteria
+     * Stream all pages from wiki. Unlike {@link #getAllPages()}, items are parsed as response is being received and
+     * response is never held in memory as a whole. Stream should be closed (e.g. using try-with-resources) if it is
+     * not consumed completely
+     *
+     * @return stream of all pages in wiki
+     */
+    @Nonnull
+    public Stream<PageData> streamAllPages() {
+        return streamArray(PageData::parseResponse, "wiki.getAllPages");
+    }
+
+    /**
+     * Stream pages in wiki matching search term. Unlike {@link #searchPages(String)}, items are parsed as response is
+     * being received and response is never held in memory as a whole. Stream should be closed (e.g. using
+     * try-with-resources) if it is not consumed completely
      *
      * @param query is search query (using wiki syntax)
-     * @return list of matching pages
+     * @return stream of matching pages
      */
     @Nonnull
-    public List<String> searchPageIds(String query) {
-        return searchPagesInt(query)
-                .stream()
-                .map(searchResult -> (String) ((XmlRpcStruct) searchResult).get("id"))
-                .collect(Collectors.toList());
+    public Stream<SearchResult> streamSearchPages(String query) {
+        return streamArray(SearchResult::parseResponse, "dokuwiki.search", query);
     }
 
     /**
-     * Get content of page from wiki
+     * Stream attachments in given namespace, within specified depth. Unlike {@link #getAttachments(String, int)},
+     * items are parsed as response is being received and response is never held in memory as a whole. Stream should
+     * be closed (e.g. using try-with-resources) if it is not consumed completely
      *
-     * @param id is page name to be retrieved
-     * @return content of given page, empty string if page does not exist
+     * @param namespace is namespace that should be searched
+     * @param depth is depth of sub-spaces to be searched through (absolute from root, not from given namespace);
+     *             0 means unlimited
+     * @return stream of attachments in given namespace
      */
     @Nonnull
-    public String getPage(String id) {
-        return (String) xmlRpcClient.invoke("wiki.getPage", id);
+    public Stream<AttachmentInfo> streamAttachments(String namespace, int depth) {
+        return streamArray(AttachmentInfo::parseResponse, "wiki.getAttachments", namespace, Map.of("depth", depth));
     }
 
     /**
-     * Put page (update its content) on wiki. Shortened version without summary and minor change marker
+     * Stream attachments in given namespace, within specified depth. See {@link #streamAttachments(String, int)}
      *
-     * @param id is name of page to be created / updated
-     * @param text is new text of page
+     * @param namespace is namespace that should be searched
+     * @param depth is depth of sub-spaces to be searched through (absolute from root, not from given namespace);
+     *             0 means unlimited
+     * @return stream of attachments in given namespace
      */
-    public void putPage(String id, String text) {
-        putPage(id, text, null, null);
+    @Nonnull
+    public Stream<AttachmentInfo> streamAttachments(PageId namespace, int depth) {
+        return streamAttachments(namespace.getId(), depth);
     }
 
     /**
-     * Put page (update its content) on wiki.
+     * Crawl pages in namespace and all its sub-namespaces level by level, using default lookahead. See
+     * {@link #crawlPages(String, int, int)}
      *
-     * @param id is name of page to be created / updated
-     * @param text is new text of page
-     * @param summary is change summary to be stored in history for given version of page
-     * @param minor indicates that modification should be marked minor
+     * @param namespace is namespace to be crawled; empty string for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @return stream of pages in namespace and its sub-namespaces
      */
-    public void putPage(String id, String text, @Nullable String summary, @Nullable Boolean minor) {
-        var attrs=new XmlRpcStruct();
-        if (summary != null) {
-            attrs.put("sum", summary);
-        }
-        if (minor != null) {
-            attrs.put("minor", minor);
-        }
-        xmlRpcClient.invoke("wiki.putPage", id, text, attrs);
+    @Nonnull
+    public Stream<PageListResult> crawlPages(String namespace, int parallelism) {
+        return crawlPages(namespace, parallelism, NamespaceCrawler.DEFAULT_LOOKAHEAD);
     }
 
     /**
-     * Delete page; wiki does not implement delete as such, call translates to changing content of page to empty. Action
-     * fails if page does not exist
+     * Crawl pages in namespace and all its sub-namespaces level by level, using default lookahead. See
+     * {@link #crawlPages(String, int, int)}
      *
-     * @param id is name of page to be removed
+     * @param namespace is namespace to be crawled; {@link PageId#ROOT} for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @return stream of pages in namespace and its sub-namespaces
      */
-    public void deletePage(String id) {
-        putPage(id, "");
+    @Nonnull
+    public Stream<PageListResult> crawlPages(PageId namespace, int parallelism) {
+        return crawlPages(namespace.getId(), parallelism);
     }
 
     /**
-     * Delete page; wiki does not implement delete as such, call translates to changing content of page to empty. Action
-     * is safe even if page does not exist, but is more expensive than deletePage
+     * Crawl pages in namespace and all its sub-namespaces level by level, without sweep. See
+     * {@link #crawlPages(String, int, int, boolean)}
      *
-     * @param id is name of page to be removed
+     * @param namespace is namespace to be crawled; empty string for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels bellow namespace listed to discover its child namespaces
+     * @return stream of pages in namespace and its sub-namespaces
      */
-    public void deletePageIfExists(String id) {
-        if (!getPage(id).isEmpty()) {
-            putPage(id, "");
-        }
+    @Nonnull
+    public Stream<PageListResult> crawlPages(String namespace, int parallelism, int lookahead) {
+        return crawlPages(namespace, parallelism, lookahead, false);
     }
 
     /**
-     * Delete all pages in given namespace. We do not have movement detection, thus if package is renamed, it will be
-     * removed in wiki and created on new place. This is not ideal, but there is no way around that... and it is why we
-     * need this function
+     * Crawl pages in namespace and all its sub-namespaces level by level, without sweep. See
+     * {@link #crawlPages(String, int, int, boolean)}
      *
-     * @param namespace delete all pages in given namespace
+     * @param namespace is namespace to be crawled; {@link PageId#ROOT} for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels bellow namespace listed to discover its child namespaces
+     * @return stream of pages in namespace and its sub-namespaces
      */
-    public void deletePages(String namespace) {
-        getPagesInt(namespace, 0)
-                .stream()
-                .map(page -> (String) ((XmlRpcStruct) page).get("id"))
-                .forEach(this::deletePage);
+    @Nonnull
+    public Stream<PageListResult> crawlPages(PageId namespace, int parallelism, int lookahead) {
+        return crawlPages(namespace.getId(), parallelism, lookahead);
     }
 
     /**
-     * Get list of attachments in given namespace. Depth is set to namespace depth to return just attachments directly
-     * in given namespace
+     * Crawl pages in namespace and all its sub-namespaces level by level. Each level listing only lists single
+     * namespace up to lookahead levels bellow it and sibling namespaces are listed in parallel, thus no request has to
+     * traverse whole subtree and most pages are streamed long before {@link #getPages(String, int)} with unlimited
+     * depth would return. Wiki does not list namespaces, thus child namespace is only found if there is page in it or
+     * in its sub-namespaces within lookahead levels; pages in branch that only has pages deeper than that are not
+     * returned. If such branches might exist and complete result is required, request sweep - namespace is then also
+     * listed once without depth limit, in parallel with level listings; this is the unbounded request crawl otherwise
+     * avoids and crawl fails if it fails. Pages are streamed in no particular order; stream should be closed (e.g.
+     * using try-with-resources), closing it before it is consumed cancels listing of remaining namespaces
      *
-     * @param namespace is namespace we search attachments in
-     * @return list of attachments directly in given namespace
+     * @param namespace is namespace to be crawled; empty string for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels bellow namespace listed to discover its child namespaces
+     * @param sweep if true, namespace is also listed without depth limit to find branches deeper than lookahead
+     * @return stream of pages in namespace and its sub-namespaces
      */
-    public List<AttachmentInfo> getAttachments(String namespace) {
-        return getAttachments(namespace, pageIdParser.getDepth(namespace));
+    @Nonnull
+    public Stream<PageListResult> crawlPages(String namespace, int parallelism, int lookahead, boolean sweep) {
+        return new NamespaceCrawler<>(this::getPages, PageListResult::getId, parallelism, lookahead, sweep)
+                .crawl(namespace);
     }
 
     /**
-     * Get list of names of attachments in given namespace. Depth is set to namespace depth to return just attachments
-     * directly in given namespace, returns plain filenames
+     * Crawl pages in namespace and all its sub-namespaces level by level. See
+     * {@link #crawlPages(String, int, int, boolean)}
      *
-     * @param namespace is namespace we search attachments in
-     * @return list of filenames of attachments directly in given namespace
+     * @param namespace is namespace to be crawled; {@link PageId#ROOT} for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels bellow namespace listed to discover its child namespaces
+     * @param sweep if true, namespace is also listed without depth limit to find branches deeper than lookahead
+     * @return stream of pages in namespace and its sub-namespaces
      */
-    public List<String> getAttachmentFileNames(String namespace) {
-        return getAttachmentsInt(namespace, pageIdParser.getDepth(namespace))
-                .map(AttachmentInfo::getFile)
-                .collect(Collectors.toList());
+    @Nonnull
+    public Stream<PageListResult> crawlPages(PageId namespace, int parallelism, int lookahead, boolean sweep) {
+        return crawlPages(namespace.getId(), parallelism, lookahead, sweep);
     }
 
     /**
-     * Stream attachments in given namespace, within specified depth
+     * Crawl attachments in namespace and all its sub-namespaces level by level, using default lookahead. See
+     * {@link #crawlAttachments(String, int, int)}
      *
-     * @param namespace is namespace we search in
-     * @param depth is maximal depth; absolute value,  root is 1, value 0 means unlimited
-     * @return stream containing attachments found in given namespace
+     * @param namespace is namespace to be crawled; empty string for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @return stream of attachments in namespace and its sub-namespaces
      */
-    private Stream<AttachmentInfo> getAttachmentsInt(String namespace, int depth) {
-        return ((XmlRpcArray) xmlRpcClient.invoke("wiki.getAttachments", namespace, Map.of("depth", depth)))
-                .stream()
-                .map(item -> AttachmentInfo.parseResponse((XmlRpcStruct) item));
+    @Nonnull
+    public Stream<AttachmentInfo> crawlAttachments(String namespace, int parallelism) {
+        return crawlAttachments(namespace, parallelism, NamespaceCrawler.DEFAULT_LOOKAHEAD);
     }
 
     /**
-     * Get list of attachments in given namespace.
+     * Crawl attachments in namespace and all its sub-namespaces level by level, using default lookahead. See
+     * {@link #crawlAttachments(String, int, int)}
      *
-     * @param namespace is namespace that should be searched
-     * @param depth is depth of sub-spaces to be searched through (absolute from root, not from given namespace);
-     *             0 means unlimited
-     * @return list of attachments in given namespace
+     * @param namespace is namespace to be crawled; {@link PageId#ROOT} for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @return stream of attachments in namespace and its sub-namespaces
      */
-    public List<AttachmentInfo> getAttachments(String namespace, int depth) {
-        return getAttachmentsInt(namespace, depth)
-                .collect(Collectors.toList());
+    @Nonnull
+    public Stream<AttachmentInfo> crawlAttachments(PageId namespace, int parallelism) {
+        return crawlAttachments(namespace.getId(), parallelism);
     }
 
     /**
-     * Get content of attachment (file) from wiki
+     * Crawl attachments in namespace and all its sub-namespaces level by level, without sweep. See
+     * {@link #crawlAttachments(String, int, int, boolean)}
      *
-     * @param id is name of attachment we want to retrieve
-     * @return content of attachment
-     * @throws XmlRpcFaultException if file does not exist
+     * @param namespace is namespace to be crawled; empty string for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels bellow namespace listed to discover its child namespaces
+     * @return stream of attachments in namespace and its sub-namespaces
      */
-    public byte[] getAttachment(String id) {
-        return (byte[]) xmlRpcClient.invoke("wiki.getAttachment", id);
+    @Nonnull
+    public Stream<AttachmentInfo> crawlAttachments(String namespace, int parallelism, int lookahead) {
+        return crawlAttachments(namespace, parallelism, lookahead, false);
     }
 
     /**
-     * Put attachment (file) to wiki
+     * Crawl attachments in namespace and all its sub-namespaces level by level, without sweep. See
+     * {@link #crawlAttachments(String, int, int, boolean)}
      *
-     * @param id is location where attachment should be put to
-     * @param file is byte array with file content
-     * @param overwrite indicates if potential existing content should be overwritten
+     * @param namespace is namespace to be crawled; {@link PageId#ROOT} for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels bellow namespace listed to discover its child namespaces
+     * @return stream of attachments in namespace and its sub-namespaces
      */
-    public void putAttachment(String id, byte[] file, boolean overwrite) {
-        xmlRpcClient.invoke("wiki.putAttachment", id, file, Map.of("ow", overwrite));
+    @Nonnull
+    public Stream<AttachmentInfo> crawlAttachments(PageId namespace, int parallelism, int lookahead) {
+        return crawlAttachments(namespace.getId(), parallelism, lookahead);
     }
 
     /**
-     * Put attachment (file) to wiki
+     * Crawl attachments in namespace and all its sub-namespaces level by level, listing sibling namespaces in
+     * parallel. Works the same way as {@link #crawlPages(String, int, int, boolean)}, including its limitation -
+     * without sweep, branch that only has attachments deeper than lookahead levels bellow nearest namespace with
+     * attachment is not found
      *
-     * @param id is location where attachment should be put to
-     * @param file is byte array with file content
-     * @param overwrite indicates if potential existing content should be overwritten
-     * @param onlyIfChanged indicates that attachment should be modified only if content has been changed
+     * @param namespace is namespace to be crawled; empty string for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels bellow namespace listed to discover its child namespaces
+     * @param sweep if true, namespace is also listed without depth limit to find branches deeper than lookahead
+     * @return stream of attachments in namespace and its sub-namespaces
      */
-    public void putAttachment(String id, byte[] file, boolean overwrite, boolean onlyIfChanged) {
-        if (onlyIfChanged) {
-            try {
-                var oldFile = getAttachment(id);
-                if (Arrays.equals(file, oldFile)) {
-                    return;
-                }
-            } catch (XmlRpcFaultException e) {
-                if (!e.getMessage().equals("The requested file does not exist")) {
-                    throw new RuntimeException("Error reading old value", e);
-                }
-            }
-        }
-        xmlRpcClient.invoke("wiki.putAttachment", id, file, Map.of("ow", overwrite));
+    @Nonnull
+    public Stream<AttachmentInfo> crawlAttachments(String namespace, int parallelism, int lookahead, boolean sweep) {
+        return new NamespaceCrawler<>(this::getAttachments, AttachmentInfo::getId, parallelism, lookahead, sweep)
+                .crawl(namespace);
     }
 
     /**
-     * Delete attachment from wiki
+     * Crawl attachments in namespace and all its sub-namespaces level by level. See
+     * {@link #crawlAttachments(String, int, int, boolean)}
      *
-     * @param id is name of attachment wwe want to remove
-     * @throws XmlRpcFaultException if attachment does not exist or it is referenced from existing topic
+     * @param namespace is namespace to be crawled; {@link PageId#ROOT} for whole wiki
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels bellow namespace listed to discover its child namespaces
+     * @param sweep if true, namespace is also listed without depth limit to find branches deeper than lookahead
+     * @return stream of attachments in namespace and its sub-namespaces
      */
-    public void deleteAttachment(String id) {
-        xmlRpcClient.invoke("wiki.deleteAttachment", id);
+    @Nonnull
+    public Stream<AttachmentInfo> crawlAttachments(PageId namespace, int parallelism, int lookahead, boolean sweep) {
+        return crawlAttachments(namespace.getId(), parallelism, lookahead, sweep);
     }
 
     /**
-     * Delete all attachments in given namespace from wiki
+     * Get names of pages directly in namespace, conforming to specified criteria
      *
-     * @param namespace is namespace from which we want to remove all attachments
-     * @throws XmlRpcFaultException if attachments are referenced from existing topics
+     * @param namespace is namespace in which search is done
+     * @return list of names of pages directly in given namespace (not in sub-namespaces)
      */
-    public void deleteAttachments(String namespace) {
-        getAttachmentsInt(namespace, 0)
-                .map(AttachmentInfo::getId)
-                . forEach(this::deleteAttachment);
+    @Nonnull
+    public List<String> getPageNames(String namespace) {
+        return (getPagesInt(namespace, pageIdParser.getDepth(namespace)))
+                .stream()
+                .map(page -> (String) ((XmlRpcStruct) page).get("id"))
+                .map(pageIdParser::getName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get names of pages directly in namespace
+     *
+     * @param namespace is namespace in which search is done
+     * @return list of names of pages directly in given namespace (not in sub-namespaces)
+     */
+    @Nonnull
+    public List<String> getPageNames(PageId namespace) {
+        return getPageNames(namespace.getId());
+    }
+
+    /**
+     * Get all pages from wiki
+     *
+     * @return list of all pages in wiki
+     */
+    public List<PageData> getAllPages() {
+        return ((XmlRpcArray) invoke("wiki.getAllPages"))
+                .stream()
+                .map(page -> PageData.parseResponse((XmlRpcStruct) page))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Internal method - Xml-Rpc call to DokuWiki. Public methods translate result to more reasonable types
+     *
+     * @param query is query executed against wiki
+     * @return response from wiki as array
+     */
+    private XmlRpcArray searchPagesInt(String query) {
+        return (XmlRpcArray) invoke("dokuwiki.search", query);
+    }
+
+    /**
+     * Find pages in wiki matching search term.
+     *
+     * @param query is search query (using wiki syntax)
+     * @return list of matching pages
+     */
+    public List<SearchResult> searchPages(String query) {
+        return searchPagesInt(query)
+                .stream()
+                .map(searchResult -> SearchResult.parseResponse((XmlRpcStruct) searchResult))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get Ids (full names) of pages conforming to search criteria
+     *
+     * @param query is search query (using wiki syntax)
+     * @return list of matching pages
+     */
+    @Nonnull
+    public List<String> searchPageIds(String query) {
+        return searchPagesInt(query)
+                .stream()
+                .map(searchResult -> (String) ((XmlRpcStruct) searchResult).get("id"))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get content of page from wiki
+     *
+     * @param id is page name to be retrieved
+     * @return content of given page, empty string if page does not exist
+     */
+    @Nonnull
+    public String getPage(String id) {
+        return (String) invoke("wiki.getPage", id);
+    }
+
+    /**
+     * Get content of page from wiki
+     *
+     * @param id is page to be retrieved
+     * @return content of given page, empty string if page does not exist
+     */
+    @Nonnull
+    public String getPage(PageId id) {
+        return getPage(id.getId());
+    }
+
+    /**
+     * Get content of multiple pages from wiki, using default parallelism and batch size. See
+     * {@link #getPageContents(Collection, int, int)}
+     *
+     * @param ids are names of pages to be retrieved
+     * @return map with content of pages, in order of supplied ids
+     * @throws RuntimeException if any of pages cannot be retrieved; failures are attached as suppressed exceptions
+     */
+    @Nonnull
+    public Map<String, String> getPageContents(Collection<String> ids) {
+        return getPageContents(ids, DEFAULT_FETCH_PARALLELISM, DokuWikiBatch.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Get content of multiple pages from wiki. Pages are requested in chunks of batch size via system.multicall (or by
+     * individual calls if wiki does not support multicall), with up to parallelism requests running in parallel. All
+     * pages are requested even if some of them fail; use {@link #streamPageContents(Collection, int, int)} to process
+     * failures of individual pages
+     *
+     * @param ids are names of pages to be retrieved
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     * @param batchSize is maximal number of pages requested in single request; 1 means that multicall is not used
+     * @return map with content of pages, in order of supplied ids; empty string if page does not exist
+     * @throws RuntimeException if any of pages cannot be retrieved; failures are attached as suppressed exceptions
+     */
+    @Nonnull
+    public Map<String, String> getPageContents(Collection<String> ids, int parallelism, int batchSize) {
+        var texts = new HashMap<String, String>(ids.size());
+        var failures = new ArrayList<PageContent>();
+        try (var contents = streamPageContents(ids, parallelism, batchSize)) {
+            contents.forEach(content -> {
+                if (content.isSuccess()) {
+                    texts.put(content.getId(), content.getText());
+                } else {
+                    failures.add(content);
+                }
+            });
+        }
+        if (!failures.isEmpty()) {
+            var exception = new RuntimeException("Failed to retrieve " + failures.size() + " of " + ids.size()
+                    + " pages, first failed page " + failures.get(0).getId());
+            failures.forEach(failure -> exception.addSuppressed(failure.getFailure()));
+            throw exception;
+        }
+        var result = new LinkedHashMap<String, String>(texts.size());
+        for (var id : ids) {
+            result.put(id, texts.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve content of multiple pages from wiki and stream results as they arrive. Pages are requested in chunks of
+     * batch size via system.multicall (or by individual calls if wiki does not support multicall), with up to
+     * parallelism requests running in parallel. Failure to retrieve page is reported in its result and does not
+     * prevent retrieval of other pages. Results are produced in order in which they are received; stream should be
+     * closed (e.g. using try-with-resources), closing it before it is consumed cancels retrieval of remaining pages
+     *
+     * @param ids are names of pages to be retrieved; duplicate names are retrieved once
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     * @param batchSize is maximal number of pages requested in single request; 1 means that multicall is not used
+     * @return stream with one result per distinct page name
+     */
+    @Nonnull
+    public Stream<PageContent> streamPageContents(Collection<String> ids, int parallelism, int batchSize) {
+        return new PageContentFetcher(this, parallelism, batchSize).stream(ids);
+    }
+
+    /**
+     * Get content of multiple pages from wiki, using default parallelism and batch size. Named differently from
+     * {@link #getPageContents(Collection)}, as overload with collection of {@link PageId} would have the same erasure
+     *
+     * @param ids are pages to be retrieved
+     * @return map with content of pages, in order of supplied ids
+     * @throws RuntimeException if any of pages cannot be retrieved; failures are attached as suppressed exceptions
+     */
+    @Nonnull
+    public Map<PageId, String> getPageContentsByPageId(Collection<PageId> ids) {
+        return getPageContentsByPageId(ids, DEFAULT_FETCH_PARALLELISM, DokuWikiBatch.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Get content of multiple pages from wiki. See {@link #getPageContents(Collection, int, int)}
+     *
+     * @param ids are pages to be retrieved
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     * @param batchSize is maximal number of pages requested in single request; 1 means that multicall is not used
+     * @return map with content of pages, in order of supplied ids; empty string if page does not exist
+     * @throws RuntimeException if any of pages cannot be retrieved; failures are attached as suppressed exceptions
+     */
+    @Nonnull
+    public Map<PageId, String> getPageContentsByPageId(Collection<PageId> ids, int parallelism, int batchSize) {
+        var texts = getPageContents(ids.stream().map(PageId::getId).collect(Collectors.toList()), parallelism,
+                batchSize);
+        var result = new LinkedHashMap<PageId, String>(texts.size());
+        for (var id : ids) {
+            result.put(id, texts.get(id.getId()));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve content of multiple pages from wiki and stream results as they arrive. See
+     * {@link #streamPageContents(Collection, int, int)}
+     *
+     * @param ids are pages to be retrieved; duplicate pages are retrieved once
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     * @param batchSize is maximal number of pages requested in single request; 1 means that multicall is not used
+     * @return stream with one result per distinct page
+     */
+    @Nonnull
+    public Stream<PageContent> streamPageContentsByPageId(Collection<PageId> ids, int parallelism, int batchSize) {
+        return streamPageContents(ids.stream().map(PageId::getId).collect(Collectors.toList()), parallelism,
+                batchSize);
+    }
+
+    /**
+     * Get page metadata (including current revision) from wiki. Much cheaper than retrieving page content
+     *
+     * @param id is page name metadata are retrieved for
+     * @return metadata of given page
+     * @throws XmlRpcFaultException if page does not exist (client created with url)
+     * @throws DokuWikiFaultException if page does not exist (client created on top of transport)
+     */
+    @Nonnull
+    public PageInfo getPageInfo(String id) {
+        return PageInfo.parseResponse((XmlRpcStruct) invoke("wiki.getPageInfo", id));
+    }
+
+    /**
+     * Get page metadata (including current revision) from wiki
+     *
+     * @param id is page metadata are retrieved for
+     * @return metadata of given page
+     * @throws XmlRpcFaultException if page does not exist (client created with url)
+     * @throws DokuWikiFaultException if page does not exist (client created on top of transport)
+     */
+    @Nonnull
+    public PageInfo getPageInfo(PageId id) {
+        return getPageInfo(id.getId());
+    }
+
+    /**
+     * Put page (update its content) on wiki. Shortened version without summary and minor change marker
+     *
+     * @param id is name of page to be created / updated
+     * @param text is new text of page
+     */
+    public void putPage(String id, String text) {
+        putPage(id, text, null, null);
+    }
+
+    /**
+     * Put page (update its content) on wiki. Shortened version without summary and minor change marker
+     *
+     * @param id is page to be created / updated
+     * @param text is new text of page
+     */
+    public void putPage(PageId id, String text) {
+        putPage(id.getId(), text);
+    }
+
+    /**
+     * Put page (update its content) on wiki.
+     *
+     * @param id is name of page to be created / updated
+     * @param text is new text of page
+     * @param summary is change summary to be stored in history for given version of page
+     * @param minor indicates that modification should be marked minor
+     */
+    public void putPage(String id, String text, @Nullable String summary, @Nullable Boolean minor) {
+        invoke("wiki.putPage", id, text, getPutPageAttrs(summary, minor));
+    }
+
+    /**
+     * Put page (update its content) on wiki.
+     *
+     * @param id is page to be created / updated
+     * @param text is new text of page
+     * @param summary is change summary to be stored in history for given version of page
+     * @param minor indicates that modification should be marked minor
+     */
+    public void putPage(PageId id, String text, @Nullable String summary, @Nullable Boolean minor) {
+        putPage(id.getId(), text, summary, minor);
+    }
+
+    /**
+     * Clean page text the way wiki does when page is saved - unify line endings to unix ones; trailing whitespace is
+     * removed, as it is not significant for rendering and editors tend to add or strip final newline
+     */
+    @Nonnull
+    static String cleanText(String text) {
+        var result = (text.indexOf('\r') < 0) ? text : text.replace("\r\n", "\n").replace('\r', '\n');
+        int end = result.length();
+        while ((end > 0) && Character.isWhitespace(result.charAt(end - 1))) {
+            end--;
+        }
+        return result.substring(0, end);
+    }
+
+    /**
+     * Put page on wiki if its text differs from text of page on wiki. Change is detected using page revision and digest
+     * of text recorded in fingerprint store when page was last written; old text is only retrieved from wiki if store
+     * has no valid record for page. Thus unchanged page costs single metadata call and does not create new revision.
+     * Texts are compared after line endings and trailing whitespace are cleaned the way wiki does it on save. Store is
+     * updated with new text
+     *
+     * @param id is name of page to be created / updated
+     * @param text is new text of page
+     * @param summary is change summary to be stored in history for given version of page
+     * @param minor indicates that modification should be marked minor
+     * @param fingerprints is store of fingerprints of previously written pages
+     * @return true if page has been written, false if it was unchanged
+     */
+    public boolean putPage(String id, String text, @Nullable String summary, @Nullable Boolean minor,
+                           PageFingerprintStore fingerprints) {
+        var cleanedText = cleanText(text);
+        var digest = ContentDigest.of(cleanedText);
+        Integer oldRev;
+        try {
+            oldRev = getPageInfo(id).getVersion();
+        } catch (XmlRpcFaultException | DokuWikiFaultException e) {
+            // page does not exist
+            oldRev = null;
+        }
+        if (oldRev == null) {
+            fingerprints.remove(id);
+            if (cleanedText.isEmpty()) {
+                return false;
+            }
+        } else if (fingerprints.isUnchanged(id, oldRev, digest)) {
+            return false;
+        } else if (!oldRev.equals(fingerprints.getRev(id))) {
+            // store does not know current text of page - compare with old text
+            if (ContentDigest.of(cleanText(getPage(id))).equals(digest)) {
+                fingerprints.record(id, oldRev, digest);
+                return false;
+            }
+        }
+        putPage(id, text, summary, minor);
+        recordPage(id, digest, fingerprints);
+        return true;
+    }
+
+    /**
+     * Put page on wiki if its text differs from text of page on wiki. See
+     * {@link #putPage(String, String, String, Boolean, PageFingerprintStore)}
+     *
+     * @param id is page to be created / updated
+     * @param text is new text of page
+     * @param summary is change summary to be stored in history for given version of page
+     * @param minor indicates that modification should be marked minor
+     * @param fingerprints is store of fingerprints of previously written pages
+     * @return true if page has been written, false if it was unchanged
+     */
+    public boolean putPage(PageId id, String text, @Nullable String summary, @Nullable Boolean minor,
+                           PageFingerprintStore fingerprints) {
+        return putPage(id.getId(), text, summary, minor, fingerprints);
+    }
+
+    /**
+     * Build attributes struct for wiki.putPage call
+     *
+     * @param summary is change summary to be stored in history for given version of page
+     * @param minor indicates that modification should be marked minor
+     * @return struct with attributes that were specified
+     */
+    @Nonnull
+    static XmlRpcStruct getPutPageAttrs(@Nullable String summary, @Nullable Boolean minor) {
+        var attrs=new XmlRpcStruct();
+        if (summary != null) {
+            attrs.put("sum", summary);
+        }
+        if (minor != null) {
+            attrs.put("minor", minor);
+        }
+        return attrs;
+    }
+
+    /**
+     * Delete page; wiki does not implement delete as such, call translates to changing content of page to empty. Action
+     * fails if page does not exist
+     *
+     * @param id is name of page to be removed
+     */
+    public void deletePage(String id) {
+        putPage(id, "");
+    }
+
+    /**
+     * Delete page; translates to changing content of page to empty
+     *
+     * @param id is page to be removed
+     */
+    public void deletePage(PageId id) {
+        deletePage(id.getId());
+    }
+
+    /**
+     * Delete page; wiki does not implement delete as such, call translates to changing content of page to empty. Action
+     * is safe even if page does not exist, but is more expensive than deletePage
+     *
+     * @param id is name of page to be removed
+     */
+    public void deletePageIfExists(String id) {
+        if (!getPage(id).isEmpty()) {
+            putPage(id, "");
+        }
+    }
+
+    /**
+     * Delete page if it exists; safe even if page does not exist, but more expensive than deletePage
+     *
+     * @param id is page to be removed
+     */
+    public void deletePageIfExists(PageId id) {
+        deletePageIfExists(id.getId());
+    }
+
+    /**
+     * Delete all pages in given namespace. We do not have movement detection, thus if package is renamed, it will be
+     * removed in wiki and created on new place. This is not ideal, but there is no way around that... and it is why we
+     * need this function
+     *
+     * @param namespace delete all pages in given namespace
+     */
+    public void deletePages(String namespace) {
+        getPagesInt(namespace, 0)
+                .stream()
+                .map(page -> (String) ((XmlRpcStruct) page).get("id"))
+                .forEach(this::deletePage);
+    }
+
+    /**
+     * Delete all pages in given namespace
+     *
+     * @param namespace delete all pages in given namespace
+     */
+    public void deletePages(PageId namespace) {
+        deletePages(namespace.getId());
+    }
+
+    /**
+     * Delete all pages in given namespace, sending up to parallelism requests to wiki in parallel. Failure to delete
+     * one page does not prevent removal of other pages
+     *
+     * @param namespace delete all pages in given namespace
+     * @param parallelism is maximal number of delete requests sent to wiki in parallel
+     * @return result with ids of removed pages and failures
+     */
+    @Nonnull
+    public BulkOperationResult deletePages(String namespace, int parallelism) {
+        var ids = getPagesInt(namespace, 0)
+                .stream()
+                .map(page -> (String) ((XmlRpcStruct) page).get("id"))
+                .collect(Collectors.toList());
+        return new BulkExecutor(parallelism).execute(ids, this::deletePage);
+    }
+
+    /**
+     * Delete all pages in given namespace, sending up to parallelism requests to wiki in parallel
+     *
+     * @param namespace delete all pages in given namespace
+     * @param parallelism is maximal number of delete requests sent to wiki in parallel
+     * @return result with ids of removed pages and failures
+     */
+    @Nonnull
+    public BulkOperationResult deletePages(PageId namespace, int parallelism) {
+        return deletePages(namespace.getId(), parallelism);
+    }
+
+    /**
+     * Get list of attachments in given namespace. Depth is set to namespace depth to return just attachments directly
+     * in given namespace
+     *
+     * @param namespace is namespace we search attachments in
+     * @return list of attachments directly in given namespace
+     */
+    public List<AttachmentInfo> getAttachments(String namespace) {
+        return getAttachments(namespace, pageIdParser.getDepth(namespace));
+    }
+
+    /**
+     * Get list of attachments directly in given namespace
+     *
+     * @param namespace is namespace we search attachments in
+     * @return list of attachments directly in given namespace
+     */
+    public List<AttachmentInfo> getAttachments(PageId namespace) {
+        return getAttachments(namespace.getId());
+    }
+
+    /**
+     * Get list of names of attachments in given namespace. Depth is set to namespace depth to return just attachments
+     * directly in given namespace, returns plain filenames
+     *
+     * @param namespace is namespace we search attachments in
+     * @return list of filenames of attachments directly in given namespace
+     */
+    public List<String> getAttachmentFileNames(String namespace) {
+        return getAttachmentsInt(namespace, pageIdParser.getDepth(namespace))
+                .map(AttachmentInfo::getFile)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get list of names of attachments directly in given namespace
+     *
+     * @param namespace is namespace we search attachments in
+     * @return list of filenames of attachments directly in given namespace
+     */
+    public List<String> getAttachmentFileNames(PageId namespace) {
+        return getAttachmentFileNames(namespace.getId());
+    }
+
+    /**
+     * Stream attachments in given namespace, within specified depth
+     *
+     * @param namespace is namespace we search in
+     * @param depth is maximal depth; absolute value,  root is 1, value 0 means unlimited
+     * @return stream containing attachments found in given namespace
+     */
+    private Stream<AttachmentInfo> getAttachmentsInt(String namespace, int depth) {
+        return ((XmlRpcArray) invoke("wiki.getAttachments", namespace, Map.of("depth", depth)))
+                .stream()
+                .map(item -> AttachmentInfo.parseResponse((XmlRpcStruct) item));
+    }
+
+    /**
+     * Get list of attachments in given namespace.
+     *
+     * @param namespace is namespace that should be searched
+     * @param depth is depth of sub-spaces to be searched through (absolute from root, not from given namespace);
+     *             0 means unlimited
+     * @return list of attachments in given namespace
+     */
+    public List<AttachmentInfo> getAttachments(String namespace, int depth) {
+        return getAttachmentsInt(namespace, depth)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get list of attachments in given namespace.
+     *
+     * @param namespace is namespace that should be searched
+     * @param depth is depth of sub-spaces to be searched through (absolute from root); 0 means unlimited
+     * @return list of attachments in given namespace
+     */
+    public List<AttachmentInfo> getAttachments(PageId namespace, int depth) {
+        return getAttachments(namespace.getId(), depth);
+    }
+
+    /**
+     * Get content of attachment (file) from wiki
+     *
+     * @param id is name of attachment we want to retrieve
+     * @return content of attachment
+     * @throws XmlRpcFaultException if file does not exist (client created with url)
+     * @throws DokuWikiFaultException if file does not exist (client created on top of transport)
+     */
+    public byte[] getAttachment(String id) {
+        return (byte[]) invoke("wiki.getAttachment", id);
+    }
+
+    /**
+     * Get content of attachment (file) from wiki
+     *
+     * @param id is attachment we want to retrieve
+     * @return content of attachment
+     * @throws XmlRpcFaultException if file does not exist (client created with url)
+     * @throws DokuWikiFaultException if file does not exist (client created on top of transport)
+     */
+    public byte[] getAttachment(PageId id) {
+        return getAttachment(id.getId());
+    }
+
+    /**
+     * Get content of attachment (file) from wiki and write it to output stream. Content is decoded while response is
+     * being received, thus whole file is never held in memory
+     *
+     * @param id is name of attachment we want to retrieve
+     * @param outputStream is stream content of attachment is written to; it is not closed by this method
+     * @return number of bytes written
+     * @throws DokuWikiFaultException if file does not exist
+     * @throws UncheckedIOException if write to output stream fails
+     */
+    public long getAttachment(String id, OutputStream outputStream) {
+        Objects.requireNonNull(outputStream);
+        return getStreamingClient().invoke(reader -> reader.readBase64(outputStream), "wiki.getAttachment", id);
+    }
+
+    /**
+     * Get content of attachment (file) from wiki and write it to output stream
+     *
+     * @param id is attachment we want to retrieve
+     * @param outputStream is stream content of attachment is written to; it is not closed by this method
+     * @return number of bytes written
+     * @throws DokuWikiFaultException if file does not exist
+     * @throws UncheckedIOException if write to output stream fails
+     */
+    public long getAttachment(PageId id, OutputStream outputStream) {
+        return getAttachment(id.getId(), outputStream);
+    }
+
+    /**
+     * Get content of attachment (file) from wiki and write it to file. Content is written to temporary file in target
+     * directory first and moved to target when download is complete, thus target is not damaged if download fails
+     *
+     * @param id is name of attachment we want to retrieve
+     * @param target is path attachment should be written to; existing file is replaced
+     * @return number of bytes written
+     * @throws DokuWikiFaultException if file does not exist
+     * @throws UncheckedIOException if write to file fails
+     */
+    public long getAttachment(String id, Path target) {
+        var directory = target.toAbsolutePath().getParent();
+        try {
+            var tempFile = Files.createTempFile(directory, target.getFileName().toString(), ".part");
+            try {
+                long size;
+                try (var outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                    size = getAttachment(id, outputStream);
+                }
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+                return size;
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write attachment " + id + " to " + target, e);
+        }
+    }
+
+    /**
+     * Get content of attachment (file) from wiki and write it to file
+     *
+     * @param id is attachment we want to retrieve
+     * @param target is path attachment should be written to; existing file is replaced
+     * @return number of bytes written
+     * @throws DokuWikiFaultException if file does not exist
+     * @throws UncheckedIOException if write to file fails
+     */
+    public long getAttachment(PageId id, Path target) {
+        return getAttachment(id.getId(), target);
+    }
+
+    /**
+     * Put attachment (file) to wiki
+     *
+     * @param id is location where attachment should be put to
+     * @param file is byte array with file content
+     * @param overwrite indicates if potential existing content should be overwritten
+     */
+    public void putAttachment(String id, byte[] file, boolean overwrite) {
+        invoke("wiki.putAttachment", id, file, Map.of("ow", overwrite));
+    }
+
+    /**
+     * Put attachment (file) to wiki
+     *
+     * @param id is location where attachment should be put to
+     * @param file is byte array with file content
+     * @param overwrite indicates if potential existing content should be overwritten
+     */
+    public void putAttachment(PageId id, byte[] file, boolean overwrite) {
+        putAttachment(id.getId(), file, overwrite);
+    }
+
+    /**
+     * Put attachment (file) to wiki, reading content from stream. Content is base64 encoded while request is being
+     * sent, thus it is never held in memory as a whole
+     *
+     * @param id is location where attachment should be put to
+     * @param inputStream is stream with file content; it is not closed by this method
+     * @param length is number of bytes to be read from stream and uploaded
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @throws DokuWikiFaultException if wiki refuses attachment
+     * @throws UncheckedIOException if stream cannot be read or ends before specified length
+     */
+    public void putAttachment(String id, InputStream inputStream, long length, boolean overwrite) {
+        Objects.requireNonNull(inputStream);
+        // stream is owned by caller - protect it from being closed by request body
+        putAttachmentInt(id, new Base64Source(length, () -> new FilterInputStream(inputStream) {
+            @Override
+            public void close() {
+            }
+        }, false), overwrite);
+    }
+
+    /**
+     * Put attachment (file) to wiki, reading content from stream
+     *
+     * @param id is location where attachment should be put to
+     * @param inputStream is stream with file content; it is not closed by this method
+     * @param length is number of bytes to be read from stream and uploaded
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @throws DokuWikiFaultException if wiki refuses attachment
+     * @throws UncheckedIOException if stream cannot be read or ends before specified length
+     */
+    public void putAttachment(PageId id, InputStream inputStream, long length, boolean overwrite) {
+        putAttachment(id.getId(), inputStream, length, overwrite);
+    }
+
+    /**
+     * Put attachment (file) to wiki, reading content from local file. File is read via memory mapping and its content
+     * is base64 encoded while request is being sent, thus it is never held in memory as a whole
+     *
+     * @param id is location where attachment should be put to
+     * @param file is path to local file with content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @throws DokuWikiFaultException if wiki refuses attachment
+     * @throws UncheckedIOException if file cannot be read
+     */
+    public void putAttachment(String id, Path file, boolean overwrite) {
+        long length;
+        try {
+            length = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read size of " + file, e);
+        }
+        putAttachmentInt(id, new Base64Source(length, () -> new MappedFileInputStream(file), true),
+                overwrite);
+    }
+
+    /**
+     * Put attachment (file) to wiki, reading content from local file
+     *
+     * @param id is location where attachment should be put to
+     * @param file is path to local file with content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @throws DokuWikiFaultException if wiki refuses attachment
+     * @throws UncheckedIOException if file cannot be read
+     */
+    public void putAttachment(PageId id, Path file, boolean overwrite) {
+        putAttachment(id.getId(), file, overwrite);
+    }
+
+    /**
+     * Envelope for streamed wiki.putAttachment call
+     */
+    private void putAttachmentInt(String id, Base64Source content, boolean overwrite) {
+        getStreamingClient().invoke(XmlRpcReader::readValue, "wiki.putAttachment", id, content,
+                Map.of("ow", overwrite));
+    }
+
+    /**
+     * Put attachment (file) to wiki
+     *
+     * @param id is location where attachment should be put to
+     * @param file is byte array with file content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @param onlyIfChanged indicates that attachment should be modified only if content has been changed
+     */
+    public void putAttachment(String id, byte[] file, boolean overwrite, boolean onlyIfChanged) {
+        if (onlyIfChanged) {
+            var oldInfo = getAttachmentInfoInt(id);
+            // size is available cheaply, old content only has to be retrieved if size is the same
+            if ((oldInfo != null) && ((int) oldInfo.get("size") == file.length)) {
+                try {
+                    var oldFile = getAttachment(id);
+                    if (Arrays.equals(file, oldFile)) {
+                        return;
+                    }
+                } catch (XmlRpcFaultException | DokuWikiFaultException e) {
+                    if (!e.getMessage().equals("The requested file does not exist")) {
+                        throw new RuntimeException("Error reading old value", e);
+                    }
+                }
+            }
+        }
+        invoke("wiki.putAttachment", id, file, Map.of("ow", overwrite));
+    }
+
+    /**
+     * Put attachment (file) to wiki
+     *
+     * @param id is location where attachment should be put to
+     * @param file is byte array with file content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @param onlyIfChanged indicates that attachment should be modified only if content has been changed
+     */
+    public void putAttachment(PageId id, byte[] file, boolean overwrite, boolean onlyIfChanged) {
+        putAttachment(id.getId(), file, overwrite, onlyIfChanged);
+    }
+
+    /**
+     * Envelope for wiki.getAttachmentInfo call
+     *
+     * @param id is id of attachment
+     * @return struct with size and lastModified of attachment, null if attachment does not exist
+     */
+    @Nullable
+    private XmlRpcStruct getAttachmentInfoInt(String id) {
+        XmlRpcStruct info;
+        try {
+            info = (XmlRpcStruct) invoke("wiki.getAttachmentInfo", id);
+        } catch (XmlRpcFaultException | DokuWikiFaultException e) {
+            if (e.getMessage().equals("The requested file does not exist")) {
+                return null;
+            }
+            throw e;
+        }
+        // older DokuWiki versions return zero size and timestamp instead of fault for non-existent file
+        if (((int) info.get("size") == 0) && (((LocalDateTime) info.get("lastModified")).getYear() <= 1970)) {
+            return null;
+        }
+        return info;
+    }
+
+    /**
+     * Put attachment to wiki if its content differs from content of attachment on wiki. Change is detected using
+     * attachment size and digest of content recorded in manifest when attachment was last uploaded; old content is
+     * only retrieved from wiki if manifest has no valid record for attachment. Thus unchanged attachment costs single
+     * metadata call. Manifest is updated with new content
+     *
+     * @param id is location where attachment should be put to
+     * @param file is byte array with file content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @param manifest is manifest of previously uploaded attachments
+     * @return true if attachment has been uploaded, false if it was unchanged
+     */
+    public boolean putAttachment(String id, byte[] file, boolean overwrite, AttachmentManifest manifest) {
+        var digest = ContentDigest.of(file);
+        if (isAttachmentUnchanged(id, file.length, digest, manifest, () -> ContentDigest.of(getAttachment(id)))) {
+            return false;
+        }
+        invoke("wiki.putAttachment", id, file, Map.of("ow", overwrite));
+        recordAttachment(id, digest, manifest);
+        return true;
+    }
+
+    /**
+     * Put attachment to wiki if its content differs from content of attachment on wiki. See
+     * {@link #putAttachment(String, byte[], boolean, AttachmentManifest)}
+     *
+     * @param id is location where attachment should be put to
+     * @param file is byte array with file content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @param manifest is manifest of previously uploaded attachments
+     * @return true if attachment has been uploaded, false if it was unchanged
+     */
+    public boolean putAttachment(PageId id, byte[] file, boolean overwrite, AttachmentManifest manifest) {
+        return putAttachment(id.getId(), file, overwrite, manifest);
+    }
+
+    /**
+     * Put attachment to wiki from local file if its content differs from content of attachment on wiki. Works like
+     * {@link #putAttachment(String, byte[], boolean, AttachmentManifest)}, but file is read via memory mapping and
+     * uploaded and downloaded as stream
+     *
+     * @param id is location where attachment should be put to
+     * @param file is path to local file with content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @param manifest is manifest of previously uploaded attachments
+     * @return true if attachment has been uploaded, false if it was unchanged
+     */
+    public boolean putAttachment(String id, Path file, boolean overwrite, AttachmentManifest manifest) {
+        var digest = ContentDigest.of(file);
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read size of " + file, e);
+        }
+        if (isAttachmentUnchanged(id, size, digest, manifest, () -> getAttachmentDigest(id))) {
+            return false;
+        }
+        putAttachment(id, file, overwrite);
+        recordAttachment(id, digest, manifest);
+        return true;
+    }
+
+    /**
+     * Put attachment to wiki from local file if its content differs from content of attachment on wiki. See
+     * {@link #putAttachment(String, Path, boolean, AttachmentManifest)}
+     *
+     * @param id is location where attachment should be put to
+     * @param file is path to local file with content
+     * @param overwrite indicates if potential existing content should be overwritten
+     * @param manifest is manifest of previously uploaded attachments
+     * @return true if attachment has been uploaded, false if it was unchanged
+     */
+    public boolean putAttachment(PageId id, Path file, boolean overwrite, AttachmentManifest manifest) {
+        return putAttachment(id.getId(), file, overwrite, manifest);
+    }
+
+    private boolean isAttachmentUnchanged(String id, long size, String digest, AttachmentManifest manifest,
+                                          Supplier<String> oldDigestSupplier) {
+        var oldInfo = getAttachmentInfoInt(id);
+        if (oldInfo == null) {
+            manifest.remove(id);
+            return false;
+        }
+        var oldSize = (int) oldInfo.get("size");
+        var oldLastModified = (LocalDateTime) oldInfo.get("lastModified");
+        if (oldSize != size) {
+            return false;
+        }
+        if (manifest.isUnchanged(id, oldSize, oldLastModified, digest)) {
+            return true;
+        }
+        // manifest does not know current content of attachment - compare with old content
+        if (oldDigestSupplier.get().equals(digest)) {
+            manifest.record(id, oldSize, oldLastModified, digest);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Verify if attachment exists on wiki, using cheap metadata call
+     *
+     * @param id is id of attachment
+     * @return true if attachment exists
+     */
+    boolean attachmentExists(String id) {
+        return getAttachmentInfoInt(id) != null;
+    }
+
+    /**
+     * Evaluate digest of attachment content on wiki; content is streamed, never held in memory as a whole
+     *
+     * @param id is id of attachment
+     * @return hex encoded SHA-256 digest of attachment content
+     */
+    @Nonnull
+    String getAttachmentDigest(String id) {
+        var digestStream = new DigestOutputStream(OutputStream.nullOutputStream(), ContentDigest.newDigest());
+        getAttachment(id, digestStream);
+        return ContentDigest.toHex(digestStream.getMessageDigest().digest());
+    }
+
+    /**
+     * Record current state of page in fingerprint store, after page has been written
+     *
+     * @param id is id of page
+     * @param digest is digest of text that has been written
+     * @param fingerprints is store page should be recorded in
+     */
+    void recordPage(String id, String digest, PageFingerprintStore fingerprints) {
+        try {
+            fingerprints.record(id, getPageInfo(id).getVersion(), digest);
+        } catch (XmlRpcFaultException | DokuWikiFaultException e) {
+            // page has been deleted by write of empty text
+            fingerprints.remove(id);
+        }
+    }
+
+    /**
+     * Record current state of attachment in manifest, after attachment has been uploaded
+     *
+     * @param id is id of attachment
+     * @param digest is digest of content that has been uploaded
+     * @param manifest is manifest attachment should be recorded in
+     */
+    void recordAttachment(String id, String digest, AttachmentManifest manifest) {
+        var newInfo = getAttachmentInfoInt(id);
+        if (newInfo == null) {
+            manifest.remove(id);
+        } else {
+            manifest.record(id, (int) newInfo.get("size"), (LocalDateTime) newInfo.get("lastModified"), digest);
+        }
+    }
+
+    /**
+     * Delete attachment from wiki
+     *
+     * @param id is name of attachment wwe want to remove
+     * @throws XmlRpcFaultException if attachment does not exist or it is referenced from existing topic (client created
+     * with url)
+     * @throws DokuWikiFaultException if attachment does not exist or it is referenced from existing topic (client
+     * created on top of transport)
+     */
+    public void deleteAttachment(String id) {
+        invoke("wiki.deleteAttachment", id);
+    }
+
+    /**
+     * Delete attachment from wiki
+     *
+     * @param id is attachment we want to remove
+     * @throws XmlRpcFaultException if attachment does not exist or it is referenced from existing topic (client created
+     * with url)
+     * @throws DokuWikiFaultException if attachment does not exist or it is referenced from existing topic (client
+     * created on top of transport)
+     */
+    public void deleteAttachment(PageId id) {
+        deleteAttachment(id.getId());
+    }
+
+    /**
+     * Delete all attachments in given namespace from wiki
+     *
+     * @param namespace is namespace from which we want to remove all attachments
+     * @throws XmlRpcFaultException if attachments are referenced from existing topics (client created with url)
+     * @throws DokuWikiFaultException if attachments are referenced from existing topics (client created on top of
+     * transport)
+     */
+    public void deleteAttachments(String namespace) {
+        getAttachmentsInt(namespace, 0)
+                .map(AttachmentInfo::getId)
+                . forEach(this::deleteAttachment);
+    }
+
+    /**
+     * Delete all attachments in given namespace from wiki
+     *
+     * @param namespace is namespace from which we want to remove all attachments
+     * @throws XmlRpcFaultException if attachments are referenced from existing topics (client created with url)
+     * @throws DokuWikiFaultException if attachments are referenced from existing topics (client created on top of
+     * transport)
+     */
+    public void deleteAttachments(PageId namespace) {
+        deleteAttachments(namespace.getId());
+    }
+
+    /**
+     * Delete all attachments in given namespace from wiki, sending up to parallelism requests to wiki in parallel.
+     * Failure to delete one attachment (e.g. because it is referenced from existing page) does not prevent removal of
+     * other attachments
+     *
+     * @param namespace is namespace from which we want to remove all attachments
+     * @param parallelism is maximal number of delete requests sent to wiki in parallel
+     * @return result with ids of removed attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult deleteAttachments(String namespace, int parallelism) {
+        var ids = getAttachmentsInt(namespace, 0)
+                .map(AttachmentInfo::getId)
+                .collect(Collectors.toList());
+        return new BulkExecutor(parallelism).execute(ids, this::deleteAttachment);
+    }
+
+    /**
+     * Delete all attachments in given namespace from wiki, sending up to parallelism requests to wiki in parallel
+     *
+     * @param namespace is namespace from which we want to remove all attachments
+     * @param parallelism is maximal number of delete requests sent to wiki in parallel
+     * @return result with ids of removed attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult deleteAttachments(PageId namespace, int parallelism) {
+        return deleteAttachments(namespace.getId(), parallelism);
+    }
+
+    /**
+     * Envelope for Xml-Rpc calls retrieving recent changes; translates fault signalling no changes to empty list
+     *
+     * @param method is Xml-Rpc method to be called
+     * @param since is timestamp (seconds since epoch); changes made at or after this time are returned
+     * @param media indicates that result represents media changes
+     * @return list of changes, empty if there are no changes in given timeframe
+     */
+    private List<RecentChange> getRecentChangesInt(String method, int since, boolean media) {
+        XmlRpcArray changes;
+        try {
+            changes = (XmlRpcArray) invoke(method, since);
+        } catch (XmlRpcFaultException | DokuWikiFaultException e) {
+            if (e.getMessage().equals("There are no changes in the specified timeframe")) {
+                return List.of();
+            }
+            throw e;
+        }
+        return changes
+                .stream()
+                .map(change -> RecentChange.parseResponse((XmlRpcStruct) change, media))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get list of page changes made since given time
+     *
+     * @param since is timestamp (seconds since epoch); changes made at or after this time are returned
+     * @return list of page changes, empty if there were no changes
+     */
+    @Nonnull
+    public List<RecentChange> getRecentChanges(int since) {
+        return getRecentChangesInt("wiki.getRecentChanges", since, false);
+    }
+
+    /**
+     * Get list of media (attachment) changes made since given time
+     *
+     * @param since is timestamp (seconds since epoch); changes made at or after this time are returned
+     * @return list of media changes, empty if there were no changes
+     */
+    @Nonnull
+    public List<RecentChange> getRecentMediaChanges(int since) {
+        return getRecentChangesInt("wiki.getRecentMediaChanges", since, true);
+    }
+
+    /**
+     * Create incremental feed of page and media changes
+     *
+     * @param since is timestamp (seconds since epoch) feed starts at; use cursor of previous feed to resume it
+     * @return new change feed, covering both pages and media
+     */
+    @Nonnull
+    public ChangeFeed newChangeFeed(int since) {
+        return newChangeFeed(since, true, true);
+    }
+
+    /**
+     * Create incremental feed of changes
+     *
+     * @param since is timestamp (seconds since epoch) feed starts at; use cursor of previous feed to resume it
+     * @param pages indicates that page changes should be included in feed
+     * @param media indicates that media changes should be included in feed
+     * @return new change feed
+     */
+    @Nonnull
+    public ChangeFeed newChangeFeed(int since, boolean pages, boolean media) {
+        return new ChangeFeed(this, since, pages, media);
+    }
+
+    /**
+     * Create new batch, that can be used to send multiple write calls to wiki in single request. Uses default batch
+     * size
+     *
+     * @return new empty batch bound to this client
+     */
+    @Nonnull
+    public DokuWikiBatch newBatch() {
+        return newBatch(DokuWikiBatch.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Create new batch, that can be used to send multiple write calls to wiki in single request.
+     *
+     * @param batchSize is maximal number of calls sent to wiki in single multicall request
+     * @return new empty batch bound to this client
+     */
+    @Nonnull
+    public DokuWikiBatch newBatch(int batchSize) {
+        return new DokuWikiBatch(this, batchSize);
+    }
+
+    /**
+     * Envelope for system.multicall Xml-Rpc call. Call is always sent via own Xml-Rpc implementation, as Xml-Rpc
+     * library does not expose fault code and callers need it to recognise wiki that does not support multicall
+     *
+     * @param calls is array of structs with methodName and params of individual calls
+     * @return array with one item per call; array with single value for successful call, fault struct for failed one
+     * @throws DokuWikiFaultException if wiki reports fault for multicall as whole (e.g. when it is not supported)
+     */
+    @Nonnull
+    XmlRpcArray multicall(XmlRpcArray calls) {
+        return (XmlRpcArray) getStreamingClient().invoke("system.multicall", calls);
     }
 
     @Override
     public String toString() {
         return "DokuWikiClient{" +
                 "xmlRpcClient=" + xmlRpcClient +
+                ", streamingClient=" + streamingClient +
                 '}';
     }
 }
\ No newline at end of file
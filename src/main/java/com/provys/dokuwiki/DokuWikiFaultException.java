@@ -0,0 +1,42 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * Fault returned by wiki in response to Xml-Rpc call, processed by client's own streaming Xml-Rpc implementation.
+ * Message of exception is fault string returned by wiki, same as with
+ * {@link com.provys.xmlrpc.XmlRpcFaultException}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DokuWikiFaultException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** fault code returned by wiki */
+    private final int faultCode;
+    /** fault string returned by wiki */
+    @Nonnull
+    private final String faultString;
+
+    DokuWikiFaultException(int faultCode, String faultString) {
+        super(faultString);
+        this.faultCode = faultCode;
+        this.faultString = Objects.requireNonNull(faultString);
+    }
+
+    /**
+     * @return fault code returned by wiki
+     */
+    public int getFaultCode() {
+        return faultCode;
+    }
+
+    /**
+     * @return fault string returned by wiki
+     */
+    @Nonnull
+    public String getFaultString() {
+        return faultString;
+    }
+}
@@ -0,0 +1,40 @@
+package com.provys.dokuwiki;
+
+/**
+ * Receives measurements of Xml-Rpc calls made by {@link DokuWikiClient}. Default implementation is
+ * {@link InMemoryDokuWikiMetrics}; {@link MicrometerDokuWikiMetrics} publishes measurements to Micrometer registry.
+ * Methods are invoked from threads making calls and must be thread-safe and cheap.
+ */
+public interface DokuWikiMetrics {
+
+    /**
+     * Outcome of call
+     */
+    enum Outcome {
+        /** call returned value */
+        SUCCESS,
+        /** wiki returned fault */
+        FAULT,
+        /** call failed because of network, protocol or parsing error */
+        ERROR
+    }
+
+    /**
+     * Call of Xml-Rpc method has been started
+     *
+     * @param method is name of Xml-Rpc method
+     */
+    void callStarted(String method);
+
+    /**
+     * Call of Xml-Rpc method, previously reported via {@link #callStarted}, has been completed. For streamed
+     * responses, call is completed when response has been read and closed
+     *
+     * @param method is name of Xml-Rpc method
+     * @param outcome is outcome of call
+     * @param durationNanos is duration of call in nanoseconds
+     * @param requestBytes is size of request body, -1 if not known
+     * @param responseBytes is size of (uncompressed) response body read, -1 if not known
+     */
+    void callCompleted(String method, Outcome outcome, long durationNanos, long requestBytes, long responseBytes);
+}
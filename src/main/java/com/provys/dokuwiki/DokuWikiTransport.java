@@ -0,0 +1,58 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Transport used to deliver serialized Xml-Rpc calls to wiki. Transport is responsible for connection handling and
+ * authentication; serialization of calls and parsing of responses is done by client. Default implementation is
+ * {@link HttpClientTransport}. Transport is shared by all calls of client and thus must be thread-safe.
+ */
+public interface DokuWikiTransport {
+
+    /**
+     * Body of Xml-Rpc request
+     */
+    interface RequestBody {
+
+        /**
+         * @return length of body in bytes
+         */
+        long getContentLength();
+
+        /**
+         * @return true if body can be sent repeatedly (e.g. when call is retried), false if content is streamed from
+         * input stream supplied by caller and thus can only be read once
+         */
+        boolean isRepeatable();
+
+        /**
+         * @return true if call is known not to modify wiki (e.g. multicall consisting of reads only) and thus can be
+         * safely repeated; false if call might modify wiki or if it is not known
+         */
+        default boolean isReadOnly() {
+            return false;
+        }
+
+        /**
+         * Open stream producing body content. Each call produces body from its beginning; body that is not
+         * repeatable can only be opened once
+         *
+         * @return stream producing body content
+         */
+        @Nonnull
+        InputStream open();
+    }
+
+    /**
+     * Send Xml-Rpc request and return stream with (decoded) body of successful response
+     *
+     * @param method is name of Xml-Rpc method being called; transport might use it for logging or statistics
+     * @param body is serialized Xml-Rpc call
+     * @return stream with body of response; caller is responsible for closing it
+     * @throws IOException when request cannot be delivered or wiki does not return successful response
+     */
+    @Nonnull
+    InputStream send(String method, RequestBody body) throws IOException;
+}
@@ -0,0 +1,133 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Entries indexed by id, kept in memory only or persisted to local file with one tab separated line per entry - id
+ * followed by fields of entry. Common implementation of {@link PageFingerprintStore} and {@link AttachmentManifest}.
+ * Store is thread safe.
+ *
+ * @param <E> is type of entry
+ */
+final class EntryStore<E> {
+
+    /** file store is persisted to; null if store is kept in memory only */
+    @Nullable
+    private final Path file;
+    /** description of store content, used in exception messages */
+    @Nonnull
+    private final String description;
+    /** number of fields on line, including id */
+    private final int fieldCount;
+    /** converts fields of line (id being the first one) to entry */
+    @Nonnull
+    private final Function<String[], E> parser;
+    /** converts entry to tab separated fields, id excluded */
+    @Nonnull
+    private final Function<E, String> formatter;
+    @Nonnull
+    private final Map<String, E> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Create store. If file is specified and exists, store is loaded from it.
+     *
+     * @param file is file store is persisted to; null if store is kept in memory only
+     * @param description is description of store content, used in exception messages
+     * @param fieldCount is number of fields on line, including id
+     * @param parser converts fields of line (id being the first one) to entry
+     * @param formatter converts entry to tab separated fields, id excluded
+     */
+    EntryStore(@Nullable Path file, String description, int fieldCount, Function<String[], E> parser,
+               Function<E, String> formatter) {
+        this.file = file;
+        this.description = Objects.requireNonNull(description);
+        this.fieldCount = fieldCount;
+        this.parser = Objects.requireNonNull(parser);
+        this.formatter = Objects.requireNonNull(formatter);
+        if ((file != null) && Files.exists(file)) {
+            load(file);
+        }
+    }
+
+    private void load(Path file) {
+        try {
+            for (var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                var fields = line.split("\t");
+                if (fields.length != fieldCount) {
+                    throw new IllegalArgumentException("Invalid " + description + " line " + line);
+                }
+                entries.put(fields[0], parser.apply(fields));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + description + ' ' + file, e);
+        }
+    }
+
+    /**
+     * @return file store is persisted to; null if store is kept in memory only
+     */
+    @Nullable
+    Path getFile() {
+        return file;
+    }
+
+    @Nullable
+    E get(String id) {
+        return entries.get(id);
+    }
+
+    void put(String id, E entry) {
+        entries.put(id, entry);
+    }
+
+    void remove(String id) {
+        entries.remove(id);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Write store to its file; does nothing for in-memory store. Store is written to temporary file first and moved to
+     * target location afterwards
+     */
+    void save() {
+        if (file == null) {
+            return;
+        }
+        var lines = new ArrayList<String>(entries.size());
+        entries.forEach((id, entry) -> lines.add(id + '\t' + formatter.apply(entry)));
+        try {
+            var tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tempFile, lines, StandardCharsets.UTF_8);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + description + ' ' + file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EntryStore{" +
+                "file=" + file +
+                ", description='" + description + '\'' +
+                ", entries=" + entries.size() +
+                '}';
+    }
+}
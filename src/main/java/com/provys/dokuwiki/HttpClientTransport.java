@@ -0,0 +1,406 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Default transport, based on {@link HttpClient}. Transport holds single http client, that keeps pool of persistent
+ * (keep-alive) connections to wiki; connections are reused by subsequent calls and by calls from multiple threads.
+ * Transport is thread-safe and if multiple clients access the same wiki, they should share single transport instance.
+ * Idle connections are closed after keep-alive timeout, controlled by jdk.httpclient.keepalive.timeout system
+ * property.
+ * <p>
+ * Responses are requested gzip compressed; compression of requests is optional, as by default neither web server nor
+ * PHP decompress request body.
+ * <p>
+ * By default, credentials are sent with each request (HTTP Basic authentication). With session login, transport logs
+ * in once using dokuwiki.login and subsequent calls from all threads are authenticated by session cookie, sparing wiki
+ * verification of credentials (e.g. LDAP lookup) on each call. When wiki rejects call as unauthorized, session is
+ * considered expired; transport logs in again and repeats the call. Note that expiry is only detected by HTTP status
+ * 401; calls that wiki allows for anonymous users (e.g. reading pages with public ACL) do not fail after session
+ * expired, they silently return results filtered by anonymous ACL. Use Basic authentication if such results are not
+ * acceptable.
+ * <p>
+ * Transport with default settings can be created using constructor, other settings are available via
+ * {@link #builder(String, String, String)}.
+ */
+@SuppressWarnings("WeakerAccess") // HttpClientTransport is published library class
+public final class HttpClientTransport implements DokuWikiTransport {
+
+    /** default timeout for establishing connection */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    /** default timeout for receiving response */
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofMinutes(2);
+
+    /** url of xml-rpc endpoint */
+    @Nonnull
+    private final URI uri;
+    @Nonnull
+    private final String userName;
+    @Nonnull
+    private final String password;
+    /** value of authorization header; null if session login is used */
+    @Nullable
+    private final String authorization;
+    /** timeout for receiving response headers; null means no timeout */
+    @Nullable
+    private final Duration requestTimeout;
+    /** if true, request body is sent deflate compressed */
+    private final boolean compressRequests;
+    @Nonnull
+    private final HttpClient httpClient;
+    /** guards session login */
+    private final Object sessionLock = new Object();
+    /** number of successful logins; 0 if not logged in yet. Identifies session requests are sent with */
+    private volatile int session;
+
+    /**
+     * Create transport with default timeouts, using HTTP/1.1 and uncompressed requests.
+     *
+     * @param url is url used to access xml-rpc endpoint of DokuWiki
+     * @param userName used to login to wiki
+     * @param password used to login to wiki
+     */
+    public HttpClientTransport(String url, String userName, String password) {
+        this(url, userName, password, false);
+    }
+
+    /**
+     * Create transport with default timeouts, using HTTP/1.1 and uncompressed requests.
+     *
+     * @param url is url used to access xml-rpc endpoint of DokuWiki
+     * @param userName used to login to wiki
+     * @param password used to login to wiki
+     * @param sessionLogin if true, transport logs in to wiki once and authenticates calls by session cookie; otherwise
+     *                     credentials are sent with each call
+     */
+    public HttpClientTransport(String url, String userName, String password, boolean sessionLogin) {
+        this(builder(url, userName, password).sessionLogin(sessionLogin));
+    }
+
+    private HttpClientTransport(Builder builder) {
+        try {
+            this.uri = new URI(builder.url);
+        } catch (URISyntaxException e) {
+            throw new RuntimeException("Malformed URL " + builder.url, e);
+        }
+        this.userName = builder.userName;
+        this.password = builder.password;
+        this.authorization = builder.sessionLogin ? null : "Basic " + Base64.getEncoder().encodeToString(
+                (userName + ':' + password).getBytes(StandardCharsets.UTF_8));
+        this.requestTimeout = builder.requestTimeout;
+        this.compressRequests = builder.compressRequests;
+        var httpClientBuilder = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .version(builder.http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1);
+        if (builder.connectTimeout != null) {
+            httpClientBuilder.connectTimeout(builder.connectTimeout);
+        }
+        if (builder.sessionLogin) {
+            // cookie manager is thread-safe, session cookie is thus shared by all threads
+            httpClientBuilder.cookieHandler(new CookieManager());
+        }
+        this.httpClient = httpClientBuilder.build();
+    }
+
+    /**
+     * Create builder of transport. Builder starts with default timeouts, HTTP/1.1, uncompressed requests and Basic
+     * authentication
+     *
+     * @param url is url used to access xml-rpc endpoint of DokuWiki
+     * @param userName used to login to wiki
+     * @param password used to login to wiki
+     * @return new builder
+     */
+    @Nonnull
+    public static Builder builder(String url, String userName, String password) {
+        return new Builder(url, userName, password);
+    }
+
+    /**
+     * @return url of xml-rpc endpoint
+     */
+    @Nonnull
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * @return timeout for receiving response headers; null means no timeout
+     */
+    @Nullable
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * @return true if request bodies are sent compressed
+     */
+    public boolean isCompressRequests() {
+        return compressRequests;
+    }
+
+    /**
+     * @return true if calls are authenticated by session cookie, false if credentials are sent with each call
+     */
+    public boolean isSessionLogin() {
+        return authorization == null;
+    }
+
+    /**
+     * @return HTTP version preferred by this transport
+     */
+    @Nonnull
+    public HttpClient.Version getVersion() {
+        return httpClient.version();
+    }
+
+    @Nonnull
+    private HttpRequest.BodyPublisher getBodyPublisher(RequestBody body) {
+        if (compressRequests) {
+            // compressed length is not known in advance; body is sent chunked
+            return HttpRequest.BodyPublishers.ofInputStream(() -> new DeflaterInputStream(body.open()));
+        }
+        return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(body::open),
+                body.getContentLength());
+    }
+
+    @Nonnull
+    private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        var encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+        switch (encoding.toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(response.body());
+            case "deflate":
+                return new InflaterInputStream(response.body());
+            case "identity":
+                return response.body();
+            default:
+                throw new IOException("Unsupported content encoding " + encoding + " of response");
+        }
+    }
+
+    @Nonnull
+    private HttpResponse<InputStream> post(String method, RequestBody body) throws IOException {
+        var requestBuilder = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "text/xml; charset=UTF-8")
+                .header("Accept-Encoding", "gzip, deflate")
+                .POST(getBodyPublisher(body));
+        if (authorization != null) {
+            requestBuilder.header("Authorization", authorization);
+        }
+        if (compressRequests) {
+            requestBuilder.header("Content-Encoding", "deflate");
+        }
+        if (requestTimeout != null) {
+            requestBuilder.timeout(requestTimeout);
+        }
+        try {
+            return httpClient.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            var exception = new InterruptedIOException("Interrupted during Xml-Rpc call " + method);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    @Nonnull
+    private static InputStream getBody(String method, HttpResponse<InputStream> response) throws IOException {
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new HttpStatusException(method, response.statusCode());
+        }
+        try {
+            return decode(response);
+        } catch (IOException | RuntimeException e) {
+            try {
+                response.body().close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Log in to wiki, unless session newer than expired one already exists
+     *
+     * @param expired is session that has been found expired; 0 if there is no session yet
+     * @return session valid after login
+     * @throws IOException when login call fails or wiki rejects credentials
+     */
+    private int login(int expired) throws IOException {
+        synchronized (sessionLock) {
+            if (session != expired) {
+                // other thread logged in while we were waiting
+                return session;
+            }
+            var response = getBody("dokuwiki.login",
+                    post("dokuwiki.login", XmlRpcRequestBody.of("dokuwiki.login", userName, password)));
+            try (var reader = new XmlRpcReader(response)) {
+                if (!Boolean.TRUE.equals(reader.readResponse())) {
+                    throw new IOException("Login of user " + userName + " to wiki " + uri + " failed");
+                }
+            }
+            session = expired + 1;
+            return session;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public InputStream send(String method, RequestBody body) throws IOException {
+        if (authorization != null) {
+            return getBody(method, post(method, body));
+        }
+        var current = session;
+        if (current == 0) {
+            current = login(0);
+        }
+        var response = post(method, body);
+        if (response.statusCode() == 401) {
+            // session expired - log in again and repeat call
+            response.body().close();
+            login(current);
+            if (!body.isRepeatable()) {
+                throw new IOException("Session expired during Xml-Rpc call " + method
+                        + "; call cannot be repeated as its content has already been consumed");
+            }
+            response = post(method, body);
+        }
+        return getBody(method, response);
+    }
+
+    @Override
+    public String toString() {
+        return "HttpClientTransport{" +
+                "uri=" + uri +
+                ", requestTimeout=" + requestTimeout +
+                ", compressRequests=" + compressRequests +
+                ", sessionLogin=" + isSessionLogin() +
+                ", version=" + httpClient.version() +
+                '}';
+    }
+
+    /**
+     * Builder of {@link HttpClientTransport}; obtain it via
+     * {@link HttpClientTransport#builder(String, String, String)}. Builder is not thread safe.
+     */
+    public static final class Builder {
+
+        @Nonnull
+        private final String url;
+        @Nonnull
+        private final String userName;
+        @Nonnull
+        private final String password;
+        /** timeout for establishing connection; null means no timeout */
+        @Nullable
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        /** timeout for receiving response headers; null means no timeout */
+        @Nullable
+        private Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        private boolean http2;
+        private boolean compressRequests;
+        private boolean sessionLogin;
+
+        private Builder(String url, String userName, String password) {
+            this.url = Objects.requireNonNull(url);
+            this.userName = Objects.requireNonNull(userName);
+            this.password = Objects.requireNonNull(password);
+        }
+
+        /**
+         * @param connectTimeout is timeout for establishing connection; null means no timeout
+         * @return self to support chaining
+         */
+        @Nonnull
+        public Builder connectTimeout(@Nullable Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * @param requestTimeout is timeout for receiving response headers after request has been sent; null means no
+         *                      timeout. Body of response is streamed and reading it is not limited by this timeout
+         * @return self to support chaining
+         */
+        @Nonnull
+        public Builder requestTimeout(@Nullable Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * @param http2 if true, HTTP/2 is negotiated with server; falls back to HTTP/1.1 if server does not support it
+         * @return self to support chaining
+         */
+        @Nonnull
+        public Builder http2(boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        /**
+         * @param compressRequests if true, request bodies are sent with deflate content encoding. Only use if wiki's
+         *                         web server is configured to decompress request bodies
+         * @return self to support chaining
+         */
+        @Nonnull
+        public Builder compressRequests(boolean compressRequests) {
+            this.compressRequests = compressRequests;
+            return this;
+        }
+
+        /**
+         * @param sessionLogin if true, transport logs in to wiki once and authenticates calls by session cookie;
+         *                     otherwise credentials are sent with each call. See {@link HttpClientTransport} for
+         *                     limits of session expiry detection
+         * @return self to support chaining
+         */
+        @Nonnull
+        public Builder sessionLogin(boolean sessionLogin) {
+            this.sessionLogin = sessionLogin;
+            return this;
+        }
+
+        /**
+         * @return new transport with settings of this builder
+         */
+        @Nonnull
+        public HttpClientTransport build() {
+            return new HttpClientTransport(this);
+        }
+
+        @Override
+        public String toString() {
+            return "Builder{" +
+                    "url='" + url + '\'' +
+                    ", connectTimeout=" + connectTimeout +
+                    ", requestTimeout=" + requestTimeout +
+                    ", http2=" + http2 +
+                    ", compressRequests=" + compressRequests +
+                    ", sessionLogin=" + sessionLogin +
+                    '}';
+        }
+    }
+}
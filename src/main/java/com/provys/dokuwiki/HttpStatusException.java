@@ -0,0 +1,34 @@
+package com.provys.dokuwiki;
+
+import java.io.IOException;
+
+/**
+ * Xml-Rpc call failed because wiki (or proxy in front of it) responded with unsuccessful HTTP status
+ */
+@SuppressWarnings("WeakerAccess")
+public class HttpStatusException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** HTTP status of response */
+    private final int statusCode;
+
+    HttpStatusException(String method, int statusCode) {
+        super("Xml-Rpc call " + method + " failed with HTTP status " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return HTTP status of response
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return true if status indicates failure on server side or overload, that might disappear if call is repeated
+     */
+    public boolean isTransient() {
+        return (statusCode >= 500) || (statusCode == 429) || (statusCode == 408);
+    }
+}
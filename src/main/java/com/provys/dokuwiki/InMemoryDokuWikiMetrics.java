@@ -0,0 +1,70 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default metrics implementation, keeping statistics of calls per Xml-Rpc method in memory
+ */
+@SuppressWarnings("WeakerAccess") // InMemoryDokuWikiMetrics is published library class
+public final class InMemoryDokuWikiMetrics implements DokuWikiMetrics {
+
+    @Nonnull
+    private final ConcurrentHashMap<String, MethodStatistics> statistics = new ConcurrentHashMap<>();
+
+    @Nonnull
+    private MethodStatistics getStatisticsInt(String method) {
+        return statistics.computeIfAbsent(method, MethodStatistics::new);
+    }
+
+    @Override
+    public void callStarted(String method) {
+        getStatisticsInt(method).callStarted();
+    }
+
+    @Override
+    public void callCompleted(String method, Outcome outcome, long durationNanos, long requestBytes,
+                              long responseBytes) {
+        getStatisticsInt(method).callCompleted(outcome, durationNanos, requestBytes, responseBytes);
+    }
+
+    /**
+     * Get statistics of given method
+     *
+     * @param method is name of Xml-Rpc method
+     * @return statistics of method, null if method has not been called
+     */
+    @Nullable
+    public MethodStatistics getStatistics(String method) {
+        return statistics.get(method);
+    }
+
+    /**
+     * @return statistics of all called methods, ordered by total time spent in method (descending); first methods
+     * are those that dominate runtime
+     */
+    @Nonnull
+    public List<MethodStatistics> getStatistics() {
+        var result = new ArrayList<>(statistics.values());
+        result.sort(Comparator.comparing(MethodStatistics::getTotalTime).reversed());
+        return result;
+    }
+
+    /**
+     * Discard all collected statistics; calls in progress are not reflected in in-flight counts afterwards
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryDokuWikiMetrics{" +
+                "statistics=" + getStatistics() +
+                '}';
+    }
+}
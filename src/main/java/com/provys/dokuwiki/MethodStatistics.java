@@ -0,0 +1,192 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of calls of single Xml-Rpc method, collected by {@link InMemoryDokuWikiMetrics}. Latency is kept as
+ * histogram with fixed buckets, percentiles are thus approximated by upper bound of bucket
+ */
+@SuppressWarnings("WeakerAccess") // MethodStatistics is published library class
+public final class MethodStatistics {
+
+    /** upper bounds of latency histogram buckets in milliseconds; last bucket is unbounded */
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000,
+            10_000, 30_000, 60_000};
+
+    /** name of Xml-Rpc method */
+    @Nonnull
+    private final String method;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+
+    MethodStatistics(String method) {
+        this.method = Objects.requireNonNull(method);
+    }
+
+    void callStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void callCompleted(DokuWikiMetrics.Outcome outcome, long durationNanos, long requestBytes,
+                       long responseBytes) {
+        inFlight.decrementAndGet();
+        calls.increment();
+        if (outcome == DokuWikiMetrics.Outcome.FAULT) {
+            faults.increment();
+        } else if (outcome == DokuWikiMetrics.Outcome.ERROR) {
+            errors.increment();
+        }
+        totalNanos.add(durationNanos);
+        maxNanos.accumulateAndGet(durationNanos, Math::max);
+        if (requestBytes > 0) {
+            this.requestBytes.add(requestBytes);
+        }
+        if (responseBytes > 0) {
+            this.responseBytes.add(responseBytes);
+        }
+        var millis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        int bucket = 0;
+        while ((bucket < BUCKET_BOUNDS_MILLIS.length) && (millis >= BUCKET_BOUNDS_MILLIS[bucket])) {
+            bucket++;
+        }
+        latencyBuckets.incrementAndGet(bucket);
+    }
+
+    /**
+     * @return name of Xml-Rpc method
+     */
+    @Nonnull
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return number of completed calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return number of calls that ended with fault returned by wiki
+     */
+    public long getFaults() {
+        return faults.sum();
+    }
+
+    /**
+     * @return number of calls that failed because of network, protocol or parsing error
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return number of calls currently in progress
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return total time spent in completed calls
+     */
+    @Nonnull
+    public Duration getTotalTime() {
+        return Duration.ofNanos(totalNanos.sum());
+    }
+
+    /**
+     * @return mean duration of call, zero if there were no calls
+     */
+    @Nonnull
+    public Duration getMeanLatency() {
+        var count = calls.sum();
+        return (count == 0) ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / count);
+    }
+
+    /**
+     * @return duration of longest call
+     */
+    @Nonnull
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxNanos.get());
+    }
+
+    /**
+     * Approximate latency percentile, using upper bound of histogram bucket percentile falls into. For last
+     * (unbounded) bucket, maximal latency is returned
+     *
+     * @param percentile is requested percentile, between 0 and 1 (e.g. 0.99)
+     * @return duration not exceeded by given fraction of calls
+     */
+    @Nonnull
+    public Duration getLatencyPercentile(double percentile) {
+        if ((percentile < 0) || (percentile > 1)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1, " + percentile + " supplied");
+        }
+        long total = 0;
+        var counts = new long[latencyBuckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencyBuckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        var threshold = (long) Math.ceil(percentile * total);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+            cumulative += counts[i];
+            if ((cumulative >= threshold) && (cumulative > 0)) {
+                return Duration.ofMillis(BUCKET_BOUNDS_MILLIS[i]);
+            }
+        }
+        return getMaxLatency();
+    }
+
+    /**
+     * @return total size of request bodies in bytes, for calls where it is known
+     */
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    /**
+     * @return total size of response bodies in bytes, for calls where it is known
+     */
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "MethodStatistics{" +
+                "method='" + method + '\'' +
+                ", calls=" + getCalls() +
+                ", faults=" + getFaults() +
+                ", errors=" + getErrors() +
+                ", inFlight=" + getInFlight() +
+                ", totalTime=" + getTotalTime() +
+                ", mean=" + getMeanLatency() +
+                ", p99=" + getLatencyPercentile(0.99) +
+                ", max=" + getMaxLatency() +
+                ", requestBytes=" + getRequestBytes() +
+                ", responseBytes=" + getResponseBytes() +
+                '}';
+    }
+}
@@ -0,0 +1,95 @@
+package com.provys.dokuwiki;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metrics implementation publishing measurements to Micrometer registry. Micrometer is optional dependency of this
+ * library; application using this class must have micrometer-core on its classpath. Meters are tagged by Xml-Rpc
+ * method; call timer is further tagged by outcome, thus it provides fault and error counts as well:
+ * <ul>
+ *     <li>dokuwiki.client.calls - timer of calls, tags method and outcome</li>
+ *     <li>dokuwiki.client.calls.inflight - gauge of calls in progress, tag method</li>
+ *     <li>dokuwiki.client.request.size - distribution of request body sizes in bytes, tag method</li>
+ *     <li>dokuwiki.client.response.size - distribution of response body sizes in bytes, tag method</li>
+ * </ul>
+ */
+@SuppressWarnings("WeakerAccess") // MicrometerDokuWikiMetrics is published library class
+public final class MicrometerDokuWikiMetrics implements DokuWikiMetrics {
+
+    @Nonnull
+    private final MeterRegistry registry;
+    /** counters of calls in flight, registered as gauges */
+    @Nonnull
+    private final ConcurrentHashMap<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Create metrics publishing to given registry.
+     *
+     * @param registry is registry meters are registered in
+     */
+    public MicrometerDokuWikiMetrics(MeterRegistry registry) {
+        this.registry = Objects.requireNonNull(registry);
+    }
+
+    @Nonnull
+    private AtomicInteger getInFlight(String method) {
+        return inFlight.computeIfAbsent(method, key -> {
+            var counter = new AtomicInteger();
+            Gauge.builder("dokuwiki.client.calls.inflight", counter, AtomicInteger::get)
+                    .description("Xml-Rpc calls in progress")
+                    .tag("method", key)
+                    .register(registry);
+            return counter;
+        });
+    }
+
+    @Override
+    public void callStarted(String method) {
+        getInFlight(method).incrementAndGet();
+    }
+
+    @Override
+    public void callCompleted(String method, Outcome outcome, long durationNanos, long requestBytes,
+                              long responseBytes) {
+        getInFlight(method).decrementAndGet();
+        Timer.builder("dokuwiki.client.calls")
+                .description("Xml-Rpc calls")
+                .tag("method", method)
+                .tag("outcome", outcome.name())
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        if (requestBytes >= 0) {
+            DistributionSummary.builder("dokuwiki.client.request.size")
+                    .description("Size of Xml-Rpc request bodies")
+                    .baseUnit("bytes")
+                    .tag("method", method)
+                    .register(registry)
+                    .record(requestBytes);
+        }
+        if (responseBytes >= 0) {
+            DistributionSummary.builder("dokuwiki.client.response.size")
+                    .description("Size of Xml-Rpc response bodies")
+                    .baseUnit("bytes")
+                    .tag("method", method)
+                    .register(registry)
+                    .record(responseBytes);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MicrometerDokuWikiMetrics{" +
+                "registry=" + registry +
+                '}';
+    }
+}
@@ -0,0 +1,619 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * DokuWiki client that keeps local replica of pages and attachments in given namespace and serves reads of these pages
+ * and attachments from local disk, without any call to wiki. Replica is updated by {@link #refresh()}, that compares
+ * page revisions and attachment modification times from wiki listings with replicated ones and only retrieves content
+ * that has changed; application is expected to call it periodically or when notified about change.
+ * <p>
+ * Content is stored in content-addressed files (named by SHA-256 digest of content) under objects subdirectory of
+ * mirror directory, thus identical content is stored only once; index of mirrored pages and attachments is kept in
+ * index file. Mirror is persistent - new client created on the same directory serves reads from replica created by
+ * previous instance, even if wiki is not accessible.
+ * <p>
+ * Pages and attachments written via this client are read from wiki until next refresh. Changes made by other clients
+ * (or via {@link DokuWikiBatch}) are not visible before next refresh. Reads outside mirrored namespace, reads of items
+ * missing in replica, as well as all reads before first refresh, are delegated to wiki. Ids and namespace are
+ * canonicalized the same way wiki does (see {@link PageId#canonicalize}).
+ */
+@SuppressWarnings("WeakerAccess") // MirroringDokuWikiClient is published library class
+public class MirroringDokuWikiClient extends DokuWikiClient {
+
+    /** name of index file in mirror directory */
+    private static final String INDEX_FILE = "mirror.index";
+    /** name of directory with content files */
+    private static final String OBJECTS_DIRECTORY = "objects";
+
+    /** directory holding replica */
+    @Nonnull
+    private final Path directory;
+    /** mirrored namespace; empty string if whole wiki is mirrored */
+    @Nonnull
+    private final String namespace;
+    /** mirrored pages, indexed by page id */
+    @Nonnull
+    private final Map<String, Entry> pages = new ConcurrentHashMap<>();
+    /** mirrored attachments, indexed by attachment id */
+    @Nonnull
+    private final Map<String, Entry> attachments = new ConcurrentHashMap<>();
+    /**
+     * Pages and attachments written via this client since last refresh; value is sequence number of write, allowing to
+     * only clear marks for writes done before refresh retrieved listing
+     */
+    @Nonnull
+    private final Map<String, Long> stale = new ConcurrentHashMap<>();
+    @Nonnull
+    private final AtomicLong writeSequence = new AtomicLong();
+    /** guards refresh of replica */
+    private final Object refreshLock = new Object();
+    /** time of last successful refresh; null if replica has never been refreshed */
+    @Nullable
+    private volatile Instant lastRefresh;
+
+    /**
+     * Create new mirroring DokuWiki client instance. If directory contains replica created by previous instance, it is
+     * loaded and used to serve reads.
+     *
+     * @param url is url used to access xml-rpc endpoint of DokuWiki
+     * @param userName used to login to wiki
+     * @param password used to login to wiki
+     * @param directory is directory replica is kept in; it is created if it does not exist
+     * @param namespace is namespace to be mirrored; empty string to mirror whole wiki
+     */
+    public MirroringDokuWikiClient(String url, String userName, String password, Path directory, String namespace) {
+        super(url, userName, password);
+        this.directory = Objects.requireNonNull(directory);
+        this.namespace = normalizeNamespace(namespace);
+        load();
+    }
+
+    /**
+     * Create new mirroring DokuWiki client instance, sending all calls via supplied transport. If directory contains
+     * replica created by previous instance, it is loaded and used to serve reads.
+     *
+     * @param transport is transport used to deliver calls to wiki
+     * @param directory is directory replica is kept in; it is created if it does not exist
+     * @param namespace is namespace to be mirrored; empty string to mirror whole wiki
+     */
+    public MirroringDokuWikiClient(DokuWikiTransport transport, Path directory, String namespace) {
+        super(transport);
+        this.directory = Objects.requireNonNull(directory);
+        this.namespace = normalizeNamespace(namespace);
+        load();
+    }
+
+    @Nonnull
+    private static String normalizeNamespace(String namespace) {
+        return PageId.canonicalize(namespace);
+    }
+
+    /**
+     * @return directory replica is kept in
+     */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return mirrored namespace; empty string if whole wiki is mirrored
+     */
+    @Nonnull
+    public String getNamespace() {
+        return namespace;
+    }
+
+    /**
+     * @return time of last successful refresh, possibly done by previous instance working with the same directory;
+     * null if replica has never been refreshed
+     */
+    @Nullable
+    public Instant getLastRefresh() {
+        return lastRefresh;
+    }
+
+    /**
+     * @return number of pages in replica
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * @return number of attachments in replica
+     */
+    public int getAttachmentCount() {
+        return attachments.size();
+    }
+
+    /**
+     * @param id is id of page or attachment; it is canonicalized the same way wiki does
+     * @return true if given page or attachment belongs to mirrored namespace
+     */
+    public boolean isMirrored(String id) {
+        return isMirroredCanonical(PageId.canonicalize(id));
+    }
+
+    private boolean isMirroredCanonical(String canonicalId) {
+        return namespace.isEmpty() || canonicalId.startsWith(namespace + ':');
+    }
+
+    /**
+     * @param canonicalId is canonical id of page or attachment
+     * @return true if read of given item can be served from replica
+     */
+    private boolean isLocal(String canonicalId) {
+        return (lastRefresh != null) && isMirroredCanonical(canonicalId) && !stale.containsKey(canonicalId);
+    }
+
+    // --- persistence ---
+
+    @Nonnull
+    private Path getIndexFile() {
+        return directory.resolve(INDEX_FILE);
+    }
+
+    @Nonnull
+    private Path getObjectFile(String digest) {
+        return directory.resolve(OBJECTS_DIRECTORY).resolve(digest.substring(0, 2)).resolve(digest);
+    }
+
+    private void load() {
+        var indexFile = getIndexFile();
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        try {
+            var lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+            for (var line : lines) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                var fields = line.split("\t");
+                if ((fields.length == 3) && fields[0].equals("namespace")) {
+                    if (!fields[1].equals(namespace)) {
+                        throw new IllegalArgumentException("Mirror in " + directory + " replicates namespace "
+                                + fields[1] + ", not " + namespace);
+                    }
+                    lastRefresh = Instant.ofEpochMilli(Long.parseLong(fields[2]));
+                } else if ((fields.length == 5) && fields[0].equals("page")) {
+                    pages.put(fields[1], new Entry(Long.parseLong(fields[2]), Long.parseLong(fields[3]), fields[4]));
+                } else if ((fields.length == 5) && fields[0].equals("media")) {
+                    attachments.put(fields[1],
+                            new Entry(Long.parseLong(fields[2]), Long.parseLong(fields[3]), fields[4]));
+                } else {
+                    throw new IllegalArgumentException("Invalid mirror index line " + line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read mirror index " + indexFile, e);
+        }
+    }
+
+    private void save(Instant refreshTime) throws IOException {
+        var lines = new ArrayList<String>(pages.size() + attachments.size() + 1);
+        lines.add("namespace\t" + namespace + '\t' + refreshTime.toEpochMilli());
+        pages.forEach((id, entry) -> lines.add("page\t" + id + '\t' + entry.version + '\t' + entry.size + '\t'
+                + entry.digest));
+        attachments.forEach((id, entry) -> lines.add("media\t" + id + '\t' + entry.version + '\t' + entry.size + '\t'
+                + entry.digest));
+        var indexFile = getIndexFile();
+        var tempFile = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        Files.write(tempFile, lines, StandardCharsets.UTF_8);
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Move temporary file to content file with given digest; if such content is already stored, temporary file is
+     * simply removed
+     */
+    private void storeObject(Path tempFile, String digest) throws IOException {
+        var objectFile = getObjectFile(digest);
+        if (Files.exists(objectFile)) {
+            Files.delete(tempFile);
+            return;
+        }
+        Files.createDirectories(objectFile.getParent());
+        try {
+            Files.move(tempFile, objectFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.delete(tempFile);
+        }
+    }
+
+    /**
+     * Remove content files not referenced from index
+     */
+    private void collectGarbage() throws IOException {
+        var referenced = new HashSet<String>();
+        pages.values().forEach(entry -> referenced.add(entry.digest));
+        attachments.values().forEach(entry -> referenced.add(entry.digest));
+        var objects = directory.resolve(OBJECTS_DIRECTORY);
+        if (!Files.isDirectory(objects)) {
+            return;
+        }
+        List<Path> unreferenced;
+        try (Stream<Path> files = Files.walk(objects)) {
+            unreferenced = files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !referenced.contains(file.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+        for (var file : unreferenced) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // --- refresh ---
+
+    /**
+     * Synchronize replica with wiki, retrieving pages and attachments one by one. See {@link #refresh(int)}
+     *
+     * @return result with ids of retrieved pages and attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult refresh() {
+        return refresh(1);
+    }
+
+    /**
+     * Synchronize replica with wiki. Pages and attachments are listed, content of those that are new or whose
+     * revision / modification time and size differ from replicated ones is retrieved and items no longer present on
+     * wiki are removed from replica. Failure to retrieve single item does not prevent refresh of others; previous
+     * content of such item is kept. Failure to retrieve listing (e.g. when wiki is not accessible) leaves replica
+     * intact.
+     *
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     * @return result with ids of retrieved pages and attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult refresh(int parallelism) {
+        synchronized (refreshLock) {
+            var refreshTime = Instant.now();
+            var sequence = writeSequence.get();
+            var pageList = getPages(namespace, 0);
+            var attachmentList = getAttachments(namespace, 0);
+            try {
+                Files.createDirectories(directory.resolve(OBJECTS_DIRECTORY));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create mirror directory " + directory, e);
+            }
+            var executor = new BulkExecutor(parallelism);
+            // pages
+            var listedPages = new HashMap<String, PageListResult>(pageList.size());
+            var changedPages = new ArrayList<String>();
+            for (var page : pageList) {
+                listedPages.put(page.getId(), page);
+                var entry = pages.get(page.getId());
+                if ((entry == null) || (entry.version != page.getRev()) || stale.containsKey(page.getId())) {
+                    changedPages.add(page.getId());
+                }
+            }
+            pages.keySet().retainAll(listedPages.keySet());
+            var pageResult = executor.execute(changedPages, id -> refreshPage(listedPages.get(id)));
+            // attachments
+            var listedAttachments = new HashMap<String, AttachmentInfo>(attachmentList.size());
+            var changedAttachments = new ArrayList<String>();
+            for (var attachment : attachmentList) {
+                listedAttachments.put(attachment.getId(), attachment);
+                var entry = attachments.get(attachment.getId());
+                if ((entry == null) || (entry.version != attachment.getMtime()) || (entry.size != attachment.getSize())
+                        || stale.containsKey(attachment.getId())) {
+                    changedAttachments.add(attachment.getId());
+                }
+            }
+            attachments.keySet().retainAll(listedAttachments.keySet());
+            var attachmentResult = executor.execute(changedAttachments,
+                    id -> refreshAttachment(listedAttachments.get(id)));
+            try {
+                save(refreshTime);
+                collectGarbage();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write mirror index in " + directory, e);
+            }
+            lastRefresh = refreshTime;
+            // writes done before listing was retrieved are now reflected in replica
+            stale.values().removeIf(writeSeq -> writeSeq <= sequence);
+            var succeeded = new ArrayList<>(pageResult.getSucceeded());
+            succeeded.addAll(attachmentResult.getSucceeded());
+            var failed = new LinkedHashMap<>(pageResult.getFailed());
+            failed.putAll(attachmentResult.getFailed());
+            return new BulkOperationResult(succeeded, failed);
+        }
+    }
+
+    private void refreshPage(PageListResult page) {
+        var bytes = super.getPage(page.getId()).getBytes(StandardCharsets.UTF_8);
+        var digest = ContentDigest.of(bytes);
+        try {
+            var tempFile = Files.createTempFile(directory.resolve(OBJECTS_DIRECTORY), "page", ".part");
+            try {
+                Files.write(tempFile, bytes);
+                storeObject(tempFile, digest);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store page " + page.getId() + " in mirror " + directory, e);
+        }
+        pages.put(page.getId(), new Entry(page.getRev(), bytes.length, digest));
+    }
+
+    private void refreshAttachment(AttachmentInfo attachment) {
+        try {
+            var tempFile = Files.createTempFile(directory.resolve(OBJECTS_DIRECTORY), "media", ".part");
+            try {
+                long size;
+                try (var outputStream = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                    // streamed directly from wiki; overridden variants would read old content from replica
+                    size = super.getAttachment(attachment.getId(), outputStream);
+                }
+                var digest = ContentDigest.of(tempFile);
+                storeObject(tempFile, digest);
+                attachments.put(attachment.getId(), new Entry(attachment.getMtime(), size, digest));
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store attachment " + attachment.getId() + " in mirror "
+                    + directory, e);
+        }
+    }
+
+    /**
+     * Mark page or attachment written via this client; it is read from wiki until next refresh. Writes mark item both
+     * before and after write, as refresh running concurrently with write might clear mark set before write, with
+     * listing not yet reflecting the write
+     */
+    private void markStale(String id) {
+        var canonicalId = PageId.canonicalize(id);
+        if (isMirroredCanonical(canonicalId)) {
+            stale.put(canonicalId, writeSequence.incrementAndGet());
+        }
+    }
+
+    // --- reads ---
+
+    /**
+     * Get content of page from replica if page is in mirrored namespace, otherwise from wiki
+     *
+     * @param id is page name to be retrieved
+     * @return content of given page, empty string if page does not exist
+     */
+    @Nonnull
+    @Override
+    public String getPage(String id) {
+        var canonicalId = PageId.canonicalize(id);
+        // page missing in replica might have been created after refresh
+        var entry = isLocal(canonicalId) ? pages.get(canonicalId) : null;
+        if (entry != null) {
+            try {
+                return Files.readString(getObjectFile(entry.digest), StandardCharsets.UTF_8);
+            } catch (NoSuchFileException e) {
+                // content replaced by concurrent refresh
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read page " + id + " from mirror " + directory, e);
+            }
+        }
+        return super.getPage(id);
+    }
+
+    /**
+     * Get content of attachment from replica if attachment is in mirrored namespace, otherwise from wiki
+     *
+     * @param id is name of attachment we want to retrieve
+     * @return content of attachment
+     */
+    @Override
+    public byte[] getAttachment(String id) {
+        var canonicalId = PageId.canonicalize(id);
+        var entry = isLocal(canonicalId) ? attachments.get(canonicalId) : null;
+        if (entry != null) {
+            try {
+                return Files.readAllBytes(getObjectFile(entry.digest));
+            } catch (NoSuchFileException e) {
+                // content replaced by concurrent refresh
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read attachment " + id + " from mirror " + directory, e);
+            }
+        }
+        return super.getAttachment(id);
+    }
+
+    /**
+     * Open replicated content of attachment
+     *
+     * @return stream with content of attachment, null if attachment is not available in replica
+     */
+    @Nullable
+    private InputStream openAttachment(String id) {
+        var canonicalId = PageId.canonicalize(id);
+        var entry = isLocal(canonicalId) ? attachments.get(canonicalId) : null;
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return Files.newInputStream(getObjectFile(entry.digest));
+        } catch (NoSuchFileException e) {
+            // content replaced by concurrent refresh
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read attachment " + id + " from mirror " + directory, e);
+        }
+    }
+
+    /**
+     * Write content of attachment to output stream; content is read from replica if attachment is in mirrored
+     * namespace, otherwise it is streamed from wiki
+     *
+     * @param id is name of attachment we want to retrieve
+     * @param outputStream is stream content of attachment is written to; it is not closed by this method
+     * @return number of bytes written
+     */
+    @Override
+    public long getAttachment(String id, OutputStream outputStream) {
+        var inputStream = openAttachment(id);
+        if (inputStream != null) {
+            try (inputStream) {
+                return inputStream.transferTo(outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to copy attachment " + id + " from mirror " + directory, e);
+            }
+        }
+        return super.getAttachment(id, outputStream);
+    }
+
+    // --- writes ---
+
+    @Override
+    public void putPage(String id, String text, @Nullable String summary, @Nullable Boolean minor) {
+        markStale(id);
+        try {
+            super.putPage(id, text, summary, minor);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    /**
+     * Put page on wiki if its text differs from text of page on wiki. Page is marked stale before change detection,
+     * thus old text is compared with text on wiki, not with replica that might be outdated
+     */
+    @Override
+    public boolean putPage(String id, String text, @Nullable String summary, @Nullable Boolean minor,
+                           PageFingerprintStore fingerprints) {
+        markStale(id);
+        try {
+            return super.putPage(id, text, summary, minor, fingerprints);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    @Override
+    public void putAttachment(String id, byte[] file, boolean overwrite) {
+        markStale(id);
+        try {
+            super.putAttachment(id, file, overwrite);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    @Override
+    public void putAttachment(String id, InputStream inputStream, long length, boolean overwrite) {
+        markStale(id);
+        try {
+            super.putAttachment(id, inputStream, length, overwrite);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    @Override
+    public void putAttachment(String id, Path file, boolean overwrite) {
+        markStale(id);
+        try {
+            super.putAttachment(id, file, overwrite);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    @Override
+    public void putAttachment(String id, byte[] file, boolean overwrite, boolean onlyIfChanged) {
+        markStale(id);
+        try {
+            super.putAttachment(id, file, overwrite, onlyIfChanged);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    @Override
+    public boolean putAttachment(String id, byte[] file, boolean overwrite, AttachmentManifest manifest) {
+        markStale(id);
+        try {
+            return super.putAttachment(id, file, overwrite, manifest);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    @Override
+    public boolean putAttachment(String id, Path file, boolean overwrite, AttachmentManifest manifest) {
+        markStale(id);
+        try {
+            return super.putAttachment(id, file, overwrite, manifest);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    @Override
+    public void deleteAttachment(String id) {
+        markStale(id);
+        try {
+            super.deleteAttachment(id);
+        } finally {
+            markStale(id);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MirroringDokuWikiClient{" +
+                "directory=" + directory +
+                ", namespace='" + namespace + '\'' +
+                ", pages=" + pages.size() +
+                ", attachments=" + attachments.size() +
+                ", lastRefresh=" + lastRefresh +
+                ", " + super.toString() +
+                '}';
+    }
+
+    /**
+     * Replicated page or attachment
+     */
+    private static final class Entry {
+        /** revision of page or modification time of attachment */
+        private final long version;
+        /** size of content in bytes */
+        private final long size;
+        /** SHA-256 digest of content, identifying content file */
+        @Nonnull
+        private final String digest;
+
+        private Entry(long version, long size, String digest) {
+            this.version = version;
+            this.size = size;
+            this.digest = Objects.requireNonNull(digest);
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports namespace (pages and attachments, including their listing metadata) to zip archive and imports archive to
+ * namespace, possibly on different wiki or under different name. Content is transferred using parallel requests and
+ * streamed between wiki and local files; neither export nor import holds content of whole namespace in memory.
+ * <p>
+ * Archive contains manifest (first entry, {@value #MANIFEST_ENTRY}) with one tab-separated line per page (id, rev,
+ * mtime, size) and attachment (id, mtime, size, isimg), pages under pages/ and attachments under media/, with namespace
+ * separators translated to directory separators.
+ * <p>
+ * Export is transactional - content is first downloaded to staging directory next to archive and archive is only
+ * created (atomically, by moving completed file) when all items have been downloaded. If export fails, staging
+ * directory is kept and serves as checkpoint; repeated export only downloads items that are missing in staging
+ * directory or have changed since. Wiki does not support transactions, thus import writes items one by one; when
+ * checkpoint file is supplied, imported items are recorded in it and repeated import skips them.
+ */
+@SuppressWarnings("WeakerAccess")
+public class NamespaceArchiver {
+
+    /** name of manifest entry in archive */
+    public static final String MANIFEST_ENTRY = "manifest.txt";
+    /** directory of pages in archive */
+    private static final String PAGES_DIRECTORY = "pages/";
+    /** directory of attachments in archive */
+    private static final String MEDIA_DIRECTORY = "media/";
+    /** name of checkpoint file in staging directory */
+    private static final String STAGING_CHECKPOINT = "checkpoint.txt";
+
+    /** client used to access wiki */
+    @Nonnull
+    private final DokuWikiClient client;
+    /** maximal number of requests sent to wiki in parallel */
+    private final int parallelism;
+
+    /**
+     * Create archiver.
+     *
+     * @param client is client used to access wiki
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     */
+    public NamespaceArchiver(DokuWikiClient client, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, " + parallelism + " supplied");
+        }
+        this.client = Objects.requireNonNull(client);
+        this.parallelism = parallelism;
+    }
+
+    @Nonnull
+    private static String getPageEntry(String id) {
+        return PAGES_DIRECTORY + id.replace(':', '/') + ".txt";
+    }
+
+    @Nonnull
+    private static String getMediaEntry(String id) {
+        return MEDIA_DIRECTORY + id.replace(':', '/');
+    }
+
+    @Nonnull
+    private static String getManifestLine(PageListResult page) {
+        return "page\t" + page.getId() + '\t' + page.getRev() + '\t' + page.getMtime() + '\t' + page.getSize();
+    }
+
+    @Nonnull
+    private static String getManifestLine(AttachmentInfo attachment) {
+        return "media\t" + attachment.getId() + '\t' + attachment.getMtime() + '\t' + attachment.getSize() + '\t'
+                + Boolean.TRUE.equals(attachment.getImg());
+    }
+
+    /**
+     * Append-only file recording processed items, one line per item. Thread safe
+     */
+    private static final class Checkpoint implements AutoCloseable {
+
+        @Nonnull
+        private final Set<String> lines = new HashSet<>();
+        @Nonnull
+        private final Writer writer;
+
+        private Checkpoint(Path file) throws IOException {
+            if (Files.exists(file)) {
+                lines.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+            }
+            this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8));
+        }
+
+        private synchronized boolean contains(String line) {
+            return lines.contains(line);
+        }
+
+        private synchronized void record(String line) {
+            try {
+                writer.write(line);
+                writer.write('\n');
+                // flushed after each item, so progress survives crash
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write checkpoint", e);
+            }
+            lines.add(line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    // --- export ---
+
+    /**
+     * @return staging directory used when exporting to given archive
+     */
+    @Nonnull
+    private static Path getStagingDirectory(Path archive) {
+        return archive.toAbsolutePath().resolveSibling(archive.getFileName() + ".staging");
+    }
+
+    /**
+     * Export namespace to archive. Pages and attachments are listed (metadata only) and downloaded in parallel to
+     * staging directory; archive is created when all items have been downloaded. If any item fails, archive is not
+     * created and staging directory is kept; repeated call continues from where the failed one ended
+     *
+     * @param namespace is namespace to be exported; empty string exports whole wiki. Namespace is canonicalized
+     * @param archive is path of zip archive to be created; existing file is replaced
+     * @return result with ids of exported pages and attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult exportNamespace(String namespace, Path archive) {
+        // ids in listing are canonical, namespace written to manifest must be canonical too
+        var source = PageId.canonicalize(namespace);
+        // single unbounded listing gives metadata of all items; crawl would end up listing the same items again
+        var pages = client.getPages(source, 0).stream()
+                .sorted(Comparator.comparing(PageListResult::getId))
+                .collect(Collectors.toList());
+        var attachments = client.getAttachments(source, 0).stream()
+                .sorted(Comparator.comparing(AttachmentInfo::getId))
+                .collect(Collectors.toList());
+        var staging = getStagingDirectory(archive);
+        BulkOperationResult result;
+        try {
+            Files.createDirectories(staging);
+            try (var checkpoint = new Checkpoint(staging.resolve(STAGING_CHECKPOINT))) {
+                var executor = new BulkExecutor(parallelism);
+                var pagesById = new LinkedHashMap<String, PageListResult>();
+                pages.forEach(page -> pagesById.put(page.getId(), page));
+                result = executor.execute(new ArrayList<>(pagesById.keySet()),
+                        id -> exportPage(pagesById.get(id), staging, checkpoint));
+                var attachmentsById = new LinkedHashMap<String, AttachmentInfo>();
+                attachments.forEach(attachment -> attachmentsById.put(attachment.getId(), attachment));
+                result = result.merge(executor.execute(new ArrayList<>(attachmentsById.keySet()),
+                        id -> exportAttachment(attachmentsById.get(id), staging, checkpoint)));
+            }
+            if (result.isSuccess()) {
+                writeArchive(source, pages, attachments, staging, archive);
+                deleteRecursively(staging);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export namespace " + namespace + " to " + archive, e);
+        }
+        return result;
+    }
+
+    private void exportPage(PageListResult page, Path staging, Checkpoint checkpoint) {
+        var line = getManifestLine(page);
+        var file = staging.resolve(getPageEntry(page.getId()));
+        if (checkpoint.contains(line) && Files.exists(file)) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            var tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".part");
+            try {
+                Files.writeString(tempFile, client.getPage(page.getId()), StandardCharsets.UTF_8);
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write page " + page.getId() + " to " + file, e);
+        }
+        checkpoint.record(line);
+    }
+
+    private void exportAttachment(AttachmentInfo attachment, Path staging, Checkpoint checkpoint) {
+        var line = getManifestLine(attachment);
+        var file = staging.resolve(getMediaEntry(attachment.getId()));
+        if (checkpoint.contains(line) && Files.exists(file)) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create directory " + file.getParent(), e);
+        }
+        // streamed to temporary file and moved to target when complete
+        client.getAttachment(attachment.getId(), file);
+        checkpoint.record(line);
+    }
+
+    private static void writeArchive(String namespace, List<PageListResult> pages, List<AttachmentInfo> attachments,
+                                     Path staging, Path archive) throws IOException {
+        var tempFile = archive.toAbsolutePath().resolveSibling(archive.getFileName() + ".part");
+        try {
+            try (var zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+                var manifest = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+                manifest.write("namespace\t" + namespace + '\n');
+                for (var page : pages) {
+                    manifest.write(getManifestLine(page) + '\n');
+                }
+                for (var attachment : attachments) {
+                    manifest.write(getManifestLine(attachment) + '\n');
+                }
+                // flush, but do not close underlying zip stream
+                manifest.flush();
+                zip.closeEntry();
+                for (var page : pages) {
+                    addEntry(zip, getPageEntry(page.getId()), staging);
+                }
+                for (var attachment : attachments) {
+                    addEntry(zip, getMediaEntry(attachment.getId()), staging);
+                }
+            }
+            Files.move(tempFile, archive, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void addEntry(ZipOutputStream zip, String name, Path staging) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        Files.copy(staging.resolve(name), zip);
+        zip.closeEntry();
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (var path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    // --- import ---
+
+    /**
+     * Import archive to namespace, without checkpoint. See {@link #importNamespace(Path, String, Path)}
+     *
+     * @param archive is zip archive created by {@link #exportNamespace(String, Path)}
+     * @param namespace is namespace content is imported to
+     * @return result with ids of imported pages and attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult importNamespace(Path archive, String namespace) {
+        return importNamespace(archive, namespace, null);
+    }
+
+    /**
+     * Import archive to namespace. Pages and attachments from exported namespace are written to target namespace
+     * (keeping their relative names), existing pages and attachments are overwritten; pages and attachments that are
+     * in target namespace but not in archive are left intact. Archive is validated before anything is written to
+     * wiki. Items are written in parallel, attachments first; failure of one item does not prevent import of others
+     *
+     * @param archive is zip archive created by {@link #exportNamespace(String, Path)}
+     * @param namespace is namespace content is imported to; empty string for root namespace. Namespace is
+     *                  canonicalized
+     * @param checkpoint is file imported items are recorded in; items recorded in it by previous (failed) import are
+     *                   skipped. Checkpoint file is removed when import succeeds. Null if import should not be
+     *                   resumable
+     * @return result with ids (in target namespace) of imported pages and attachments and failures
+     */
+    @Nonnull
+    public BulkOperationResult importNamespace(Path archive, String namespace, @Nullable Path checkpoint) {
+        var target = PageId.canonicalize(namespace);
+        try (var zip = new ZipFile(archive.toFile(), StandardCharsets.UTF_8)) {
+            var manifest = readManifest(zip, archive);
+            var source = manifest.get(0)[1];
+            var pages = new LinkedHashMap<String, String[]>();
+            var attachments = new LinkedHashMap<String, String[]>();
+            for (var fields : manifest.subList(1, manifest.size())) {
+                var id = translateId(fields[1], source, target);
+                if (fields[0].equals("page")) {
+                    pages.put(id, fields);
+                } else {
+                    attachments.put(id, fields);
+                }
+            }
+            Checkpoint importCheckpoint = (checkpoint == null) ? null : new Checkpoint(checkpoint);
+            BulkOperationResult result;
+            try {
+                var executor = new BulkExecutor(parallelism);
+                result = executor.execute(new ArrayList<>(attachments.keySet()),
+                        id -> importItem(zip, id, attachments.get(id), importCheckpoint));
+                result = result.merge(executor.execute(new ArrayList<>(pages.keySet()),
+                        id -> importItem(zip, id, pages.get(id), importCheckpoint)));
+            } finally {
+                if (importCheckpoint != null) {
+                    importCheckpoint.close();
+                }
+            }
+            if (result.isSuccess() && (checkpoint != null)) {
+                Files.deleteIfExists(checkpoint);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to import archive " + archive + " to namespace " + namespace, e);
+        }
+    }
+
+    /**
+     * Read manifest and verify that archive contains all entries listed in it
+     *
+     * @return list of manifest lines split to fields; first line is namespace header
+     */
+    @Nonnull
+    private static List<String[]> readManifest(ZipFile zip, Path archive) throws IOException {
+        var manifestEntry = zip.getEntry(MANIFEST_ENTRY);
+        if (manifestEntry == null) {
+            throw new IOException("Archive " + archive + " does not contain manifest");
+        }
+        var result = new ArrayList<String[]>();
+        try (var reader = new BufferedReader(new InputStreamReader(zip.getInputStream(manifestEntry),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    result.add(line.split("\t", -1));
+                }
+            }
+        }
+        if (result.isEmpty() || !result.get(0)[0].equals("namespace") || (result.get(0).length != 2)) {
+            throw new IOException("Invalid manifest header in archive " + archive);
+        }
+        var source = result.get(0)[1];
+        for (var fields : result.subList(1, result.size())) {
+            if ((fields.length > 1) && !source.isEmpty() && !fields[1].startsWith(source + ':')) {
+                throw new IOException("Item " + fields[1] + " in archive " + archive + " is not in exported namespace "
+                        + source);
+            }
+            String entryName;
+            if (fields[0].equals("page") && (fields.length == 5)) {
+                entryName = getPageEntry(fields[1]);
+            } else if (fields[0].equals("media") && (fields.length == 5)) {
+                entryName = getMediaEntry(fields[1]);
+            } else {
+                throw new IOException("Invalid manifest line " + String.join("\t", fields) + " in archive "
+                        + archive);
+            }
+            if (zip.getEntry(entryName) == null) {
+                throw new IOException("Archive " + archive + " does not contain entry " + entryName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Translate id from exported namespace to target namespace
+     */
+    @Nonnull
+    private static String translateId(String id, String source, String target) {
+        var relative = source.isEmpty() ? id : id.substring(source.length() + 1);
+        return target.isEmpty() ? relative : target + ':' + relative;
+    }
+
+    private void importItem(ZipFile zip, String id, String[] fields, @Nullable Checkpoint checkpoint) {
+        var line = fields[0] + '\t' + id;
+        if ((checkpoint != null) && checkpoint.contains(line)) {
+            return;
+        }
+        var page = fields[0].equals("page");
+        var entry = zip.getEntry(page ? getPageEntry(fields[1]) : getMediaEntry(fields[1]));
+        try (var inputStream = zip.getInputStream(entry)) {
+            if (page) {
+                client.putPage(id, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            } else {
+                client.putAttachment(id, inputStream, entry.getSize(), true);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + entry.getName() + " from archive", e);
+        }
+        if (checkpoint != null) {
+            checkpoint.record(line);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NamespaceArchiver{" +
+                "client=" + client +
+                ", parallelism=" + parallelism +
+                '}';
+    }
+}
@@ -0,0 +1,289 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lists pages or attachments in namespace tree level by level, instead of retrieving whole subtree in single request.
+ * Each namespace is listed with depth limited to its own level plus lookahead; items directly in namespace are
+ * emitted, items on deeper levels are only used to discover child namespaces, that are then listed in parallel. Thus no
+ * request has to traverse whole subtree on wiki side and response size is bounded by size of namespace and its
+ * immediate children.
+ * <p>
+ * As wiki does not list namespaces, child namespace is only discovered if it (or its descendant within lookahead)
+ * contains item. This is limitation of level by level crawl: branch whose shallowest item lies more than lookahead
+ * levels below nearest namespace containing item is not found. Larger lookahead makes such branches less likely at
+ * the cost of larger level listings. If completeness is required, sweep can be requested - crawled namespace is then
+ * also listed once without depth limit, in parallel with level listings, and items found only by sweep are emitted
+ * when it completes. Sweep is the very request crawl otherwise avoids and it can time out on huge namespaces; if it
+ * fails, crawl fails. Each item is emitted once, even though it might be retrieved by multiple listings.
+ *
+ * @param <T> is type of listed items
+ */
+final class NamespaceCrawler<T> {
+
+    /** default number of levels below namespace used to discover child namespaces */
+    static final int DEFAULT_LOOKAHEAD = 1;
+
+    /**
+     * Function listing items in namespace up to given depth
+     *
+     * @param <T> is type of listed items
+     */
+    @FunctionalInterface
+    interface Lister<T> {
+        /**
+         * @param namespace is namespace to be listed
+         * @param depth is maximal depth; absolute value, root is 1
+         * @return items in namespace up to given depth
+         */
+        @Nonnull
+        List<T> list(String namespace, int depth);
+    }
+
+    /** marks end of crawl in result queue */
+    private static final Object END = new Object();
+
+    /** failure of namespace listing, passed via result queue */
+    private static final class Failure {
+        private final RuntimeException exception;
+
+        private Failure(RuntimeException exception) {
+            this.exception = exception;
+        }
+    }
+
+    @Nonnull
+    private final Lister<T> lister;
+    @Nonnull
+    private final Function<T, String> idGetter;
+    /** maximal number of listing requests running in parallel */
+    private final int parallelism;
+    /** number of levels below namespace used to discover child namespaces */
+    private final int lookahead;
+    /** if true, namespace is also listed without depth limit to find branches deeper than lookahead */
+    private final boolean sweep;
+
+    /**
+     * Create crawler.
+     *
+     * @param lister is function listing items in namespace up to given depth
+     * @param idGetter retrieves id from item
+     * @param parallelism is maximal number of listing requests sent to wiki in parallel
+     * @param lookahead is number of levels below namespace used to discover child namespaces
+     * @param sweep if true, namespace is also listed without depth limit to find branches deeper than lookahead
+     */
+    NamespaceCrawler(Lister<T> lister, Function<T, String> idGetter, int parallelism, int lookahead,
+                     boolean sweep) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, " + parallelism + " supplied");
+        }
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("Lookahead must be positive, " + lookahead + " supplied");
+        }
+        this.lister = Objects.requireNonNull(lister);
+        this.idGetter = Objects.requireNonNull(idGetter);
+        this.parallelism = parallelism;
+        this.lookahead = lookahead;
+        this.sweep = sweep;
+    }
+
+    /**
+     * @param namespace is namespace without leading and trailing colon
+     * @return depth of items directly in namespace; root is 1
+     */
+    private static int getLevel(String namespace) {
+        if (namespace.isEmpty()) {
+            return 1;
+        }
+        int level = 2;
+        for (int pos = 0; pos < namespace.length(); pos++) {
+            if (namespace.charAt(pos) == ':') {
+                level++;
+            }
+        }
+        return level;
+    }
+
+    /**
+     * @return position of n-th colon in id, -1 if id has less colons
+     */
+    private static int indexOfColon(String id, int n) {
+        int pos = -1;
+        for (int i = 0; i < n; i++) {
+            pos = id.indexOf(':', pos + 1);
+            if (pos < 0) {
+                return -1;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * State of single crawl
+     */
+    private final class Crawl {
+        private final ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                BulkExecutor.daemonThreadFactory("dokuwiki-crawl"));
+        /** queue with listed items, failures and end marker */
+        private final BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+        /** ids of items already put to result queue */
+        private final Set<String> emitted = ConcurrentHashMap.newKeySet();
+        /** number of listings submitted and not finished yet */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private void submit(Runnable listing) {
+            pending.incrementAndGet();
+            try {
+                executor.execute(listing);
+            } catch (RejectedExecutionException e) {
+                // crawl has been cancelled
+                pending.decrementAndGet();
+            }
+        }
+
+        private void emit(T item) {
+            if (emitted.add(idGetter.apply(item))) {
+                results.add(item);
+            }
+        }
+
+        private void finish() {
+            if (pending.decrementAndGet() == 0) {
+                results.add(END);
+            }
+        }
+
+        /**
+         * List whole subtree of namespace, to find items in branches level listings cannot discover
+         */
+        private void sweep(String namespace) {
+            try {
+                var prefix = namespace.isEmpty() ? "" : namespace + ':';
+                for (var item : lister.list(namespace, 0)) {
+                    if (idGetter.apply(item).startsWith(prefix)) {
+                        emit(item);
+                    }
+                }
+            } catch (RuntimeException e) {
+                results.add(new Failure(e));
+            } finally {
+                finish();
+            }
+        }
+
+        private void list(String namespace) {
+            try {
+                var level = getLevel(namespace);
+                var prefix = namespace.isEmpty() ? "" : namespace + ':';
+                var children = new LinkedHashSet<String>();
+                for (var item : lister.list(namespace, level + lookahead)) {
+                    var id = idGetter.apply(item);
+                    if (!id.startsWith(prefix)) {
+                        continue;
+                    }
+                    var childEnd = indexOfColon(id, level);
+                    if (childEnd < 0) {
+                        emit(item);
+                    } else {
+                        children.add(id.substring(0, childEnd));
+                    }
+                }
+                for (var child : children) {
+                    submit(() -> list(child));
+                }
+            } catch (RuntimeException e) {
+                results.add(new Failure(e));
+            } finally {
+                finish();
+            }
+        }
+    }
+
+    /**
+     * Crawl namespace and stream listed items as they arrive. Items are produced in order in which namespaces are
+     * listed, not in order of ids. Stream should be closed (e.g. using try-with-resources); closing it before it is
+     * consumed cancels listing of remaining namespaces
+     *
+     * @param namespace is namespace to be crawled; empty string for whole wiki
+     * @return stream of items in namespace and all its descendants
+     * @throws RuntimeException (when consuming stream) if listing of any namespace fails
+     */
+    @Nonnull
+    Stream<T> crawl(String namespace) {
+        var normalized = namespace;
+        while (normalized.startsWith(":")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith(":")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        var crawl = new Crawl();
+        var root = normalized;
+        if (sweep) {
+            // sweep is started first, as it is expected to take longest
+            crawl.submit(() -> crawl.sweep(root));
+        }
+        crawl.submit(() -> crawl.list(root));
+        var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.NONNULL | Spliterator.DISTINCT) {
+            private boolean finished = false;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (finished) {
+                    return false;
+                }
+                Object result;
+                try {
+                    result = crawl.results.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    crawl.executor.shutdownNow();
+                    throw new RuntimeException("Interrupted while crawling namespace " + namespace, e);
+                }
+                if (result == END) {
+                    finished = true;
+                    crawl.executor.shutdown();
+                    return false;
+                }
+                if (result instanceof Failure) {
+                    finished = true;
+                    crawl.executor.shutdownNow();
+                    throw ((Failure) result).exception;
+                }
+                @SuppressWarnings("unchecked")
+                var item = (T) result;
+                action.accept(item);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                .onClose(crawl.executor::shutdownNow);
+    }
+
+    @Override
+    public String toString() {
+        return "NamespaceCrawler{" +
+                "parallelism=" + parallelism +
+                ", lookahead=" + lookahead +
+                ", sweep=" + sweep +
+                '}';
+    }
+}
@@ -0,0 +1,304 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcFaultException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Client-side index of wiki namespace tree. Index is built from one page listing and one attachment listing of whole
+ * wiki and then answers namespace, page and attachment queries in memory, without calls to wiki. Namespaces are kept
+ * in trie keyed by namespace segments. Index can be refreshed incrementally from recent changes - cost of refresh
+ * depends on number of changes, not on size of wiki. Index is thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public class NamespaceIndex {
+
+    /** client used to retrieve listings */
+    @Nonnull
+    private final DokuWikiClient client;
+    /** parser used to normalize namespaces in queries */
+    @Nonnull
+    private final PageIdParser pageIdParser = new PageIdParser();
+    /** root of namespace trie */
+    @Nonnull
+    private Node root = new Node();
+    /** feed used for incremental refresh */
+    @Nullable
+    private ChangeFeed changeFeed;
+    private int pageCount;
+    private int attachmentCount;
+    @Nullable
+    private Instant builtAt;
+    @Nonnull
+    private Duration buildTime = Duration.ZERO;
+    @Nullable
+    private Instant refreshedAt;
+
+    /**
+     * Create and build index of whole wiki.
+     *
+     * @param client is client used to retrieve listings
+     * @return new index
+     */
+    @Nonnull
+    public static NamespaceIndex build(DokuWikiClient client) {
+        var index = new NamespaceIndex(client);
+        index.rebuild();
+        return index;
+    }
+
+    private NamespaceIndex(DokuWikiClient client) {
+        this.client = Objects.requireNonNull(client);
+    }
+
+    /**
+     * Rebuild index from scratch, using one page listing and one attachment listing of whole wiki
+     */
+    public synchronized void rebuild() {
+        var start = System.nanoTime();
+        var newRoot = new Node();
+        int newPageCount = 0;
+        int newAttachmentCount = 0;
+        int cursor = 0;
+        try (var pages = client.streamPages("", 0)) {
+            for (var page : (Iterable<PageListResult>) pages::iterator) {
+                if (newRoot.add(page.getId(), false)) {
+                    newPageCount++;
+                }
+                cursor = Math.max(cursor, page.getMtime());
+            }
+        }
+        try (var attachments = client.streamAttachments("", 0)) {
+            for (var attachment : (Iterable<AttachmentInfo>) attachments::iterator) {
+                if (newRoot.add(attachment.getId(), true)) {
+                    newAttachmentCount++;
+                }
+                cursor = Math.max(cursor, attachment.getMtime());
+            }
+        }
+        root = newRoot;
+        pageCount = newPageCount;
+        attachmentCount = newAttachmentCount;
+        changeFeed = client.newChangeFeed(cursor);
+        builtAt = Instant.now();
+        refreshedAt = builtAt;
+        buildTime = Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Refresh index using changes made on wiki since last build or refresh. Existence of each changed page or
+     * attachment is verified with wiki
+     *
+     * @return number of pages and attachments that were verified
+     */
+    public synchronized int refresh() {
+        var changed = new LinkedHashMap<String, Boolean>();
+        for (var change : Objects.requireNonNull(changeFeed).poll()) {
+            changed.put((change.isMedia() ? "m:" : "p:") + change.getId(), change.isMedia());
+        }
+        for (Map.Entry<String, Boolean> entry : changed.entrySet()) {
+            var media = entry.getValue();
+            var id = entry.getKey().substring(2);
+            if (media ? client.attachmentExists(id) : pageExists(id)) {
+                if (root.add(id, media)) {
+                    if (media) {
+                        attachmentCount++;
+                    } else {
+                        pageCount++;
+                    }
+                }
+            } else if (root.remove(id, media)) {
+                if (media) {
+                    attachmentCount--;
+                } else {
+                    pageCount--;
+                }
+            }
+        }
+        refreshedAt = Instant.now();
+        return changed.size();
+    }
+
+    private boolean pageExists(String id) {
+        try {
+            client.getPageInfo(id);
+            return true;
+        } catch (XmlRpcFaultException | DokuWikiFaultException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Find node corresponding to namespace
+     *
+     * @param namespace is namespace; leading and trailing colon is ignored
+     * @return node of namespace, null if namespace does not exist in index
+     */
+    @Nullable
+    private Node find(String namespace) {
+        var path = pageIdParser.trimNamespace(namespace);
+        var node = root;
+        int start = 0;
+        while ((node != null) && (start < path.length())) {
+            var end = path.indexOf(':', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            node = node.children.get(path.substring(start, end));
+            start = end + 1;
+        }
+        return node;
+    }
+
+    /**
+     * Get names of namespaces right bellow specified one. Unlike {@link DokuWikiClient#getNamespaceNames(String)},
+     * namespaces that only contain sub-namespaces or attachments are included too
+     *
+     * @param namespace is namespace search is done in
+     * @return list of names of namespaces one level bellow our namespace, in alphabetical order
+     */
+    @Nonnull
+    public synchronized List<String> getNamespaceNames(String namespace) {
+        var node = find(namespace);
+        return (node == null) ? List.of() : new ArrayList<>(node.children.keySet());
+    }
+
+    /**
+     * Get names of pages directly in namespace
+     *
+     * @param namespace is namespace in which search is done
+     * @return list of names of pages directly in given namespace, in alphabetical order
+     */
+    @Nonnull
+    public synchronized List<String> getPageNames(String namespace) {
+        var node = find(namespace);
+        return (node == null) ? List.of() : new ArrayList<>(node.pages);
+    }
+
+    /**
+     * Get names of attachments directly in namespace
+     *
+     * @param namespace is namespace we search attachments in
+     * @return list of filenames of attachments directly in given namespace, in alphabetical order
+     */
+    @Nonnull
+    public synchronized List<String> getAttachmentFileNames(String namespace) {
+        var node = find(namespace);
+        return (node == null) ? List.of() : new ArrayList<>(node.attachments);
+    }
+
+    /**
+     * @return number of pages in index
+     */
+    public synchronized int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * @return number of attachments in index
+     */
+    public synchronized int getAttachmentCount() {
+        return attachmentCount;
+    }
+
+    /**
+     * @return time when index was last built from scratch
+     */
+    @Nullable
+    public synchronized Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    /**
+     * @return duration of last build of index
+     */
+    @Nonnull
+    public synchronized Duration getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * @return time when index was last refreshed (or built)
+     */
+    @Nullable
+    public synchronized Instant getRefreshedAt() {
+        return refreshedAt;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "NamespaceIndex{" +
+                "pageCount=" + pageCount +
+                ", attachmentCount=" + attachmentCount +
+                ", builtAt=" + builtAt +
+                ", buildTime=" + buildTime +
+                ", refreshedAt=" + refreshedAt +
+                '}';
+    }
+
+    /**
+     * Node of namespace trie
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new TreeMap<>();
+        private final Set<String> pages = new TreeSet<>();
+        private final Set<String> attachments = new TreeSet<>();
+
+        private boolean isEmpty() {
+            return children.isEmpty() && pages.isEmpty() && attachments.isEmpty();
+        }
+
+        /**
+         * Add page or attachment to subtree
+         *
+         * @param id is id of page or attachment
+         * @param media indicates that id is id of attachment
+         * @return true if item has been added, false if it already was present
+         */
+        private boolean add(String id, boolean media) {
+            var node = this;
+            int start = 0;
+            int end;
+            while ((end = id.indexOf(':', start)) >= 0) {
+                node = node.children.computeIfAbsent(id.substring(start, end), segment -> new Node());
+                start = end + 1;
+            }
+            return (media ? node.attachments : node.pages).add(id.substring(start));
+        }
+
+        /**
+         * Remove page or attachment from subtree; namespaces left empty are removed as well
+         *
+         * @param id is id of page or attachment
+         * @param media indicates that id is id of attachment
+         * @return true if item has been removed, false if it was not present
+         */
+        private boolean remove(String id, boolean media) {
+            var end = id.indexOf(':');
+            if (end < 0) {
+                return (media ? attachments : pages).remove(id);
+            }
+            var segment = id.substring(0, end);
+            var child = children.get(segment);
+            if (child == null) {
+                return false;
+            }
+            var removed = child.remove(id.substring(end + 1), media);
+            if (child.isEmpty()) {
+                children.remove(segment);
+            }
+            return removed;
+        }
+    }
+}
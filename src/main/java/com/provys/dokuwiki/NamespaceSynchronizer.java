@@ -0,0 +1,425 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Synchronizes content of wiki namespace with local content (pages and attachments, collected from directory or
+ * supplied directly). Synchronisation is performed in two steps - first, plan is evaluated by comparing local content
+ * with listing of namespace on wiki; then only pages and attachments that differ are created, updated or deleted, using
+ * parallel requests. Pages and attachments on wiki that have no local counterpart are deleted. Change detection uses
+ * sizes from namespace listing and, if supplied, fingerprint store and attachment manifest; content is only retrieved
+ * from wiki if these are not sufficient to decide.
+ * <p>
+ * Local names are translated to ids the way wiki does it (see {@link PageId#canonicalize(String)}), e.g. local page
+ * "My Page" corresponds to page my_page on wiki, and text of local pages is cleaned the way wiki cleans saved text, so
+ * page written by synchronizer is considered unchanged by the next synchronisation.
+ */
+@SuppressWarnings("WeakerAccess")
+public class NamespaceSynchronizer {
+
+    /** client used to access wiki */
+    @Nonnull
+    private final DokuWikiClient client;
+    /** namespace being synchronized */
+    @Nonnull
+    private final String namespace;
+    /** maximal number of requests sent to wiki in parallel */
+    private final int parallelism;
+    /** store of fingerprints of pages; null if not used */
+    @Nullable
+    private final PageFingerprintStore fingerprints;
+    /** manifest of attachments; null if not used */
+    @Nullable
+    private final AttachmentManifest manifest;
+    /** local pages, by page id */
+    @Nonnull
+    private final Map<String, String> pages = new LinkedHashMap<>();
+    /** local attachments, by attachment id */
+    @Nonnull
+    private final Map<String, LocalAttachment> attachments = new LinkedHashMap<>();
+
+    /**
+     * Create synchronizer without fingerprint store and attachment manifest.
+     *
+     * @param client is client used to access wiki
+     * @param namespace is namespace being synchronized
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     */
+    public NamespaceSynchronizer(DokuWikiClient client, String namespace, int parallelism) {
+        this(client, namespace, parallelism, null, null);
+    }
+
+    /**
+     * Create synchronizer.
+     *
+     * @param client is client used to access wiki
+     * @param namespace is namespace being synchronized
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     * @param fingerprints is store of fingerprints of pages; when supplied, it is used to detect unchanged pages and
+     *                     updated with written pages
+     * @param manifest is manifest of attachments; when supplied, it is used to detect unchanged attachments and updated
+     *                 with uploaded attachments
+     */
+    public NamespaceSynchronizer(DokuWikiClient client, String namespace, int parallelism,
+                                 @Nullable PageFingerprintStore fingerprints, @Nullable AttachmentManifest manifest) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, " + parallelism + " supplied");
+        }
+        this.client = Objects.requireNonNull(client);
+        this.namespace = PageId.canonicalize(namespace);
+        this.parallelism = parallelism;
+        this.fingerprints = fingerprints;
+        this.manifest = manifest;
+    }
+
+    @Nonnull
+    private String getId(String name) {
+        return PageId.canonicalize(namespace.isEmpty() ? name : namespace + ':' + name);
+    }
+
+    /**
+     * Add local page.
+     *
+     * @param name is name of page, relative to synchronized namespace (might contain sub-namespaces); it is
+     *             canonicalized the same way as wiki does it
+     * @param text is text of page; line endings and trailing whitespace are cleaned before comparison and upload
+     * @return self to support chaining
+     */
+    @Nonnull
+    public NamespaceSynchronizer addPage(String name, String text) {
+        pages.put(getId(name), DokuWikiClient.cleanText(text));
+        return this;
+    }
+
+    /**
+     * Add local attachment.
+     *
+     * @param name is name of attachment, relative to synchronized namespace (might contain sub-namespaces)
+     * @param content is content of attachment
+     * @return self to support chaining
+     */
+    @Nonnull
+    public NamespaceSynchronizer addAttachment(String name, byte[] content) {
+        attachments.put(getId(name), new ByteArrayAttachment(content));
+        return this;
+    }
+
+    /**
+     * Add local attachment, read from file. File is only read when it is needed for comparison or upload
+     *
+     * @param name is name of attachment, relative to synchronized namespace (might contain sub-namespaces)
+     * @param file is local file with attachment content
+     * @return self to support chaining
+     */
+    @Nonnull
+    public NamespaceSynchronizer addAttachment(String name, Path file) {
+        attachments.put(getId(name), new FileAttachment(file));
+        return this;
+    }
+
+    /**
+     * Add all files from directory tree. Directories are translated to sub-namespaces, files with extension .txt are
+     * considered pages (extension is removed from page name) and all other files are considered attachments, same as
+     * in DokuWiki's own data directory
+     *
+     * @param directory is root directory, corresponding to synchronized namespace
+     * @return self to support chaining
+     */
+    @Nonnull
+    public NamespaceSynchronizer addDirectory(Path directory) {
+        try (var files = Files.walk(directory)) {
+            for (var file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                var relative = directory.relativize(file);
+                var name = new StringBuilder();
+                for (var segment : relative) {
+                    if (name.length() > 0) {
+                        name.append(':');
+                    }
+                    name.append(segment);
+                }
+                var fileName = name.toString();
+                if (fileName.endsWith(".txt")) {
+                    addPage(fileName.substring(0, fileName.length() - 4),
+                            Files.readString(file, StandardCharsets.UTF_8));
+                } else {
+                    addAttachment(fileName, file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read directory " + directory, e);
+        }
+        return this;
+    }
+
+    /**
+     * Evaluate synchronisation plan - compare local content with content of namespace on wiki
+     *
+     * @return plan containing actions for pages and attachments that differ
+     */
+    @Nonnull
+    public SyncPlan plan() {
+        var actions = new ArrayList<SyncAction>();
+        int unchanged = planPages(actions);
+        unchanged += planAttachments(actions);
+        return new SyncPlan(actions, unchanged);
+    }
+
+    private int planPages(List<SyncAction> actions) {
+        var remotePages = client.getPages(namespace, 0).stream()
+                .collect(Collectors.toMap(page -> PageId.canonicalize(page.getId()), Function.identity()));
+        var toCompare = new ArrayList<String>();
+        int unchanged = 0;
+        for (var page : pages.entrySet()) {
+            var id = page.getKey();
+            var text = page.getValue();
+            var remote = remotePages.get(id);
+            if (remote == null) {
+                if (text.isEmpty()) {
+                    unchanged++;
+                } else {
+                    actions.add(new SyncAction(SyncAction.Type.CREATE_PAGE, id));
+                }
+            } else if ((fingerprints != null)
+                    && fingerprints.isUnchanged(id, remote.getRev(), ContentDigest.of(text))) {
+                unchanged++;
+            } else if (remote.getSize() != text.getBytes(StandardCharsets.UTF_8).length) {
+                actions.add(new SyncAction(SyncAction.Type.UPDATE_PAGE, id));
+            } else {
+                toCompare.add(id);
+            }
+        }
+        // pages with the same size have to be compared with content on wiki
+        Set<String> changed = ConcurrentHashMap.newKeySet();
+        var comparison = new BulkExecutor(parallelism).execute(toCompare, id -> {
+            var text = pages.get(id);
+            if (DokuWikiClient.cleanText(client.getPage(id)).equals(text)) {
+                if (fingerprints != null) {
+                    fingerprints.record(id, remotePages.get(id).getRev(), ContentDigest.of(text));
+                }
+            } else {
+                changed.add(id);
+            }
+        });
+        changed.addAll(comparison.getFailed().keySet());
+        for (var id : toCompare) {
+            if (changed.contains(id)) {
+                actions.add(new SyncAction(SyncAction.Type.UPDATE_PAGE, id));
+            } else {
+                unchanged++;
+            }
+        }
+        for (var id : remotePages.keySet()) {
+            if (!pages.containsKey(id)) {
+                actions.add(new SyncAction(SyncAction.Type.DELETE_PAGE, id));
+            }
+        }
+        return unchanged;
+    }
+
+    private int planAttachments(List<SyncAction> actions) {
+        var remoteAttachments = client.getAttachments(namespace, 0).stream()
+                .collect(Collectors.toMap(attachment -> PageId.canonicalize(attachment.getId()),
+                        Function.identity()));
+        var toCompare = new ArrayList<String>();
+        int unchanged = 0;
+        for (var attachment : attachments.entrySet()) {
+            var id = attachment.getKey();
+            var local = attachment.getValue();
+            var remote = remoteAttachments.get(id);
+            if (remote == null) {
+                actions.add(new SyncAction(SyncAction.Type.CREATE_ATTACHMENT, id));
+            } else if (remote.getSize() != local.getSize()) {
+                actions.add(new SyncAction(SyncAction.Type.UPDATE_ATTACHMENT, id));
+            } else if ((manifest != null)
+                    && manifest.isUnchanged(id, remote.getSize(), remote.getLastModified(), local.getDigest())) {
+                unchanged++;
+            } else {
+                toCompare.add(id);
+            }
+        }
+        Set<String> changed = ConcurrentHashMap.newKeySet();
+        var comparison = new BulkExecutor(parallelism).execute(toCompare, id -> {
+            var digest = attachments.get(id).getDigest();
+            if (client.getAttachmentDigest(id).equals(digest)) {
+                if (manifest != null) {
+                    var remote = remoteAttachments.get(id);
+                    manifest.record(id, remote.getSize(), remote.getLastModified(), digest);
+                }
+            } else {
+                changed.add(id);
+            }
+        });
+        changed.addAll(comparison.getFailed().keySet());
+        for (var id : toCompare) {
+            if (changed.contains(id)) {
+                actions.add(new SyncAction(SyncAction.Type.UPDATE_ATTACHMENT, id));
+            } else {
+                unchanged++;
+            }
+        }
+        for (var id : remoteAttachments.keySet()) {
+            if (!attachments.containsKey(id)) {
+                actions.add(new SyncAction(SyncAction.Type.DELETE_ATTACHMENT, id));
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * Execute synchronisation plan. Attachments are written first, then pages; after that, pages and finally
+     * attachments missing in local content are removed (attachments referenced from existing pages cannot be removed).
+     * Failure of one action does not prevent execution of other actions
+     *
+     * @param plan is plan to be executed; it should have been evaluated by this synchronizer
+     * @return result with ids of pages and attachments processed successfully and failures
+     */
+    @Nonnull
+    public BulkOperationResult execute(SyncPlan plan) {
+        var executor = new BulkExecutor(parallelism);
+        var attachmentWrites = new ArrayList<>(plan.getIds(SyncAction.Type.CREATE_ATTACHMENT));
+        attachmentWrites.addAll(plan.getIds(SyncAction.Type.UPDATE_ATTACHMENT));
+        var pageWrites = new ArrayList<>(plan.getIds(SyncAction.Type.CREATE_PAGE));
+        pageWrites.addAll(plan.getIds(SyncAction.Type.UPDATE_PAGE));
+        return executor.execute(attachmentWrites, this::writeAttachment)
+                .merge(executor.execute(pageWrites, this::writePage))
+                .merge(executor.execute(plan.getIds(SyncAction.Type.DELETE_PAGE), this::deletePage))
+                .merge(executor.execute(plan.getIds(SyncAction.Type.DELETE_ATTACHMENT), this::deleteAttachment));
+    }
+
+    /**
+     * Evaluate synchronisation plan and execute it
+     *
+     * @return result with ids of pages and attachments processed successfully and failures
+     */
+    @Nonnull
+    public BulkOperationResult synchronize() {
+        return execute(plan());
+    }
+
+    private void writePage(String id) {
+        var text = pages.get(id);
+        client.putPage(id, text);
+        if (fingerprints != null) {
+            client.recordPage(id, ContentDigest.of(text), fingerprints);
+        }
+    }
+
+    private void deletePage(String id) {
+        client.deletePage(id);
+        if (fingerprints != null) {
+            fingerprints.remove(id);
+        }
+    }
+
+    private void writeAttachment(String id) {
+        var attachment = attachments.get(id);
+        attachment.upload(client, id);
+        if (manifest != null) {
+            client.recordAttachment(id, attachment.getDigest(), manifest);
+        }
+    }
+
+    private void deleteAttachment(String id) {
+        client.deleteAttachment(id);
+        if (manifest != null) {
+            manifest.remove(id);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NamespaceSynchronizer{" +
+                "namespace='" + namespace + '\'' +
+                ", parallelism=" + parallelism +
+                ", pages=" + pages.size() +
+                ", attachments=" + attachments.size() +
+                '}';
+    }
+
+    /**
+     * Local attachment content
+     */
+    private interface LocalAttachment {
+        long getSize();
+
+        @Nonnull
+        String getDigest();
+
+        void upload(DokuWikiClient client, String id);
+    }
+
+    private static final class ByteArrayAttachment implements LocalAttachment {
+        private final byte[] content;
+        private volatile String digest;
+
+        private ByteArrayAttachment(byte[] content) {
+            this.content = Objects.requireNonNull(content);
+        }
+
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+
+        @Nonnull
+        @Override
+        public String getDigest() {
+            if (digest == null) {
+                digest = ContentDigest.of(content);
+            }
+            return digest;
+        }
+
+        @Override
+        public void upload(DokuWikiClient client, String id) {
+            client.putAttachment(id, content, true);
+        }
+    }
+
+    private static final class FileAttachment implements LocalAttachment {
+        private final Path file;
+        private volatile String digest;
+
+        private FileAttachment(Path file) {
+            this.file = Objects.requireNonNull(file);
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read size of " + file, e);
+            }
+        }
+
+        @Nonnull
+        @Override
+        public String getDigest() {
+            if (digest == null) {
+                digest = ContentDigest.of(file);
+            }
+            return digest;
+        }
+
+        @Override
+        public void upload(DokuWikiClient client, String id) {
+            client.putAttachment(id, file, true);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * Bounded in-memory cache of page content, keyed by page id. Each entry remembers revision of page it was retrieved
+ * for and is only returned if caller asks for the same revision. Least recently used entries are evicted when total
+ * size of cached content exceeds limit; size of entry is estimated as two bytes per character of page text. Cache is
+ * thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public class PageCache {
+
+    /** maximal size of cached content in bytes */
+    private final long maxBytes;
+    /** cached entries in access order, eldest first */
+    @Nonnull
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** current size of cached content in bytes */
+    private long sizeInBytes = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Create new empty cache.
+     *
+     * @param maxBytes is maximal size of cached content in bytes
+     */
+    public PageCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative, " + maxBytes + " supplied");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    private static long getEntrySize(String text) {
+        return 2L * text.length();
+    }
+
+    /**
+     * Retrieve page content from cache.
+     *
+     * @param id is id of page
+     * @param rev is current revision of page
+     * @return cached content if it is present and has been retrieved for given revision, null otherwise
+     */
+    @Nullable
+    public synchronized String get(String id, int rev) {
+        var entry = entries.get(id);
+        if ((entry != null) && (entry.rev == rev)) {
+            hitCount++;
+            return entry.text;
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Store page content in cache, replacing previous content of given page. Evicts least recently used entries if
+     * limit is exceeded; content bigger than whole cache is not stored at all
+     *
+     * @param id is id of page
+     * @param rev is revision of page content belongs to
+     * @param text is page content
+     */
+    public synchronized void put(String id, int rev, String text) {
+        invalidate(id);
+        var entrySize = getEntrySize(text);
+        if (entrySize > maxBytes) {
+            return;
+        }
+        entries.put(id, new Entry(rev, text));
+        sizeInBytes += entrySize;
+        var iterator = entries.values().iterator();
+        while (sizeInBytes > maxBytes) {
+            var eldest = iterator.next();
+            sizeInBytes -= getEntrySize(eldest.text);
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Remove page from cache; used when page is modified via this client
+     *
+     * @param id is id of page to be removed
+     */
+    public synchronized void invalidate(String id) {
+        var entry = entries.remove(id);
+        if (entry != null) {
+            sizeInBytes -= getEntrySize(entry.text);
+        }
+    }
+
+    /**
+     * Remove all entries from cache. Statistics are kept
+     */
+    public synchronized void clear() {
+        entries.clear();
+        sizeInBytes = 0;
+    }
+
+    /**
+     * @return maximal size of cached content in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return current (estimated) size of cached content in bytes
+     */
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * @return number of pages currently cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of lookups answered from cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of lookups that did not find valid entry in cache
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return number of entries evicted because of size limit
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PageCache{" +
+                "maxBytes=" + maxBytes +
+                ", sizeInBytes=" + sizeInBytes +
+                ", entries=" + entries.size() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+
+    private static final class Entry {
+        private final int rev;
+        @Nonnull
+        private final String text;
+
+        private Entry(int rev, String text) {
+            this.rev = rev;
+            this.text = Objects.requireNonNull(text);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Result of retrieval of single page by bulk page fetch ({@link DokuWikiClient#streamPageContents}). Contains either
+ * text of page or exception that prevented its retrieval.
+ */
+@SuppressWarnings("WeakerAccess")
+public class PageContent {
+
+    /** id of the page */
+    @Nonnull
+    private final String id;
+    /** text of page; empty if page does not exist, null if retrieval failed */
+    @Nullable
+    private final String text;
+    /** exception that prevented retrieval of page; null if page has been retrieved */
+    @Nullable
+    private final RuntimeException failure;
+
+    private PageContent(String id, @Nullable String text, @Nullable RuntimeException failure) {
+        this.id = Objects.requireNonNull(id);
+        this.text = text;
+        this.failure = failure;
+    }
+
+    @Nonnull
+    static PageContent ofText(String id, String text) {
+        return new PageContent(id, Objects.requireNonNull(text), null);
+    }
+
+    @Nonnull
+    static PageContent ofFailure(String id, RuntimeException failure) {
+        return new PageContent(id, null, Objects.requireNonNull(failure));
+    }
+
+    /**
+     * @return id of the page
+     */
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return text of page, empty string if page does not exist; null if retrieval failed
+     */
+    @Nullable
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return exception that prevented retrieval of page; null if page has been retrieved
+     */
+    @Nullable
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return true if page has been retrieved
+     */
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return "PageContent{" +
+                "id='" + id + '\'' +
+                ((text == null) ? "" : ", length=" + text.length()) +
+                ((failure == null) ? "" : ", failure=" + failure) +
+                '}';
+    }
+}
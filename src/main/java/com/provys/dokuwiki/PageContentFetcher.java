@@ -0,0 +1,209 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcArray;
+import com.provys.xmlrpc.XmlRpcStruct;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Retrieves text of multiple pages, using bounded number of parallel requests. Pages are requested in chunks sent via
+ * system.multicall; if wiki does not support multicall, pages are retrieved by individual wiki.getPage calls. Failure
+ * to retrieve one page does not prevent retrieval of remaining pages; it is reported in result for given page.
+ */
+final class PageContentFetcher {
+
+    /** fault code reported by wiki for unknown method; multicall is disabled on this fault only */
+    private static final int METHOD_NOT_FOUND = -32601;
+
+    /** client used to retrieve pages */
+    @Nonnull
+    private final DokuWikiClient client;
+    /** maximal number of requests running in parallel */
+    private final int parallelism;
+    /** maximal number of pages requested in single multicall request; 1 means multicall is not used */
+    private final int batchSize;
+    /** cleared when wiki reports multicall as unknown method; remaining chunks are then retrieved page by page */
+    private volatile boolean multicallSupported = true;
+
+    /**
+     * Create fetcher.
+     *
+     * @param client is client used to retrieve pages
+     * @param parallelism is maximal number of requests sent to wiki in parallel
+     * @param batchSize is maximal number of pages requested in single multicall request; 1 disables multicall
+     */
+    PageContentFetcher(DokuWikiClient client, int parallelism, int batchSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, " + parallelism + " supplied");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, " + batchSize + " supplied");
+        }
+        this.client = Objects.requireNonNull(client);
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Retrieve pages one by one
+     */
+    private void fetchIndividually(List<String> chunk, Consumer<PageContent> sink) {
+        for (var id : chunk) {
+            PageContent result;
+            try {
+                result = PageContent.ofText(id, client.getPage(id));
+            } catch (RuntimeException e) {
+                result = PageContent.ofFailure(id, e);
+            }
+            sink.accept(result);
+        }
+    }
+
+    /**
+     * Report failure for all pages in chunk
+     */
+    private static void fail(List<String> chunk, RuntimeException e, Consumer<PageContent> sink) {
+        for (var id : chunk) {
+            sink.accept(PageContent.ofFailure(id, e));
+        }
+    }
+
+    /**
+     * Retrieve chunk of pages using single multicall request
+     */
+    private void fetchChunk(List<String> chunk, Consumer<PageContent> sink) {
+        if ((chunk.size() == 1) || !multicallSupported) {
+            fetchIndividually(chunk, sink);
+            return;
+        }
+        var calls = new XmlRpcArray();
+        for (var id : chunk) {
+            var params = new XmlRpcArray();
+            params.add(id);
+            var call = new XmlRpcStruct();
+            call.put("methodName", "wiki.getPage");
+            call.put("params", params);
+            calls.add(call);
+        }
+        XmlRpcArray responses;
+        try {
+            responses = client.multicall(calls);
+        } catch (DokuWikiFaultException e) {
+            if (e.getFaultCode() != METHOD_NOT_FOUND) {
+                fail(chunk, e, sink);
+                return;
+            }
+            // wiki does not support multicall
+            multicallSupported = false;
+            fetchIndividually(chunk, sink);
+            return;
+        } catch (RuntimeException e) {
+            fail(chunk, e, sink);
+            return;
+        }
+        int i = 0;
+        for (var response : responses) {
+            var id = chunk.get(i++);
+            var result = BatchCallResult.parseResponse("wiki.getPage", id, response);
+            if (result.isSuccess()) {
+                sink.accept(PageContent.ofText(id, (String) Objects.requireNonNull(result.getValue())));
+            } else {
+                sink.accept(PageContent.ofFailure(id, new DokuWikiFaultException(result.getFaultCode(),
+                        Objects.requireNonNull(result.getFaultString()))));
+            }
+        }
+    }
+
+    /**
+     * Retrieve chunk of pages and put results to queue. Guarantees that result is produced for each page in chunk,
+     * as consumer of queue waits for all of them
+     */
+    private void processChunk(List<String> chunk, BlockingQueue<PageContent> results) {
+        var pending = new LinkedHashSet<>(chunk);
+        RuntimeException failure;
+        try {
+            fetchChunk(chunk, result -> {
+                pending.remove(result.getId());
+                results.add(result);
+            });
+            failure = new IllegalStateException("Wiki did not return result for page in multicall response");
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (var id : pending) {
+            results.add(PageContent.ofFailure(id, failure));
+        }
+    }
+
+    /**
+     * Retrieve pages and stream results as they arrive. Results are produced in order in which they are received, not
+     * in order of supplied ids. Closing stream before it is consumed cancels retrieval of remaining pages
+     *
+     * @param ids are ids of pages to be retrieved; duplicate ids are retrieved only once
+     * @return stream with one result per distinct id
+     */
+    @Nonnull
+    Stream<PageContent> stream(Collection<String> ids) {
+        var distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        var chunks = new ArrayList<List<String>>();
+        for (int start = 0; start < distinctIds.size(); start += batchSize) {
+            chunks.add(distinctIds.subList(start, Math.min(start + batchSize, distinctIds.size())));
+        }
+        if (chunks.isEmpty()) {
+            return Stream.empty();
+        }
+        BlockingQueue<PageContent> results = new LinkedBlockingQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()),
+                BulkExecutor.daemonThreadFactory("dokuwiki-fetch"));
+        for (var chunk : chunks) {
+            executor.execute(() -> processChunk(chunk, results));
+        }
+        // threads terminate when all chunks are processed
+        executor.shutdown();
+        var spliterator = new Spliterators.AbstractSpliterator<PageContent>(distinctIds.size(),
+                Spliterator.NONNULL | Spliterator.DISTINCT) {
+            private int remaining = distinctIds.size();
+
+            @Override
+            public boolean tryAdvance(Consumer<? super PageContent> action) {
+                if (remaining == 0) {
+                    return false;
+                }
+                try {
+                    action.accept(results.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    throw new RuntimeException("Interrupted while waiting for pages", e);
+                }
+                remaining--;
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                .onClose(executor::shutdownNow);
+    }
+
+    @Override
+    public String toString() {
+        return "PageContentFetcher{" +
+                "parallelism=" + parallelism +
+                ", batchSize=" + batchSize +
+                ", multicallSupported=" + multicallSupported +
+                '}';
+    }
+}
@@ -0,0 +1,122 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Store of fingerprints of pages written by this client. For each page it keeps revision created by write and digest
+ * of text that was written. If page revision on wiki still matches stored revision, text on wiki is the text that was
+ * written and it can be compared with new text using digest, without downloading old text. Store can be kept in memory
+ * only or persisted to local file. Store is thread safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public class PageFingerprintStore {
+
+    @Nonnull
+    private final EntryStore<Entry> store;
+
+    /**
+     * Create empty in-memory store.
+     */
+    public PageFingerprintStore() {
+        this.store = newStore(null);
+    }
+
+    /**
+     * Create store persisted to given file. If file exists, store is loaded from it.
+     *
+     * @param file is file store is persisted to
+     */
+    public PageFingerprintStore(Path file) {
+        this.store = newStore(Objects.requireNonNull(file));
+    }
+
+    @Nonnull
+    private static EntryStore<Entry> newStore(@Nullable Path file) {
+        return new EntryStore<>(file, "page fingerprints", 3,
+                fields -> new Entry(Integer.parseInt(fields[1]), fields[2]),
+                entry -> String.valueOf(entry.rev) + '\t' + entry.digest);
+    }
+
+    /**
+     * Verify if page on wiki contains given text.
+     *
+     * @param id is id of page
+     * @param rev is current revision of page on wiki
+     * @param digest is digest of text to be compared
+     * @return true if store proves that page on wiki has given text; false if text is different or store does not
+     * contain valid entry for page
+     */
+    public boolean isUnchanged(String id, int rev, String digest) {
+        var entry = store.get(id);
+        return (entry != null) && (entry.rev == rev) && entry.digest.equals(digest);
+    }
+
+    /**
+     * Get revision page had when it was recorded.
+     *
+     * @param id is id of page
+     * @return recorded revision of page, null if page is not in store
+     */
+    @Nullable
+    public Integer getRev(String id) {
+        var entry = store.get(id);
+        return (entry == null) ? null : entry.rev;
+    }
+
+    /**
+     * Record text of page on wiki.
+     *
+     * @param id is id of page
+     * @param rev is current revision of page on wiki
+     * @param digest is digest of page text
+     */
+    public void record(String id, int rev, String digest) {
+        store.put(id, new Entry(rev, digest));
+    }
+
+    /**
+     * Remove page from store
+     *
+     * @param id is id of page
+     */
+    public void remove(String id) {
+        store.remove(id);
+    }
+
+    /**
+     * @return number of pages in store
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Write store to its file; does nothing for in-memory store. Store is written to temporary file first and moved to
+     * target location afterwards
+     */
+    public void save() {
+        store.save();
+    }
+
+    @Override
+    public String toString() {
+        return "PageFingerprintStore{" +
+                "file=" + store.getFile() +
+                ", entries=" + store.size() +
+                '}';
+    }
+
+    private static final class Entry {
+        private final int rev;
+        @Nonnull
+        private final String digest;
+
+        private Entry(int rev, String digest) {
+            this.rev = rev;
+            this.digest = Objects.requireNonNull(digest);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable, interned identifier of page (or attachment or namespace) in wiki. Id is parsed once, positions of
+ * namespace separators are kept and namespace, name, depth and parent are derived from them without repeated scanning
+ * of id. Instances are interned - for given canonical id, there is (while it is referenced) single instance, thus ids
+ * can be compared by reference and parsing and derived values are shared. Ids are canonicalized using rules of
+ * DokuWiki's cleanID function with default configuration (deaccent = 1, sepchar = _).
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PageId implements Comparable<PageId> {
+
+    /** root namespace; represented by empty id */
+    public static final PageId ROOT = new PageId("", new int[0]);
+
+    /** interned instances, by id */
+    private static final Map<String, WeakReference<PageId>> INTERNED = new WeakHashMap<>();
+
+    static {
+        INTERNED.put(ROOT.id, new WeakReference<>(ROOT));
+    }
+
+    /**
+     * Get page id for given id. Id is canonicalized (see {@link #canonicalize(String)}) and interned instance is
+     * returned.
+     *
+     * @param id is id of page, attachment or namespace
+     * @return interned page id
+     */
+    @Nonnull
+    public static PageId of(String id) {
+        var canonical = canonicalize(id);
+        synchronized (INTERNED) {
+            var reference = INTERNED.get(canonical);
+            var pageId = (reference == null) ? null : reference.get();
+            if (pageId == null) {
+                pageId = new PageId(canonical, findSeparators(canonical));
+                INTERNED.put(pageId.id, new WeakReference<>(pageId));
+            }
+            return pageId;
+        }
+    }
+
+    private static int[] findSeparators(String id) {
+        int count = 0;
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) == ':') {
+                count++;
+            }
+        }
+        var separators = new int[count];
+        count = 0;
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) == ':') {
+                separators[count++] = i;
+            }
+        }
+        return separators;
+    }
+
+    private static boolean isSeparatorLike(char c) {
+        return (c == ':') || (c == '.') || (c == '_') || (c == '-');
+    }
+
+    private static boolean isCanonicalChar(char c) {
+        return ((c >= 'a') && (c <= 'z')) || ((c >= '0') && (c <= '9')) || isSeparatorLike(c)
+                || ((c > 127) && Character.isLetterOrDigit(c) && !Character.isUpperCase(c) && (deaccent(c) == null));
+    }
+
+    /**
+     * Transliteration of accented latin characters, as done by DokuWiki's deaccent (German umlauts, ligatures, thorn
+     * and eth are expanded, other characters lose their diacritics, including strokes that do not decompose)
+     *
+     * @param c is character to be transliterated
+     * @return replacement of character, null if character is not accented latin character
+     */
+    @Nullable
+    private static String deaccent(char c) {
+        switch (c) {
+            case '\u00e4':
+                return "ae";
+            case '\u00f6':
+                return "oe";
+            case '\u00fc':
+                return "ue";
+            case '\u00df':
+                return "ss";
+            case '\u00e6':
+                return "ae";
+            case '\u0153':
+                return "oe";
+            case '\u00fe':
+                return "th";
+            case '\u00f0':
+                return "dh";
+            // letters with stroke or other diacritics that do not decompose
+            case '\u0142':
+            case '\u0140':
+                return "l";
+            case '\u00f8':
+                return "o";
+            case '\u0111':
+                return "d";
+            case '\u0127':
+                return "h";
+            case '\u0131':
+                return "i";
+            case '\u0167':
+                return "t";
+            default:
+                break;
+        }
+        if (c <= 127) {
+            return null;
+        }
+        var decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        var result = new StringBuilder(1);
+        for (int i = 0; i < decomposed.length(); i++) {
+            var d = decomposed.charAt(i);
+            if (Character.getType(d) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (d > 127) {
+                // not latin character with diacritics
+                return null;
+            }
+            result.append(d);
+        }
+        return (result.length() == 0) ? null : result.toString();
+    }
+
+    /**
+     * Verify if id already is in canonical form; used as fast path, avoiding allocation for ids received from wiki
+     */
+    private static boolean isCanonical(String id) {
+        if (id.isEmpty()) {
+            return true;
+        }
+        if (isSeparatorLike(id.charAt(0)) || isSeparatorLike(id.charAt(id.length() - 1))) {
+            return false;
+        }
+        var previous = 'a';
+        for (int i = 0; i < id.length(); i++) {
+            var c = id.charAt(i);
+            if (!isCanonicalChar(c)) {
+                return false;
+            }
+            // repeated separators and separators adjacent to namespace separator are collapsed
+            if (((c == ':') && isSeparatorLike(previous)) || ((previous == ':') && isSeparatorLike(c))
+                    || ((c == '_') && (previous == '_'))) {
+                return false;
+            }
+            previous = c;
+        }
+        return true;
+    }
+
+    /**
+     * Canonicalize id using rules of DokuWiki's cleanID function with default configuration - id is converted to
+     * lowercase, accented latin characters are transliterated (e.g. ř to r, ä to ae), ; is translated to
+     * namespace separator, / and special characters to _, sequences of _ and of separators around namespace separator
+     * are collapsed and leading and trailing separators are removed.
+     *
+     * @param id is id to be canonicalized
+     * @return canonical form of id; same instance if id already is canonical
+     */
+    @Nonnull
+    public static String canonicalize(String id) {
+        if (isCanonical(id)) {
+            return id;
+        }
+        var lowerCase = id.trim().toLowerCase(Locale.ROOT);
+        var source = new StringBuilder(lowerCase.length());
+        for (int i = 0; i < lowerCase.length(); i++) {
+            var c = lowerCase.charAt(i);
+            var replacement = (c > 127) ? deaccent(c) : null;
+            if (replacement == null) {
+                source.append(c);
+            } else {
+                source.append(replacement);
+            }
+        }
+        var result = new StringBuilder(source.length());
+        for (int i = 0; i < source.length(); i++) {
+            var c = source.charAt(i);
+            if (c == ';') {
+                c = ':';
+            } else if (!isCanonicalChar(c)) {
+                c = '_';
+            }
+            var length = result.length();
+            var previous = (length == 0) ? ':' : result.charAt(length - 1);
+            if (c == ':') {
+                // separators before namespace separator are dropped
+                while ((length > 0) && isSeparatorLike(result.charAt(length - 1))) {
+                    length--;
+                }
+                result.setLength(length);
+                if (length > 0) {
+                    result.append(':');
+                }
+            } else if (isSeparatorLike(c) && isSeparatorLike(previous)
+                    && ((previous == ':') || ((c == '_') && (previous == '_')))) {
+                // separators after namespace separator and at the start are dropped, _ sequences collapsed
+                continue;
+            } else {
+                result.append(c);
+            }
+        }
+        var length = result.length();
+        while ((length > 0) && isSeparatorLike(result.charAt(length - 1))) {
+            length--;
+        }
+        result.setLength(length);
+        return result.toString();
+    }
+
+    /** canonical id */
+    @Nonnull
+    private final String id;
+    /** positions of namespace separators in id */
+    @Nonnull
+    private final int[] separators;
+    /** name, evaluated lazily */
+    @Nullable
+    private volatile String name;
+    /** parent, evaluated lazily */
+    @Nullable
+    private volatile PageId parent;
+
+    private PageId(String id, int[] separators) {
+        this.id = id;
+        this.separators = separators;
+    }
+
+    /**
+     * @return canonical id (namespace + name)
+     */
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return name (last segment of id, without namespace)
+     */
+    @Nonnull
+    public String getName() {
+        var result = name;
+        if (result == null) {
+            result = (separators.length == 0) ? id : id.substring(separators[separators.length - 1] + 1);
+            name = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return namespace (id without name); empty string for items in root namespace
+     */
+    @Nonnull
+    public String getNamespace() {
+        return getParent().id;
+    }
+
+    /**
+     * @return id of namespace this item belongs to; root for items in root namespace and for root itself
+     */
+    @Nonnull
+    public PageId getParent() {
+        var result = parent;
+        if (result == null) {
+            result = (separators.length == 0) ? ROOT : of(id.substring(0, separators[separators.length - 1]));
+            parent = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return number of segments of id (namespaces + name); 0 for root
+     */
+    public int getSegmentCount() {
+        return id.isEmpty() ? 0 : separators.length + 1;
+    }
+
+    /**
+     * @param index is index of segment, 0 being top level namespace
+     * @return segment of id at given position
+     */
+    @Nonnull
+    public String getSegment(int index) {
+        Objects.checkIndex(index, getSegmentCount());
+        var start = (index == 0) ? 0 : separators[index - 1] + 1;
+        var end = (index == separators.length) ? id.length() : separators[index];
+        return id.substring(start, end);
+    }
+
+    /**
+     * @return depth of page, as used in DokuWiki search functions; root level page has depth 1. If id represents
+     * namespace, depth of pages directly in this namespace is returned by {@link #getNamespaceDepth()}
+     */
+    public int getDepth() {
+        return getSegmentCount();
+    }
+
+    /**
+     * @return depth of pages directly in namespace represented by this id, same as
+     * {@link PageIdParser#getDepth(String)}
+     */
+    public int getNamespaceDepth() {
+        return getSegmentCount() + 1;
+    }
+
+    /**
+     * @return true if this id represents root namespace
+     */
+    public boolean isRoot() {
+        return id.isEmpty();
+    }
+
+    /**
+     * Create id of item in namespace represented by this id
+     *
+     * @param name is name of child item
+     * @return interned id of child
+     */
+    @Nonnull
+    public PageId resolve(String name) {
+        return of(isRoot() ? name : id + ':' + name);
+    }
+
+    @Override
+    public int compareTo(PageId other) {
+        return id.compareTo(other.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PageId)) return false;
+
+        PageId pageId = (PageId) o;
+
+        return id.equals(pageId.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
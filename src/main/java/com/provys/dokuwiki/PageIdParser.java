@@ -2,6 +2,10 @@ package com.provys.dokuwiki;
 
 import javax.annotation.Nonnull;
 
+/**
+ * Parses ids given as plain strings. For repeated processing of the same ids, consider {@link PageId}, that parses id
+ * only once.
+ */
 @SuppressWarnings("WeakerAccess")
 public class PageIdParser {
 
@@ -11,12 +15,29 @@ public class PageIdParser {
      */
     @Nonnull
     public String getNamespace(String id) {
-        if (id.lastIndexOf(':') > 0) {
-            return id.substring(0, id.lastIndexOf(':') - 1);
+        var separator = id.lastIndexOf(':');
+        if (separator > 0) {
+            return id.substring(0, separator);
         }
         return "";
     }
 
+    /**
+     * Remove leading and trailing namespace separator from namespace, e.g. :ns: becomes ns
+     *
+     * @param namespace is string representing absolute namespace, with or without leading or trailing :
+     * @return namespace without leading and trailing :
+     */
+    @Nonnull
+    public String trimNamespace(String namespace) {
+        int start = namespace.startsWith(":") ? 1 : 0;
+        int end = namespace.length();
+        if ((end > start) && (namespace.charAt(end - 1) == ':')) {
+            end--;
+        }
+        return namespace.substring(start, end);
+    }
+
     /**
      * Get depth of specified namespace.
      *
@@ -48,8 +69,9 @@ public class PageIdParser {
      */
     @Nonnull
     public String getName(String id) {
-        if (id.lastIndexOf(':') > 0) {
-            return id.substring(id.lastIndexOf(':') + 1);
+        var separator = id.lastIndexOf(':');
+        if (separator >= 0) {
+            return id.substring(separator + 1);
         }
         return id;
     }
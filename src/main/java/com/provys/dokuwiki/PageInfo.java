@@ -0,0 +1,110 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcStruct;
+
+import javax.annotation.Nonnull;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Page metadata, retrieved via wiki.getPageInfo call. Much cheaper than retrieving page content and thus suitable for
+ * validation of cached page content.
+ */
+@SuppressWarnings("WeakerAccess")
+public class PageInfo {
+
+    /**
+     * Parse page info from struct, returned from wiki Xml-Rpc call
+     *
+     * @param pageInfo is struct describing page info retrieved from wiki
+     * @return new {@code PageInfo} object with data found in struct
+     */
+    @Nonnull
+    static PageInfo parseResponse(XmlRpcStruct pageInfo) {
+        var author = pageInfo.get("author");
+        return new PageInfo((String) pageInfo.get("name"), (LocalDateTime) pageInfo.get("lastModified"),
+                (author == null) ? "" : (String) author, (int) pageInfo.get("version"));
+    }
+
+    /** page id (namespace + name) */
+    @Nonnull
+    private final String name;
+    /** dateTime object of last modification date */
+    @Nonnull
+    private final LocalDateTime lastModified;
+    /** author of last change; empty if not known */
+    @Nonnull
+    private final String author;
+    /** page revision (timestamp of last modification), same as rev in page list */
+    private final int version;
+
+    private PageInfo(String name, LocalDateTime lastModified, String author, int version) {
+        this.name = Objects.requireNonNull(name);
+        this.lastModified = Objects.requireNonNull(lastModified);
+        this.author = Objects.requireNonNull(author);
+        this.version = version;
+    }
+
+    /**
+     * @return page id (namespace + name)
+     */
+    @Nonnull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return dateTime object of last modification date
+     */
+    @Nonnull
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return author of last change; empty if not known
+     */
+    @Nonnull
+    public String getAuthor() {
+        return author;
+    }
+
+    /**
+     * @return page revision (timestamp of last modification), same as rev in page list
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PageInfo)) return false;
+
+        PageInfo pageInfo = (PageInfo) o;
+
+        if (getVersion() != pageInfo.getVersion()) return false;
+        if (!getName().equals(pageInfo.getName())) return false;
+        if (!getLastModified().equals(pageInfo.getLastModified())) return false;
+        return getAuthor().equals(pageInfo.getAuthor());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getName().hashCode();
+        result = 31 * result + getLastModified().hashCode();
+        result = 31 * result + getAuthor().hashCode();
+        result = 31 * result + getVersion();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PageInfo{" +
+                "name='" + name + '\'' +
+                ", lastModified=" + lastModified +
+                ", author='" + author + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
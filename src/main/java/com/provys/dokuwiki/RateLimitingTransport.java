@@ -0,0 +1,129 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+
+/**
+ * Transport decorator limiting rate of calls sent to wiki, using token bucket. Bucket is refilled with given number of
+ * tokens per second, up to its capacity (burst); each call consumes one token and waits if bucket is empty. Waiting
+ * calls reserve tokens in order of arrival, so calls are spread evenly in time.
+ */
+@SuppressWarnings("WeakerAccess") // RateLimitingTransport is published library class
+public final class RateLimitingTransport implements DokuWikiTransport {
+
+    @Nonnull
+    private final DokuWikiTransport delegate;
+    /** number of calls per second */
+    private final double permitsPerSecond;
+    /** maximal number of tokens in bucket */
+    private final int burst;
+    /** nanoseconds needed to produce single token */
+    private final double nanosPerPermit;
+    /** tokens currently available; negative if tokens have been reserved by waiting calls */
+    private double storedPermits;
+    /** time (in nanoTime) storedPermits have been computed */
+    private long refilledAt;
+    /** number of calls that had to wait for token */
+    private long throttledCalls;
+    /** total time calls spent waiting for tokens, in nanoseconds */
+    private long throttledNanos;
+
+    /**
+     * Create rate limiting transport.
+     *
+     * @param delegate is transport used to send calls
+     * @param permitsPerSecond is maximal sustained number of calls per second
+     * @param burst is number of calls that might be sent without waiting after period of inactivity
+     */
+    public RateLimitingTransport(DokuWikiTransport delegate, double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive, " + permitsPerSecond + " supplied");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be positive, " + burst + " supplied");
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.nanosPerPermit = 1_000_000_000d / permitsPerSecond;
+        this.storedPermits = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * @return maximal sustained number of calls per second
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * @return number of calls that might be sent without waiting after period of inactivity
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * @return number of calls that had to wait for token
+     */
+    public synchronized long getThrottledCalls() {
+        return throttledCalls;
+    }
+
+    /**
+     * @return total time calls spent waiting for tokens, in milliseconds
+     */
+    public synchronized long getThrottledMillis() {
+        return throttledNanos / 1_000_000;
+    }
+
+    /**
+     * Take token from bucket
+     *
+     * @return time in nanoseconds caller has to wait before token becomes valid
+     */
+    private synchronized long reserve() {
+        var now = System.nanoTime();
+        storedPermits = Math.min(burst, storedPermits + (now - refilledAt) / nanosPerPermit);
+        refilledAt = now;
+        storedPermits--;
+        if (storedPermits >= 0) {
+            return 0;
+        }
+        var wait = (long) (-storedPermits * nanosPerPermit);
+        throttledCalls++;
+        throttledNanos += wait;
+        return wait;
+    }
+
+    @Nonnull
+    @Override
+    public InputStream send(String method, RequestBody body) throws IOException {
+        var wait = reserve();
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                var exception = new InterruptedIOException("Interrupted while waiting to send Xml-Rpc call "
+                        + method);
+                exception.initCause(e);
+                throw exception;
+            }
+        }
+        return delegate.send(method, body);
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitingTransport{" +
+                "delegate=" + delegate +
+                ", permitsPerSecond=" + permitsPerSecond +
+                ", burst=" + burst +
+                '}';
+    }
+}
@@ -0,0 +1,124 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcStruct;
+
+import javax.annotation.Nonnull;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Represents item in result of wiki.getRecentChanges or wiki.getRecentMediaChanges call
+ */
+@SuppressWarnings("WeakerAccess")
+public class RecentChange {
+
+    /**
+     * Parse recent change from struct, returned from wiki Xml-Rpc call
+     *
+     * @param recentChange is struct describing change retrieved from wiki
+     * @param media indicates that change was retrieved via wiki.getRecentMediaChanges
+     * @return new {@code RecentChange} object with data found in struct
+     */
+    @Nonnull
+    static RecentChange parseResponse(XmlRpcStruct recentChange, boolean media) {
+        var author = recentChange.get("author");
+        return new RecentChange((String) recentChange.get("name"), media,
+                (LocalDateTime) recentChange.get("lastModified"), (author == null) ? "" : (String) author,
+                (int) recentChange.get("version"));
+    }
+
+    /** page or media id (namespace + name) */
+    @Nonnull
+    private final String id;
+    /** true if change is media (attachment) change, false for page change */
+    private final boolean media;
+    /** dateTime object of modification date */
+    @Nonnull
+    private final LocalDateTime lastModified;
+    /** author of change; empty if not known */
+    @Nonnull
+    private final String author;
+    /** revision created by change (timestamp of modification) */
+    private final int version;
+
+    private RecentChange(String id, boolean media, LocalDateTime lastModified, String author, int version) {
+        this.id = Objects.requireNonNull(id);
+        this.media = media;
+        this.lastModified = Objects.requireNonNull(lastModified);
+        this.author = Objects.requireNonNull(author);
+        this.version = version;
+    }
+
+    /**
+     * @return page or media id (namespace + name)
+     */
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return true if change is media (attachment) change, false for page change
+     */
+    public boolean isMedia() {
+        return media;
+    }
+
+    /**
+     * @return dateTime object of modification date
+     */
+    @Nonnull
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return author of change; empty if not known
+     */
+    @Nonnull
+    public String getAuthor() {
+        return author;
+    }
+
+    /**
+     * @return revision created by change (timestamp of modification)
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RecentChange)) return false;
+
+        RecentChange that = (RecentChange) o;
+
+        if (isMedia() != that.isMedia()) return false;
+        if (getVersion() != that.getVersion()) return false;
+        if (!getId().equals(that.getId())) return false;
+        if (!getLastModified().equals(that.getLastModified())) return false;
+        return getAuthor().equals(that.getAuthor());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getId().hashCode();
+        result = 31 * result + (isMedia() ? 1 : 0);
+        result = 31 * result + getLastModified().hashCode();
+        result = 31 * result + getAuthor().hashCode();
+        result = 31 * result + getVersion();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "RecentChange{" +
+                "id='" + id + '\'' +
+                ", media=" + media +
+                ", lastModified=" + lastModified +
+                ", author='" + author + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
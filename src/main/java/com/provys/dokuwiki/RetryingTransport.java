@@ -0,0 +1,204 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transport decorator that repeats calls failed because of transient error - refused connection, timeout or HTTP
+ * status signalling problem on server side. Delay between attempts grows exponentially and is randomized (jitter), so
+ * clients failed at the same moment do not retry at the same moment. Only reads are repeated by default, as repeating
+ * write might repeat its effect (e.g. delete that reached wiki but whose response has been lost would fail when
+ * repeated). Multicall is repeated if it only contains reads.
+ * Calls with content streamed from caller-supplied stream are never repeated. Faults reported by wiki are not
+ * transient and they are never retried.
+ * <p>
+ * Retry only covers sending of call and receiving of response headers; failure while response body is being read
+ * is propagated to caller.
+ */
+@SuppressWarnings("WeakerAccess") // RetryingTransport is published library class
+public final class RetryingTransport implements DokuWikiTransport {
+
+    /** default number of attempts, including first one */
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    /** default delay before first retry */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(200);
+    /** default upper limit of delay between attempts */
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(10);
+
+    @Nonnull
+    private final DokuWikiTransport delegate;
+    /** maximal number of attempts, including first one */
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    /** if true, write calls are repeated as well */
+    private final boolean retryWrites;
+    /** number of calls sent through this transport */
+    private final AtomicLong calls = new AtomicLong();
+    /** number of repeated attempts */
+    private final AtomicLong retries = new AtomicLong();
+    /** number of calls that succeeded after being repeated */
+    private final AtomicLong recoveredCalls = new AtomicLong();
+    /** number of calls that failed even after all attempts */
+    private final AtomicLong exhaustedCalls = new AtomicLong();
+
+    /**
+     * Create retrying transport with default settings, only repeating reads.
+     *
+     * @param delegate is transport used to send calls
+     */
+    public RetryingTransport(DokuWikiTransport delegate) {
+        this(delegate, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF, false);
+    }
+
+    /**
+     * Create retrying transport.
+     *
+     * @param delegate is transport used to send calls
+     * @param maxAttempts is maximal number of attempts to send call, including the first one
+     * @param initialBackoff is delay before first retry; delay is doubled with each following retry
+     * @param maxBackoff is upper limit of delay between attempts
+     * @param retryWrites if true, calls that modify wiki are repeated as well
+     */
+    public RetryingTransport(DokuWikiTransport delegate, int maxAttempts, Duration initialBackoff,
+                             Duration maxBackoff, boolean retryWrites) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Number of attempts must be positive, " + maxAttempts + " supplied");
+        }
+        if (initialBackoff.isNegative() || (maxBackoff.compareTo(initialBackoff) < 0)) {
+            throw new IllegalArgumentException("Invalid backoff " + initialBackoff + " - " + maxBackoff);
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.retryWrites = retryWrites;
+    }
+
+    /**
+     * Decide if Xml-Rpc method only reads data. Classification is based on DokuWiki naming conventions - reading
+     * methods are named get..., list... or search. Multicall is considered write, as it might contain writes; multicall
+     * consisting of reads only is recognized by its request body (see {@link RequestBody#isReadOnly()}).
+     *
+     * @param method is name of Xml-Rpc method
+     * @return true if method does not modify wiki and thus can be safely repeated
+     */
+    static boolean isReadMethod(String method) {
+        var name = method.substring(method.lastIndexOf('.') + 1);
+        return name.startsWith("get") || name.startsWith("list") || name.startsWith("search");
+    }
+
+    /**
+     * Decide if failure of call is transient, e.g. it might not repeat if call is repeated. Only failures known to be
+     * transient are - refused connection, timeout and HTTP status signalling problem on server side. Other failures
+     * (e.g. rejected login, unsupported response encoding or expired session with call that cannot be repeated) would
+     * repeat on every attempt
+     *
+     * @param e is exception thrown by transport
+     * @return true if failure is transient
+     */
+    static boolean isTransient(IOException e) {
+        if (e instanceof HttpStatusException) {
+            return ((HttpStatusException) e).isTransient();
+        }
+        return (e instanceof ConnectException) || (e instanceof SocketTimeoutException)
+                || (e instanceof HttpTimeoutException);
+    }
+
+    /**
+     * @return number of calls sent through this transport
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * @return number of repeated attempts
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * @return number of calls that succeeded after being repeated
+     */
+    public long getRecoveredCalls() {
+        return recoveredCalls.get();
+    }
+
+    /**
+     * @return number of calls that failed even after all attempts
+     */
+    public long getExhaustedCalls() {
+        return exhaustedCalls.get();
+    }
+
+    /**
+     * Wait before repeated attempt. Delay grows exponentially and is randomized between half and full value
+     *
+     * @param retry is number of retry (1 for first retry)
+     * @param method is name of method being called, used in exception message
+     * @throws InterruptedIOException if thread is interrupted while waiting
+     */
+    private void backoff(int retry, String method) throws InterruptedIOException {
+        var delay = initialBackoffNanos << Math.min(retry - 1, 30);
+        if ((delay > maxBackoffNanos) || (delay < 0)) {
+            delay = maxBackoffNanos;
+        }
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        try {
+            Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            var exception = new InterruptedIOException("Interrupted while waiting to repeat Xml-Rpc call " + method);
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public InputStream send(String method, RequestBody body) throws IOException {
+        calls.incrementAndGet();
+        var retryable = body.isRepeatable() && (retryWrites || body.isReadOnly() || isReadMethod(method));
+        for (int attempt = 1; ; attempt++) {
+            try {
+                var result = delegate.send(method, body);
+                if (attempt > 1) {
+                    recoveredCalls.incrementAndGet();
+                }
+                return result;
+            } catch (IOException e) {
+                if (!retryable || !isTransient(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    exhaustedCalls.incrementAndGet();
+                    throw e;
+                }
+            }
+            backoff(attempt, method);
+            retries.incrementAndGet();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RetryingTransport{" +
+                "delegate=" + delegate +
+                ", maxAttempts=" + maxAttempts +
+                ", retryWrites=" + retryWrites +
+                ", calls=" + calls +
+                ", retries=" + retries +
+                '}';
+    }
+}
@@ -0,0 +1,248 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * Client's own Xml-Rpc implementation, used for calls where Xml-Rpc library would need to hold whole request or
+ * response in memory and for all calls of clients created on top of {@link DokuWikiTransport}. Request is serialized
+ * while it is being sent (see {@link XmlRpcRequestBody}) and response is parsed while it is being received, via
+ * {@link XmlRpcReader}.
+ */
+final class StreamingXmlRpcClient {
+
+    /**
+     * Handler processing response of Xml-Rpc call
+     *
+     * @param <T> is type of value produced by handler
+     */
+    @FunctionalInterface
+    interface ResponseHandler<T> {
+        T handle(XmlRpcReader reader) throws IOException;
+    }
+
+    /** transport used to deliver calls */
+    @Nonnull
+    private final DokuWikiTransport transport;
+    /** metrics calls are reported to */
+    @Nonnull
+    private final DokuWikiMetrics metrics;
+
+    StreamingXmlRpcClient(DokuWikiTransport transport, DokuWikiMetrics metrics) {
+        this.transport = Objects.requireNonNull(transport);
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * @return transport used to deliver calls
+     */
+    @Nonnull
+    DokuWikiTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Send Xml-Rpc request and return stream with response body. Call is reported to metrics when returned stream is
+     * closed
+     *
+     * @param method is name of Xml-Rpc method to be called
+     * @param params are parameters of call
+     * @return stream with body of response; caller is responsible for closing it
+     */
+    @Nonnull
+    private MeteredInputStream send(String method, Object... params) {
+        var body = XmlRpcRequestBody.of(method, params);
+        metrics.callStarted(method);
+        var start = System.nanoTime();
+        try {
+            return new MeteredInputStream(transport.send(method, body), method, body.getContentLength(), start);
+        } catch (IOException e) {
+            metrics.callCompleted(method, DokuWikiMetrics.Outcome.ERROR, System.nanoTime() - start,
+                    body.getContentLength(), -1);
+            throw new UncheckedIOException("Xml-Rpc call " + method + " failed", e);
+        } catch (RuntimeException e) {
+            metrics.callCompleted(method, DokuWikiMetrics.Outcome.ERROR, System.nanoTime() - start,
+                    body.getContentLength(), -1);
+            throw e;
+        }
+    }
+
+    /**
+     * Open reader on response and read its beginning
+     *
+     * @param response is stream with body of response
+     * @return reader positioned at value returned by method
+     * @throws DokuWikiFaultException if wiki returned fault
+     */
+    @Nonnull
+    private static XmlRpcReader open(MeteredInputStream response) {
+        XmlRpcReader reader;
+        try {
+            reader = new XmlRpcReader(response);
+        } catch (RuntimeException e) {
+            response.fail(DokuWikiMetrics.Outcome.ERROR);
+            try {
+                response.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+        try {
+            reader.readResponseStart();
+        } catch (DokuWikiFaultException e) {
+            response.fail(DokuWikiMetrics.Outcome.FAULT);
+            reader.close();
+            throw e;
+        } catch (RuntimeException e) {
+            response.fail(DokuWikiMetrics.Outcome.ERROR);
+            reader.close();
+            throw e;
+        }
+        return reader;
+    }
+
+    /**
+     * Invoke Xml-Rpc method and return its result, fully read to memory
+     *
+     * @param method is name of Xml-Rpc method to be called
+     * @param params are parameters of call
+     * @return value returned by method
+     * @throws DokuWikiFaultException if wiki returned fault
+     */
+    Object invoke(String method, Object... params) {
+        return invoke(XmlRpcReader::readValue, method, params);
+    }
+
+    /**
+     * Invoke Xml-Rpc method and process response using supplied handler. Handler receives reader positioned at the
+     * value returned by method
+     *
+     * @param handler is handler used to process response
+     * @param method is name of Xml-Rpc method to be called
+     * @param params are parameters of call
+     * @param <T> is type of value produced by handler
+     * @return value produced by handler
+     * @throws DokuWikiFaultException if wiki returned fault
+     */
+    <T> T invoke(ResponseHandler<T> handler, String method, Object... params) {
+        var response = send(method, params);
+        try (var reader = open(response)) {
+            return handler.handle(reader);
+        } catch (IOException e) {
+            response.fail(DokuWikiMetrics.Outcome.ERROR);
+            throw new UncheckedIOException("Failed to process response of Xml-Rpc call " + method, e);
+        } catch (RuntimeException e) {
+            response.fail(DokuWikiMetrics.Outcome.ERROR);
+            throw e;
+        }
+    }
+
+    /**
+     * Invoke Xml-Rpc method and return reader positioned at the value returned by method. Used when response is
+     * processed lazily, after this method returns
+     *
+     * @param method is name of Xml-Rpc method to be called
+     * @param params are parameters of call
+     * @return reader of response; caller is responsible for closing it
+     * @throws DokuWikiFaultException if wiki returned fault
+     */
+    @Nonnull
+    XmlRpcReader open(String method, Object... params) {
+        return open(send(method, params));
+    }
+
+    /**
+     * Response stream counting bytes read and reporting call to metrics when closed
+     */
+    private final class MeteredInputStream extends FilterInputStream {
+
+        @Nonnull
+        private final String method;
+        private final long requestBytes;
+        /** time (in nanoTime) call has been started */
+        private final long start;
+        private long responseBytes;
+        @Nonnull
+        private DokuWikiMetrics.Outcome outcome = DokuWikiMetrics.Outcome.SUCCESS;
+        private boolean completed;
+
+        MeteredInputStream(InputStream in, String method, long requestBytes, long start) {
+            super(in);
+            this.method = method;
+            this.requestBytes = requestBytes;
+            this.start = start;
+        }
+
+        /**
+         * Mark call as failed; first failure determines reported outcome
+         *
+         * @param failure is outcome of failed call
+         */
+        void fail(DokuWikiMetrics.Outcome failure) {
+            if (outcome == DokuWikiMetrics.Outcome.SUCCESS) {
+                outcome = failure;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                var result = super.read();
+                if (result >= 0) {
+                    responseBytes++;
+                }
+                return result;
+            } catch (IOException e) {
+                fail(DokuWikiMetrics.Outcome.ERROR);
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                var result = super.read(b, off, len);
+                if (result > 0) {
+                    responseBytes += result;
+                }
+                return result;
+            } catch (IOException e) {
+                fail(DokuWikiMetrics.Outcome.ERROR);
+                throw e;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            var result = super.skip(n);
+            responseBytes += result;
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!completed) {
+                    completed = true;
+                    metrics.callCompleted(method, outcome, System.nanoTime() - start, requestBytes,
+                            responseBytes);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingXmlRpcClient{" +
+                "transport=" + transport +
+                ", metrics=" + metrics +
+                '}';
+    }
+}
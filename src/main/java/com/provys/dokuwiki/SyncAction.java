@@ -0,0 +1,91 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * Single action of {@link SyncPlan} - creation, update or removal of page or attachment.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SyncAction {
+
+    /**
+     * Type of synchronisation action
+     */
+    public enum Type {
+        CREATE_PAGE,
+        UPDATE_PAGE,
+        DELETE_PAGE,
+        CREATE_ATTACHMENT,
+        UPDATE_ATTACHMENT,
+        DELETE_ATTACHMENT;
+
+        /**
+         * @return true if action modifies page, false if it modifies attachment
+         */
+        public boolean isPage() {
+            return (this == CREATE_PAGE) || (this == UPDATE_PAGE) || (this == DELETE_PAGE);
+        }
+
+        /**
+         * @return true if action removes page or attachment
+         */
+        public boolean isDelete() {
+            return (this == DELETE_PAGE) || (this == DELETE_ATTACHMENT);
+        }
+    }
+
+    /** type of action */
+    @Nonnull
+    private final Type type;
+    /** id of page or attachment action applies to */
+    @Nonnull
+    private final String id;
+
+    SyncAction(Type type, String id) {
+        this.type = Objects.requireNonNull(type);
+        this.id = Objects.requireNonNull(id);
+    }
+
+    /**
+     * @return type of action
+     */
+    @Nonnull
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return id of page or attachment action applies to
+     */
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SyncAction)) return false;
+
+        SyncAction that = (SyncAction) o;
+
+        if (getType() != that.getType()) return false;
+        return getId().equals(that.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getType().hashCode();
+        result = 31 * result + getId().hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncAction{" +
+                "type=" + type +
+                ", id='" + id + '\'' +
+                '}';
+    }
+}
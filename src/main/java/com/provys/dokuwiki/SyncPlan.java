@@ -0,0 +1,84 @@
+package com.provys.dokuwiki;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Plan of synchronisation of local content to wiki namespace, evaluated by {@link NamespaceSynchronizer}. Contains only
+ * actions for pages and attachments that actually differ.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SyncPlan {
+
+    /** actions to be performed */
+    @Nonnull
+    private final List<SyncAction> actions;
+    /** number of pages and attachments found unchanged */
+    private final int unchanged;
+
+    SyncPlan(List<SyncAction> actions, int unchanged) {
+        this.actions = List.copyOf(actions);
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * @return all actions to be performed
+     */
+    @Nonnull
+    public List<SyncAction> getActions() {
+        return actions;
+    }
+
+    /**
+     * @param type is type of actions to be returned
+     * @return ids of pages or attachments with given action
+     */
+    @Nonnull
+    public List<String> getIds(SyncAction.Type type) {
+        return actions.stream()
+                .filter(action -> action.getType() == type)
+                .map(SyncAction::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return number of pages and attachments found unchanged
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * @return true if wiki already matches local content
+     */
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SyncPlan)) return false;
+
+        SyncPlan syncPlan = (SyncPlan) o;
+
+        if (getUnchanged() != syncPlan.getUnchanged()) return false;
+        return getActions().equals(syncPlan.getActions());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = getActions().hashCode();
+        result = 31 * result + getUnchanged();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncPlan{" +
+                "actions=" + actions +
+                ", unchanged=" + unchanged +
+                '}';
+    }
+}
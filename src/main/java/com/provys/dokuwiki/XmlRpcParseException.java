@@ -0,0 +1,18 @@
+package com.provys.dokuwiki;
+
+/**
+ * Signals that response received from wiki is not valid Xml-Rpc response.
+ */
+@SuppressWarnings("WeakerAccess")
+public class XmlRpcParseException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    XmlRpcParseException(String message) {
+        super(message);
+    }
+
+    XmlRpcParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,319 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcArray;
+import com.provys.xmlrpc.XmlRpcStruct;
+
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Pull parser of Xml-Rpc method response. Unlike Xml-Rpc library used by client, it does not need to hold whole
+ * response in memory; values can be read one by one and base64 content can be decoded directly to output stream.
+ * Used by client's own streaming Xml-Rpc implementation.
+ */
+final class XmlRpcReader implements AutoCloseable {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private static XMLInputFactory createInputFactory() {
+        var factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    /** size of buffer used when decoding base64 content; must be multiple of 4 */
+    private static final int BASE64_BUFFER_SIZE = 8192;
+
+    private final InputStream inputStream;
+    private final XMLStreamReader reader;
+
+    /**
+     * Create reader of response; reader takes ownership of input stream and closes it when it is closed
+     *
+     * @param inputStream is stream with response
+     */
+    XmlRpcReader(InputStream inputStream) {
+        this.inputStream = inputStream;
+        try {
+            this.reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+        } catch (XMLStreamException e) {
+            throw new XmlRpcParseException("Failed to start parsing of Xml-Rpc response", e);
+        }
+    }
+
+    /**
+     * Move to next start element, skipping whitespace and comments
+     *
+     * @return local name of start element
+     */
+    private String nextStartElement() throws XMLStreamException {
+        var event = reader.nextTag();
+        if (event != XMLStreamConstants.START_ELEMENT) {
+            throw new XmlRpcParseException("Start element expected, found end of " + reader.getLocalName());
+        }
+        return reader.getLocalName();
+    }
+
+    private void requireStartElement(String name) throws XMLStreamException {
+        var found = nextStartElement();
+        if (!found.equals(name)) {
+            throw new XmlRpcParseException("Element " + name + " expected, found " + found);
+        }
+    }
+
+    private void requireEndElement(String name) throws XMLStreamException {
+        var event = reader.nextTag();
+        if ((event != XMLStreamConstants.END_ELEMENT) || !reader.getLocalName().equals(name)) {
+            throw new XmlRpcParseException("End of element " + name + " expected");
+        }
+    }
+
+    /**
+     * Read beginning of method response, up to (and including) start of value element of returned parameter. If
+     * response represents fault, fault is parsed and thrown as exception
+     *
+     * @throws DokuWikiFaultException if wiki returned fault
+     */
+    void readResponseStart() {
+        try {
+            requireStartElement("methodResponse");
+            var element = nextStartElement();
+            if (element.equals("fault")) {
+                requireStartElement("value");
+                var fault = (XmlRpcStruct) readValueContent();
+                throw new DokuWikiFaultException((int) fault.get("faultCode"), (String) fault.get("faultString"));
+            }
+            if (!element.equals("params")) {
+                throw new XmlRpcParseException("Element params or fault expected, found " + element);
+            }
+            requireStartElement("param");
+            requireStartElement("value");
+        } catch (XMLStreamException e) {
+            throw new XmlRpcParseException("Failed to parse Xml-Rpc response", e);
+        }
+    }
+
+    /**
+     * Read complete response and return parsed value
+     *
+     * @return value returned by wiki
+     * @throws DokuWikiFaultException if wiki returned fault
+     */
+    @Nullable
+    Object readResponse() {
+        readResponseStart();
+        return readValue();
+    }
+
+    /**
+     * Read value; reader must be positioned on start of value element and is positioned at its end afterwards
+     *
+     * @return parsed value
+     */
+    @Nullable
+    Object readValue() {
+        try {
+            return readValueContent();
+        } catch (XMLStreamException e) {
+            throw new XmlRpcParseException("Failed to parse Xml-Rpc value", e);
+        }
+    }
+
+    @Nullable
+    private Object readValueContent() throws XMLStreamException {
+        var text = new StringBuilder();
+        while (true) {
+            var event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                var value = readTypedValue(reader.getLocalName());
+                requireEndElement("value");
+                return value;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                // value without type element is string
+                return text.toString();
+            }
+            if ((event == XMLStreamConstants.CHARACTERS) || (event == XMLStreamConstants.CDATA)
+                    || (event == XMLStreamConstants.SPACE)) {
+                text.append(reader.getText());
+            }
+        }
+    }
+
+    @Nullable
+    private Object readTypedValue(String type) throws XMLStreamException {
+        switch (type) {
+            case "string":
+                return reader.getElementText();
+            case "int":
+            case "i4":
+                return Integer.parseInt(reader.getElementText().trim());
+            case "i8":
+                return Long.parseLong(reader.getElementText().trim());
+            case "boolean":
+                return reader.getElementText().trim().equals("1");
+            case "double":
+                return Double.parseDouble(reader.getElementText().trim());
+            case "dateTime.iso8601":
+                return parseDateTime(reader.getElementText().trim());
+            case "base64":
+                return Base64.getMimeDecoder().decode(reader.getElementText());
+            case "nil":
+                reader.getElementText();
+                return null;
+            case "struct":
+                return readStruct();
+            case "array":
+                return readArray();
+            default:
+                throw new XmlRpcParseException("Unsupported Xml-Rpc value type " + type);
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String text) {
+        try {
+            return LocalDateTime.parse(text, XmlRpcWriter.DATE_TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            // newer DokuWiki versions use extended ISO 8601 format, possibly with offset
+            try {
+                return LocalDateTime.parse(text);
+            } catch (DateTimeParseException e2) {
+                return OffsetDateTime.parse(text).toLocalDateTime();
+            }
+        }
+    }
+
+    private XmlRpcStruct readStruct() throws XMLStreamException {
+        var struct = new XmlRpcStruct();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            requireStartElement("name");
+            var name = reader.getElementText();
+            requireStartElement("value");
+            struct.put(name, readValueContent());
+            requireEndElement("member");
+        }
+        return struct;
+    }
+
+    private XmlRpcArray readArray() throws XMLStreamException {
+        var array = new XmlRpcArray();
+        requireStartElement("data");
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            array.add(readValueContent());
+        }
+        requireEndElement("array");
+        return array;
+    }
+
+    /**
+     * Read base64 value and decode it directly to output stream. Reader must be positioned on start of value element.
+     * Content is processed in chunks, thus memory consumption does not depend on size of value
+     *
+     * @param outputStream is stream decoded content is written to
+     * @return number of bytes written
+     * @throws IOException when write to output stream fails
+     */
+    long readBase64(OutputStream outputStream) throws IOException {
+        try {
+            requireStartElement("base64");
+            var decoder = Base64.getDecoder();
+            var chars = new byte[BASE64_BUFFER_SIZE];
+            var bytes = new byte[BASE64_BUFFER_SIZE / 4 * 3];
+            int charCount = 0;
+            long written = 0;
+            int event;
+            while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+                if ((event != XMLStreamConstants.CHARACTERS) && (event != XMLStreamConstants.CDATA)
+                        && (event != XMLStreamConstants.SPACE)) {
+                    continue;
+                }
+                var text = reader.getTextCharacters();
+                var end = reader.getTextStart() + reader.getTextLength();
+                for (int i = reader.getTextStart(); i < end; i++) {
+                    var c = text[i];
+                    if (Character.isWhitespace(c)) {
+                        continue;
+                    }
+                    chars[charCount++] = (byte) c;
+                    if (charCount == chars.length) {
+                        var length = decoder.decode(chars, bytes);
+                        outputStream.write(bytes, 0, length);
+                        written += length;
+                        charCount = 0;
+                    }
+                }
+            }
+            if (charCount > 0) {
+                var length = decoder.decode(Arrays.copyOf(chars, charCount), bytes);
+                outputStream.write(bytes, 0, length);
+                written += length;
+            }
+            requireEndElement("value");
+            return written;
+        } catch (XMLStreamException e) {
+            throw new XmlRpcParseException("Failed to parse Xml-Rpc base64 value", e);
+        }
+    }
+
+    /**
+     * Read beginning of array value; reader must be positioned on start of value element. Items of array are then read
+     * using {@link #nextArrayItem()} and {@link #readValue()}
+     */
+    void readArrayStart() {
+        try {
+            requireStartElement("array");
+            requireStartElement("data");
+        } catch (XMLStreamException e) {
+            throw new XmlRpcParseException("Failed to parse Xml-Rpc array", e);
+        }
+    }
+
+    /**
+     * Move to next item of array
+     *
+     * @return true if reader is positioned on start of next item value, false if end of array has been reached
+     */
+    boolean nextArrayItem() {
+        try {
+            if (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (!reader.getLocalName().equals("value")) {
+                    throw new XmlRpcParseException("Element value expected, found " + reader.getLocalName());
+                }
+                return true;
+            }
+            requireEndElement("array");
+            requireEndElement("value");
+            return false;
+        } catch (XMLStreamException e) {
+            throw new XmlRpcParseException("Failed to parse Xml-Rpc array", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new XmlRpcParseException("Failed to close Xml-Rpc response parser", e);
+        } finally {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                // response has already been processed or abandoned, nothing else to do
+            }
+        }
+    }
+}
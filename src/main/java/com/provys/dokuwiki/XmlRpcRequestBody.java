@@ -0,0 +1,167 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcArray;
+import com.provys.xmlrpc.XmlRpcStruct;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Serialized Xml-Rpc method call. Call is held as sequence of serialized fragments and streamed binary parameters
+ * ({@link Base64Source}); streamed parameters are only read and encoded when body is being sent.
+ */
+final class XmlRpcRequestBody implements DokuWikiTransport.RequestBody {
+
+    /** segments of body; either byte[] with serialized xml or {@link Base64Source} */
+    @Nonnull
+    private final List<Object> segments;
+    private final long contentLength;
+    private final boolean repeatable;
+    private final boolean readOnly;
+
+    private XmlRpcRequestBody(List<Object> segments, boolean readOnly) {
+        this.segments = segments;
+        this.readOnly = readOnly;
+        long length = 0;
+        boolean repeatable = true;
+        for (var segment : segments) {
+            if (segment instanceof byte[]) {
+                length += ((byte[]) segment).length;
+            } else {
+                length += ((Base64Source) segment).getEncodedLength();
+                repeatable &= ((Base64Source) segment).isRepeatable();
+            }
+        }
+        this.contentLength = length;
+        this.repeatable = repeatable;
+    }
+
+    /**
+     * Serialize method call
+     *
+     * @param method is name of Xml-Rpc method
+     * @param params are parameters of call
+     * @return serialized call
+     */
+    @Nonnull
+    static XmlRpcRequestBody of(String method, Object... params) {
+        var segments = new ArrayList<>();
+        var buffer = new ByteArrayOutputStream();
+        var writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        try {
+            new XmlRpcWriter(writer, source -> {
+                writer.flush();
+                segments.add(buffer.toByteArray());
+                buffer.reset();
+                segments.add(source);
+            }).writeCall(method, params);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize Xml-Rpc call " + method, e);
+        }
+        segments.add(buffer.toByteArray());
+        return new XmlRpcRequestBody(segments, isReadOnly(method, params));
+    }
+
+    /**
+     * Decide if call only reads data; multicall is read-only if all calls it consists of are reads
+     */
+    private static boolean isReadOnly(String method, Object... params) {
+        if (!method.equals("system.multicall")) {
+            return RetryingTransport.isReadMethod(method);
+        }
+        if ((params.length != 1) || !(params[0] instanceof XmlRpcArray)) {
+            return false;
+        }
+        for (var call : (XmlRpcArray) params[0]) {
+            if (!(call instanceof XmlRpcStruct)) {
+                return false;
+            }
+            var methodName = ((XmlRpcStruct) call).get("methodName");
+            if (!(methodName instanceof String) || !RetryingTransport.isReadMethod((String) methodName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return length of body in bytes
+     */
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return repeatable;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return stream producing body content; streamed parameters are opened lazily
+     */
+    @Nonnull
+    @Override
+    public InputStream open() {
+        var streams = new ArrayList<InputStream>(segments.size());
+        for (var segment : segments) {
+            if (segment instanceof byte[]) {
+                streams.add(new ByteArrayInputStream((byte[]) segment));
+            } else {
+                streams.add(new LazyInputStream((Base64Source) segment));
+            }
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    /**
+     * Stream that opens streamed parameter on first read
+     */
+    private static final class LazyInputStream extends InputStream {
+        private final Base64Source source;
+        private InputStream delegate;
+
+        private LazyInputStream(Base64Source source) {
+            this.source = source;
+        }
+
+        private InputStream getDelegate() throws IOException {
+            if (delegate == null) {
+                delegate = source.openEncoded();
+            }
+            return delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return getDelegate().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return getDelegate().read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+    }
+}
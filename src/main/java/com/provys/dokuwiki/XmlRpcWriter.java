@@ -0,0 +1,139 @@
+package com.provys.dokuwiki;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Serializes Xml-Rpc method call. Used by client's own streaming Xml-Rpc implementation.
+ */
+final class XmlRpcWriter {
+
+    /** format of dateTime.iso8601 values, as used by DokuWiki */
+    static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HH:mm:ss");
+
+    /**
+     * Handler of streamed binary parameters; it is invoked after opening base64 element was written to writer
+     */
+    @FunctionalInterface
+    interface StreamHandler {
+        void handle(Base64Source source) throws IOException;
+    }
+
+    private final Writer writer;
+    private final StreamHandler streamHandler;
+
+    XmlRpcWriter(Writer writer, StreamHandler streamHandler) {
+        this.writer = writer;
+        this.streamHandler = streamHandler;
+    }
+
+    /**
+     * Write complete method call
+     *
+     * @param method is name of Xml-Rpc method
+     * @param params are parameters of call
+     * @throws IOException when write to underlying writer fails
+     */
+    void writeCall(String method, Object... params) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodCall><methodName>");
+        writeEscaped(method);
+        writer.write("</methodName><params>");
+        for (var param : params) {
+            writer.write("<param>");
+            writeValue(param);
+            writer.write("</param>");
+        }
+        writer.write("</params></methodCall>");
+        writer.flush();
+    }
+
+    /**
+     * Write single value, including enclosing value element
+     *
+     * @param value is value to be written
+     * @throws IOException when write to underlying writer fails
+     */
+    void writeValue(Object value) throws IOException {
+        writer.write("<value>");
+        if (value instanceof String) {
+            writer.write("<string>");
+            writeEscaped((String) value);
+            writer.write("</string>");
+        } else if ((value instanceof Integer) || (value instanceof Short) || (value instanceof Byte)) {
+            writer.write("<int>" + value + "</int>");
+        } else if (value instanceof Long) {
+            var longValue = (long) value;
+            if ((longValue < Integer.MIN_VALUE) || (longValue > Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException("Value " + longValue + " does not fit Xml-Rpc int");
+            }
+            writer.write("<int>" + value + "</int>");
+        } else if (value instanceof Boolean) {
+            writer.write((Boolean) value ? "<boolean>1</boolean>" : "<boolean>0</boolean>");
+        } else if ((value instanceof Double) || (value instanceof Float)) {
+            writer.write("<double>" + value + "</double>");
+        } else if (value instanceof byte[]) {
+            writer.write("<base64>");
+            writer.write(Base64.getEncoder().encodeToString((byte[]) value));
+            writer.write("</base64>");
+        } else if (value instanceof Base64Source) {
+            writer.write("<base64>");
+            streamHandler.handle((Base64Source) value);
+            writer.write("</base64>");
+        } else if (value instanceof LocalDateTime) {
+            writer.write("<dateTime.iso8601>" + DATE_TIME_FORMAT.format((LocalDateTime) value)
+                    + "</dateTime.iso8601>");
+        } else if (value instanceof Map) {
+            writer.write("<struct>");
+            for (var entry : ((Map<?, ?>) value).entrySet()) {
+                writer.write("<member><name>");
+                writeEscaped(entry.getKey().toString());
+                writer.write("</name>");
+                writeValue(entry.getValue());
+                writer.write("</member>");
+            }
+            writer.write("</struct>");
+        } else if (value instanceof Collection) {
+            writer.write("<array><data>");
+            for (var item : (Collection<?>) value) {
+                writeValue(item);
+            }
+            writer.write("</data></array>");
+        } else {
+            throw new IllegalArgumentException("Unsupported Xml-Rpc parameter type "
+                    + ((value == null) ? "null" : value.getClass().getName()));
+        }
+        writer.write("</value>");
+    }
+
+    private void writeEscaped(String text) throws IOException {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '\r':
+                    replacement = "&#13;";
+                    break;
+                default:
+                    continue;
+            }
+            writer.write(text, start, i - start);
+            writer.write(replacement);
+            start = i + 1;
+        }
+        writer.write(text, start, text.length() - start);
+    }
+}
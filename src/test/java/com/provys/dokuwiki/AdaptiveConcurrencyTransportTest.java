@@ -0,0 +1,76 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AdaptiveConcurrencyTransportTest {
+
+    @Test
+    void adaptTest() throws IOException {
+        var overloaded = new AtomicBoolean();
+        DokuWikiTransport delegate = (method, body) -> {
+            if (overloaded.get()) {
+                throw new HttpStatusException(method, 503);
+            }
+            return new ByteArrayInputStream(new byte[0]);
+        };
+        var transport = new AdaptiveConcurrencyTransport(delegate, 4, 1, 6, Duration.ofSeconds(1), 0.5);
+        var body = XmlRpcRequestBody.of("wiki.getPage", "ns:page");
+        // keep limit utilized - limit grows
+        var open = new ArrayList<InputStream>();
+        for (int i = 0; i < 60; i++) {
+            open.add(transport.send("wiki.getPage", body));
+            if (open.size() == 3) {
+                for (var stream : open) {
+                    stream.close();
+                }
+                open.clear();
+            }
+        }
+        for (var stream : open) {
+            stream.close();
+        }
+        assertThat(transport.getLimit()).isEqualTo(6);
+        assertThat(transport.getInFlight()).isZero();
+        // overload halves limit
+        overloaded.set(true);
+        assertThatThrownBy(() -> transport.send("wiki.getPage", body)).isInstanceOf(HttpStatusException.class);
+        assertThat(transport.getLimit()).isEqualTo(3);
+        assertThatThrownBy(() -> transport.send("wiki.getPage", body)).isInstanceOf(HttpStatusException.class);
+        assertThatThrownBy(() -> transport.send("wiki.getPage", body)).isInstanceOf(HttpStatusException.class);
+        assertThat(transport.getLimit()).isEqualTo(1);
+        assertThat(transport.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitTest() throws IOException, InterruptedException {
+        var transport = new AdaptiveConcurrencyTransport((method, body) -> new ByteArrayInputStream(new byte[0]),
+                1, 1, 1, Duration.ofSeconds(1));
+        var body = XmlRpcRequestBody.of("wiki.getPage", "ns:page");
+        var first = transport.send("wiki.getPage", body);
+        var sent = new AtomicBoolean();
+        var thread = new Thread(() -> {
+            try {
+                transport.send("wiki.getPage", body).close();
+                sent.set(true);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join(100);
+        assertThat(sent.get()).isFalse();
+        first.close();
+        thread.join(1000);
+        assertThat(sent.get()).isTrue();
+        assertThat(transport.getThrottledCalls()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AsyncDokuWikiClientTest {
+
+    private FakeDokuWikiServer server;
+    private DokuWikiClient client;
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void maxInFlightTest() throws Exception {
+        server.setLatency(Duration.ofMillis(200), Duration.ofMillis(200));
+        try (var asyncClient = new AsyncDokuWikiClient(client, 2)) {
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(asyncClient.putPageAsync("async:page" + i, "Content " + i));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+            assertThat(asyncClient.getPageAsync("async:page5").get(10, TimeUnit.SECONDS)).isEqualTo("Content 5");
+            assertThat(server.getMaxConcurrentCalls()).isEqualTo(2);
+            // slot is released just after future of the call has been completed
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((asyncClient.getInFlight() > 0) && (System.nanoTime() < deadline)) {
+                Thread.sleep(1);
+            }
+            assertThat(asyncClient.getInFlight()).isZero();
+            assertThat(asyncClient.getWaiting()).isZero();
+        }
+    }
+
+    @Test
+    void sameThreadExecutorTest() throws Exception {
+        server.setLatency(Duration.ofMillis(300), Duration.ofMillis(300));
+        try (var asyncClient = new AsyncDokuWikiClient(client, Runnable::run, 1)) {
+            var runner = Executors.newSingleThreadExecutor();
+            try {
+                // first call runs in runner thread and keeps the only slot while further calls are queued
+                var first = CompletableFuture.supplyAsync(() -> asyncClient.getPageAsync("async:page"), runner);
+                while (asyncClient.getInFlight() == 0) {
+                    Thread.sleep(1);
+                }
+                var maxDepth = new AtomicInteger();
+                var futures = new ArrayList<CompletableFuture<Void>>();
+                for (int i = 0; i < 100; i++) {
+                    futures.add(asyncClient.getPageAsync("async:page" + i).thenRun(() -> maxDepth.accumulateAndGet(
+                            Thread.currentThread().getStackTrace().length, Math::max)));
+                }
+                assertThat(asyncClient.getWaiting()).isEqualTo(100);
+                server.setLatency(Duration.ZERO, Duration.ZERO);
+                first.get(30, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS);
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+                // queued calls are run in loop, not by recursion
+                assertThat(maxDepth.get()).isLessThan(100);
+                assertThat(server.getCallCount("wiki.getPage")).isEqualTo(101);
+            } finally {
+                runner.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void closeTest() throws Exception {
+        server.setLatency(Duration.ofMillis(200), Duration.ofMillis(200));
+        var asyncClient = new AsyncDokuWikiClient(client, 1);
+        var first = asyncClient.getPageAsync("async:page");
+        var queued = asyncClient.getPageAsync("async:other");
+        asyncClient.close();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEmpty();
+        assertThatThrownBy(() -> queued.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> asyncClient.getPageAsync("async:page").get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void rejectedTest() {
+        var executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        try (var asyncClient = new AsyncDokuWikiClient(client, executor, 2)) {
+            assertThatThrownBy(() -> asyncClient.getPageAsync("async:page").get(10, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(RejectedExecutionException.class);
+            assertThat(asyncClient.getInFlight()).isZero();
+        }
+    }
+}
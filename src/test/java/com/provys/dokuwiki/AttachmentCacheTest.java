@@ -0,0 +1,141 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AttachmentCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] content(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        var result = new byte[buffer.remaining()];
+        buffer.get(result);
+        return result;
+    }
+
+    private long countFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void getTest() {
+        var cache = new AttachmentCache(directory, 1000);
+        cache.put("ns:file.txt", 10, content("content"));
+        var buffer = cache.get("ns:file.txt", 10);
+        assertThat(buffer).isNotNull();
+        assertThat(buffer.isReadOnly()).isTrue();
+        assertThat(toArray(buffer)).isEqualTo(content("content"));
+        // views are independent
+        assertThat(toArray(cache.get("ns:file.txt", 10))).isEqualTo(content("content"));
+        assertThat(cache.get("ns:file.txt", 11)).isNull();
+        assertThat(cache.get("ns:other.txt", 10)).isNull();
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deduplicationTest() throws IOException {
+        var cache = new AttachmentCache(directory, 1000);
+        cache.put("ns:a.txt", 10, content("shared"));
+        cache.put("ns:b.txt", 10, content("shared"));
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getContentCount()).isEqualTo(1);
+        assertThat(cache.getSizeInBytes()).isEqualTo(6);
+        assertThat(countFiles()).isEqualTo(1);
+        cache.invalidate("ns:a.txt");
+        assertThat(toArray(cache.get("ns:b.txt", 10))).isEqualTo(content("shared"));
+        cache.invalidate("ns:b.txt");
+        assertThat(cache.getSizeInBytes()).isZero();
+        assertThat(countFiles()).isZero();
+    }
+
+    @Test
+    void evictionTest() throws IOException {
+        var cache = new AttachmentCache(directory, 20);
+        cache.put("ns:a.txt", 1, content("0123456789"));
+        var evicted = cache.get("ns:a.txt", 1);
+        cache.put("ns:b.txt", 1, content("abcdefghij"));
+        cache.get("ns:a.txt", 1);
+        cache.put("ns:c.txt", 1, content("ABCDEFGHIJ"));
+        // b was least recently used
+        assertThat(cache.get("ns:b.txt", 1)).isNull();
+        assertThat(cache.get("ns:a.txt", 1)).isNotNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getSizeInBytes()).isEqualTo(20);
+        assertThat(countFiles()).isEqualTo(2);
+        cache.clear();
+        assertThat(countFiles()).isZero();
+        // buffer remains valid after its content has been removed from cache
+        assertThat(toArray(evicted)).isEqualTo(content("0123456789"));
+        // content bigger than cache is returned, but not cached
+        assertThat(toArray(cache.put("ns:big.txt", 1, content("x".repeat(30))))).hasSize(30);
+        assertThat(cache.size()).isZero();
+        assertThat(countFiles()).isZero();
+    }
+
+    @Test
+    void replaceTest() throws IOException {
+        var cache = new AttachmentCache(directory, 1000);
+        var buffer = cache.put("ns:a.txt", 1, content("content"));
+        // same content under new modification time keeps content file
+        cache.put("ns:a.txt", 2, content("content"));
+        assertThat(cache.getContentCount()).isEqualTo(1);
+        assertThat(countFiles()).isEqualTo(1);
+        assertThat(cache.get("ns:a.txt", 2)).isNotNull();
+        cache.put("ns:a.txt", 3, content("changed"));
+        assertThat(cache.getContentCount()).isEqualTo(1);
+        assertThat(cache.getSizeInBytes()).isEqualTo(7);
+        assertThat(countFiles()).isEqualTo(1);
+        assertThat(toArray(buffer)).isEqualTo(content("content"));
+    }
+
+    @Test
+    void pendingDeleteTest() throws IOException {
+        // leftover that cannot be removed (non-empty directory stands for file still mapped by other process)
+        var leftover = Files.createDirectory(directory.resolve("0".repeat(64)));
+        Files.createFile(leftover.resolve("blocker"));
+        var cache = new AttachmentCache(directory, 1000);
+        assertThat(cache.getPendingDeleteCount()).isEqualTo(1);
+        cache.put("ns:a.txt", 1, content("content"));
+        assertThat(cache.getPendingDeleteCount()).isEqualTo(1);
+        // removal is retried on next eviction
+        Files.delete(leftover.resolve("blocker"));
+        cache.put("ns:b.txt", 1, content("other"));
+        assertThat(cache.getPendingDeleteCount()).isZero();
+        assertThat(leftover).doesNotExist();
+    }
+
+    @Test
+    void cachingClientTest() {
+        try (var server = new FakeDokuWikiServer("user", "password")) {
+            var client = new CachingDokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"),
+                    new PageCache(1000), new AttachmentCache(directory, 1000));
+            client.putAttachment("ns:file.txt", content("attachment"), false);
+            var attachment = client.getAttachments("ns", 0).get(0);
+            assertThat(toArray(client.getAttachmentBuffer(attachment))).isEqualTo(content("attachment"));
+            assertThat(toArray(client.getAttachmentBuffer(attachment))).isEqualTo(content("attachment"));
+            assertThat(server.getCallCount("wiki.getAttachment")).isEqualTo(1);
+            client.putAttachment("ns:file.txt", content("changed"), true);
+            assertThat(client.getAttachmentCache().size()).isZero();
+            client.getAttachmentBuffer(client.getAttachments("ns", 0).get(0));
+            assertThat(client.getAttachmentCache().size()).isEqualTo(1);
+            client.deleteAttachment("ns:file.txt");
+            assertThat(client.getAttachmentCache().size()).isZero();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AttachmentManifestTest {
+
+    private static final LocalDateTime LAST_MODIFIED = LocalDateTime.of(2020, 1, 15, 10, 12, 13);
+
+    @Test
+    void isUnchangedTest() {
+        var manifest = new AttachmentManifest();
+        var digest = ContentDigest.of("Test attachment".getBytes());
+        manifest.record("ns:file.svg", 15, LAST_MODIFIED, digest);
+        assertThat(manifest.isUnchanged("ns:file.svg", 15, LAST_MODIFIED, digest)).isTrue();
+        assertThat(manifest.isUnchanged("ns:file.svg", 15, LAST_MODIFIED.plusSeconds(1), digest)).isFalse();
+        assertThat(manifest.isUnchanged("ns:file.svg", 15, LAST_MODIFIED,
+                ContentDigest.of("Test attachmen2".getBytes()))).isFalse();
+        assertThat(manifest.isUnchanged("ns:other.svg", 15, LAST_MODIFIED, digest)).isFalse();
+    }
+
+    @Test
+    void saveTest(@TempDir Path tempDir) {
+        var file = tempDir.resolve("manifest.tsv");
+        var manifest = new AttachmentManifest(file);
+        manifest.record("ns:file.svg", 15, LAST_MODIFIED, "abcd");
+        manifest.save();
+        var loaded = new AttachmentManifest(file);
+        assertThat(loaded.size()).isEqualTo(1);
+        assertThat(loaded.isUnchanged("ns:file.svg", 15, LAST_MODIFIED, "abcd")).isTrue();
+    }
+}
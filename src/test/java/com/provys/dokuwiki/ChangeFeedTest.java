@@ -0,0 +1,56 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private FakeDokuWikiServer server;
+    private DokuWikiClient client;
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+        client.putPage("feed:old", "Changed before feed was created");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void pollTest() {
+        var feed = client.newChangeFeed(client.getPageInfo("feed:old").getVersion() + 1);
+        // no changes is reported by wiki as fault, feed returns empty list
+        assertThat(feed.poll()).isEmpty();
+        client.putPage("feed:page1", "Content 1");
+        client.putAttachment("feed:file.txt", "content".getBytes(StandardCharsets.UTF_8), false);
+        client.putPage("feed:page2", "Content 2");
+        var changes = feed.poll();
+        assertThat(changes).extracting(RecentChange::getId)
+                .containsExactly("feed:page1", "feed:file.txt", "feed:page2");
+        assertThat(feed.getCursor()).isEqualTo(changes.get(2).getVersion());
+        // change at cursor is listed by wiki again, but it is not returned twice
+        assertThat(feed.poll()).isEmpty();
+        client.putPage("feed:page1", "Changed content");
+        assertThat(feed.poll()).extracting(RecentChange::getId).containsExactly("feed:page1");
+    }
+
+    @Test
+    void resumeTest() {
+        var feed = client.newChangeFeed(0, true, false);
+        assertThat(feed.poll()).extracting(RecentChange::getId).containsExactly("feed:old");
+        client.putAttachment("feed:file.txt", "content".getBytes(StandardCharsets.UTF_8), false);
+        client.putPage("feed:page1", "Content 1");
+        // feed resumed from persisted cursor only returns page changes made since
+        var resumed = client.newChangeFeed(feed.getCursor() + 1, true, false);
+        assertThat(resumed.poll()).extracting(RecentChange::getId).containsExactly("feed:page1");
+    }
+}
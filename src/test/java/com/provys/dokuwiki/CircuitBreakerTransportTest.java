@@ -0,0 +1,87 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CircuitBreakerTransportTest {
+
+    @Test
+    void breakerTest() throws IOException, InterruptedException {
+        var down = new AtomicBoolean(true);
+        var calls = new AtomicInteger();
+        DokuWikiTransport delegate = (method, body) -> {
+            calls.incrementAndGet();
+            if (down.get()) {
+                throw new HttpStatusException(method, 502);
+            }
+            return new ByteArrayInputStream(new byte[0]);
+        };
+        var breaker = new CircuitBreakerTransport(delegate, 2, Duration.ofMillis(50));
+        var body = XmlRpcRequestBody.of("wiki.getPage", "ns:page");
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> breaker.send("wiki.getPage", body)).isInstanceOf(HttpStatusException.class);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerTransport.State.OPEN);
+        assertThatThrownBy(() -> breaker.send("wiki.getPage", body))
+                .isInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(breaker.getRejectedCount()).isEqualTo(1);
+        // trial call fails - breaker opens again
+        Thread.sleep(60);
+        assertThatThrownBy(() -> breaker.send("wiki.getPage", body)).isInstanceOf(HttpStatusException.class);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerTransport.State.OPEN);
+        assertThat(breaker.getOpenedCount()).isEqualTo(2);
+        // trial call succeeds - breaker closes
+        down.set(false);
+        Thread.sleep(60);
+        breaker.send("wiki.getPage", body).close();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerTransport.State.CLOSED);
+    }
+
+    @Test
+    void nonTransientFailureTest() {
+        DokuWikiTransport delegate = (method, body) -> {
+            throw new HttpStatusException(method, 403);
+        };
+        var breaker = new CircuitBreakerTransport(delegate, 1, Duration.ofMinutes(1));
+        var body = XmlRpcRequestBody.of("wiki.getPage", "ns:page");
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> breaker.send("wiki.getPage", body)).isInstanceOf(HttpStatusException.class);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerTransport.State.CLOSED);
+    }
+
+    @Test
+    void loginFailureTest() {
+        DokuWikiTransport delegate = (method, body) -> {
+            throw new IOException("Login of user user to wiki failed");
+        };
+        var breaker = new CircuitBreakerTransport(delegate, 1, Duration.ofMinutes(1));
+        var body = XmlRpcRequestBody.of("wiki.getPage", "ns:page");
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> breaker.send("wiki.getPage", body))
+                    .hasMessage("Login of user user to wiki failed");
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerTransport.State.CLOSED);
+    }
+
+    @Test
+    void runtimeFailureTest() {
+        DokuWikiTransport delegate = (method, body) -> {
+            throw new IllegalStateException("Client has been closed");
+        };
+        var breaker = new CircuitBreakerTransport(delegate, 2, Duration.ofMinutes(1));
+        var body = XmlRpcRequestBody.of("wiki.getPage", "ns:page");
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> breaker.send("wiki.getPage", body)).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreakerTransport.State.OPEN);
+    }
+}
@@ -3,6 +3,11 @@ package com.provys.dokuwiki;
 import com.provys.xmlrpc.XmlRpcFaultException;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
 import static org.assertj.core.api.Assertions.*;
 
 class DokuWikiClientIT {
@@ -14,6 +19,32 @@ class DokuWikiClientIT {
         assertThat(dokuWikiClient.getVersion()).startsWith("Release ");
     }
 
+    @Test
+    void transportClientTest() {
+        var transport = HttpClientTransport.builder("http://provys-wiki.dcit.cz/lib/exe/xmlrpc.php",
+                "stehlik", "stehlik")
+                .connectTimeout(null)
+                .requestTimeout(null)
+                .http2(true)
+                .build();
+        var client = new DokuWikiClient(transport);
+        assertThat(client.getVersion()).startsWith("Release ");
+        client.putPage("playground:java:transport:test1", "Test text");
+        assertThat(client.getPage("playground:java:transport:test1")).isEqualTo("Test text");
+        assertThatThrownBy(() -> client.getAttachment("playground:java:transport:missing.svg"))
+                .isInstanceOf(DokuWikiFaultException.class)
+                .hasMessage("The requested file does not exist");
+    }
+
+    @Test
+    void sessionLoginTest() {
+        var client = new DokuWikiClient(new HttpClientTransport("http://provys-wiki.dcit.cz/lib/exe/xmlrpc.php",
+                "stehlik", "stehlik", true));
+        client.putPage("playground:java:session:test1", "Test text");
+        assertThat(client.getPage("playground:java:session:test1")).isEqualTo("Test text");
+        assertThat(client.getPageNames("playground:java:session")).containsExactly("test1");
+    }
+
     @Test
     void getNamespaceNames() {
         dokuWikiClient.putPage("playground:java:getns:start", "Test start text");
@@ -27,6 +58,19 @@ class DokuWikiClientIT {
                 .containsExactlyInAnyOrder("sub", "sub2");
     }
 
+    @Test
+    void namespaceIndexTest() {
+        dokuWikiClient.putPage("playground:java:nsindex:test1", "Test text");
+        dokuWikiClient.putPage("playground:java:nsindex:sub:test2", "Test text");
+        var index = NamespaceIndex.build(dokuWikiClient);
+        assertThat(index.getNamespaceNames("playground:java:nsindex")).containsExactly("sub");
+        assertThat(index.getPageNames("playground:java:nsindex")).containsExactly("test1");
+        dokuWikiClient.putPage("playground:java:nsindex:sub2:test3", "Test text");
+        dokuWikiClient.deletePage("playground:java:nsindex:sub:test2");
+        index.refresh();
+        assertThat(index.getNamespaceNames("playground:java:nsindex")).containsExactly("sub2");
+    }
+
     @Test
     void deleteNamespaceTest() {
         dokuWikiClient.putPage("playground:java:deletens:test1", "Test text");
@@ -58,6 +102,19 @@ class DokuWikiClientIT {
         assertThat(dokuWikiClient.getAllPages().size()).isGreaterThan(100);
     }
 
+    @Test
+    void streamPagesTest() {
+        dokuWikiClient.putPage("playground:java:streampages:test1", "Test text");
+        dokuWikiClient.putPage("playground:java:streampages:sub:test2", "Test text 2");
+        try (var pages = dokuWikiClient.streamPages("playground:java:streampages", 0)) {
+            assertThat(pages.map(PageListResult::getId)).containsExactlyInAnyOrder(
+                    "playground:java:streampages:test1", "playground:java:streampages:sub:test2");
+        }
+        try (var pages = dokuWikiClient.streamAllPages()) {
+            assertThat(pages.limit(101).count()).isEqualTo(101);
+        }
+    }
+
     @Test
     void searchPageIds() {
         dokuWikiClient.putPage("playground:java:searchpages:test1", "Test text");
@@ -78,6 +135,13 @@ class DokuWikiClientIT {
         assertThat(dokuWikiClient.getPage("playground:java:test")).isEqualTo("Content of test page");
     }
 
+    @Test
+    void getPageAsyncTest() {
+        try (var asyncClient = new AsyncDokuWikiClient(dokuWikiClient, 2)) {
+            assertThat(asyncClient.getPageAsync("playground:java:test").join()).isEqualTo("Content of test page");
+        }
+    }
+
     @Test
     void putPageTest() {
         dokuWikiClient.putPage("playground:java:puttest", "Test text");
@@ -86,6 +150,19 @@ class DokuWikiClientIT {
         assertThat(dokuWikiClient.getPage("playground:java:puttest")).isEqualTo("Different test text");
     }
 
+    @Test
+    void putPageOnlyIfChangedTest() {
+        var fingerprints = new PageFingerprintStore();
+        var text = "Test text " + System.nanoTime();
+        assertThat(dokuWikiClient.putPage("playground:java:putchangedtest", text, null, null, fingerprints))
+                .isTrue();
+        assertThat(dokuWikiClient.putPage("playground:java:putchangedtest", text, null, null, fingerprints))
+                .isFalse();
+        assertThat(dokuWikiClient.putPage("playground:java:putchangedtest", text + " changed", null, null,
+                fingerprints)).isTrue();
+        assertThat(dokuWikiClient.getPage("playground:java:putchangedtest")).isEqualTo(text + " changed");
+    }
+
     @Test
     void deletePageTest() {
         dokuWikiClient.putPage("playground:java:deletetest", "Delete test");
@@ -114,6 +191,62 @@ class DokuWikiClientIT {
         assertThat(dokuWikiClient.getPages("playground:java:deletepages", 0)).isEmpty();
     }
 
+    @Test
+    void deleteNamespaceParallelTest() {
+        dokuWikiClient.putPage("playground:java:deletensparallel:test1", "Test text");
+        dokuWikiClient.putPage("playground:java:deletensparallel:test2", "Test text 2");
+        dokuWikiClient.putPage("playground:java:deletensparallel:sub:test3", "Test text");
+        dokuWikiClient.putAttachment("playground:java:deletensparallel:testtext.svg", "Test attachment".getBytes(),
+                true);
+        var result = dokuWikiClient.deleteNamespace("playground:java:deletensparallel", 4);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getSucceeded()).containsExactlyInAnyOrder("playground:java:deletensparallel:test1",
+                "playground:java:deletensparallel:test2", "playground:java:deletensparallel:sub:test3",
+                "playground:java:deletensparallel:testtext.svg");
+        assertThat(dokuWikiClient.getPages("playground:java:deletensparallel", 0)).isEmpty();
+        assertThat(dokuWikiClient.getAttachments("playground:java:deletensparallel", 0)).isEmpty();
+    }
+
+    @Test
+    void batchTest() {
+        var batch = dokuWikiClient.newBatch(2);
+        batch.putPage("playground:java:batch:test1", "Test text")
+                .putPage("playground:java:batch:test2", "Test text 2")
+                .putAttachment("playground:java:batch:testtext.svg", "Test attachment".getBytes(), true)
+                .deleteAttachment("playground:java:batch:non_existent_file.svg");
+        var results = batch.execute();
+        assertThat(batch.size()).isZero();
+        assertThat(results).extracting(BatchCallResult::getId).containsExactly("playground:java:batch:test1",
+                "playground:java:batch:test2", "playground:java:batch:testtext.svg",
+                "playground:java:batch:non_existent_file.svg");
+        assertThat(results).extracting(BatchCallResult::isSuccess).containsExactly(true, true, true, false);
+        assertThat(dokuWikiClient.getPage("playground:java:batch:test2")).isEqualTo("Test text 2");
+    }
+
+    @Test
+    void changeFeedTest() {
+        var feed = dokuWikiClient.newChangeFeed((int) (System.currentTimeMillis() / 1000) - 1);
+        dokuWikiClient.putPage("playground:java:changefeed:test1", "Test text " + System.nanoTime());
+        assertThat(feed.poll()).extracting(RecentChange::getId).contains("playground:java:changefeed:test1");
+        assertThat(feed.poll()).extracting(RecentChange::getId).doesNotContain("playground:java:changefeed:test1");
+    }
+
+    @Test
+    void synchronizeNamespaceTest() {
+        dokuWikiClient.putPage("playground:java:sync:test1", "Test text");
+        dokuWikiClient.putPage("playground:java:sync:leftover", "Test text");
+        var synchronizer = new NamespaceSynchronizer(dokuWikiClient, "playground:java:sync", 4)
+                .addPage("test1", "Test text")
+                .addPage("sub:test2", "Test text 2")
+                .addAttachment("testtext.svg", "Test attachment".getBytes());
+        var plan = synchronizer.plan();
+        assertThat(plan.getIds(SyncAction.Type.CREATE_PAGE)).containsExactly("playground:java:sync:sub:test2");
+        assertThat(plan.getIds(SyncAction.Type.DELETE_PAGE)).containsExactly("playground:java:sync:leftover");
+        assertThat(plan.getIds(SyncAction.Type.UPDATE_PAGE)).isEmpty();
+        assertThat(synchronizer.execute(plan).isSuccess()).isTrue();
+        assertThat(synchronizer.plan().isEmpty()).isTrue();
+    }
+
     @Test
     void getAttachmentFileNamesTest() {
         dokuWikiClient.putAttachment("playground:java:getfilenames:testtext.svg", "Test attachment".getBytes(),
@@ -129,6 +262,20 @@ class DokuWikiClientIT {
                 .hasMessage("The requested file does not exist");
     }
 
+    @Test
+    void getAttachmentStreamTest() {
+        dokuWikiClient.putAttachment("playground:java:getattachment:testtext.svg", "Test attachment".getBytes(),
+                true);
+        var outputStream = new ByteArrayOutputStream();
+        assertThat(dokuWikiClient.getAttachment("playground:java:getattachment:testtext.svg", outputStream))
+                .isEqualTo("Test attachment".getBytes().length);
+        assertThat(outputStream.toByteArray()).containsExactly("Test attachment".getBytes());
+        assertThatThrownBy(() -> dokuWikiClient.getAttachment("playground:java:non_existent_file.svg",
+                new ByteArrayOutputStream()))
+                .isInstanceOf(DokuWikiFaultException.class)
+                .hasMessage("The requested file does not exist");
+    }
+
     @Test
     void putAttachmentTest() {
         assertThatCode(() -> dokuWikiClient.putAttachment(
@@ -145,6 +292,24 @@ class DokuWikiClientIT {
                 .containsExactly("Test attachment 2".getBytes());
     }
 
+    @Test
+    void putAttachmentStreamTest() throws IOException {
+        var file = Files.createTempFile("dokuwiki", ".svg");
+        try {
+            Files.write(file, "Test attachment from file".getBytes());
+            dokuWikiClient.putAttachment("playground:java:putattachment:testfile.svg", file, true);
+            assertThat(dokuWikiClient.getAttachment("playground:java:putattachment:testfile.svg"))
+                    .containsExactly("Test attachment from file".getBytes());
+        } finally {
+            Files.delete(file);
+        }
+        var content = "Test attachment from stream".getBytes();
+        dokuWikiClient.putAttachment("playground:java:putattachment:testfile.svg", new ByteArrayInputStream(content),
+                content.length, true);
+        assertThat(dokuWikiClient.getAttachment("playground:java:putattachment:testfile.svg"))
+                .containsExactly(content);
+    }
+
     @SuppressWarnings("squid:S2925") // we can only verify if data has been changed with second granularity on wiki
     @Test
     void putAttachment2Test() {
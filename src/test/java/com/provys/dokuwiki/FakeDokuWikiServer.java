@@ -0,0 +1,737 @@
+package com.provys.dokuwiki;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process emulation of DokuWiki Xml-Rpc endpoint, used to test client without access to real wiki. Server keeps
+ * pages and attachments in memory and implements methods used by {@link DokuWikiClient}, including page list depth
+ * semantics, faults with DokuWiki's messages, recent changes and multicall. Like DokuWiki, server cleans ids of written
+ * and read pages and attachments (cleanID) and line endings of written text (cleanText). Authentication via HTTP Basic
+ * or session cookie (dokuwiki.login) is verified against configured credentials.
+ * <p>
+ * Latency and error rate can be injected to test client behaviour under load or when wiki is failing. Server counts
+ * calls per method and tracks maximal number of concurrently processed requests.
+ */
+final class FakeDokuWikiServer implements AutoCloseable {
+
+    /** name of session cookie set by dokuwiki.login */
+    private static final String SESSION_COOKIE = "DokuWiki";
+
+    private static final class Page {
+        final String text;
+        final int rev;
+        final String author;
+
+        Page(String text, int rev, String author) {
+            this.text = text;
+            this.rev = rev;
+            this.author = author;
+        }
+    }
+
+    private static final class Attachment {
+        final byte[] content;
+        final int rev;
+
+        Attachment(byte[] content, int rev) {
+            this.content = content;
+            this.rev = rev;
+        }
+    }
+
+    private static final class Change {
+        final String id;
+        final int rev;
+        final String author;
+
+        Change(String id, int rev, String author) {
+            this.id = id;
+            this.rev = rev;
+            this.author = author;
+        }
+    }
+
+    /**
+     * Fault returned by emulated method
+     */
+    private static final class Fault extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        final int code;
+
+        Fault(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+
+    @Nonnull
+    private final String userName;
+    @Nonnull
+    private final String password;
+    @Nonnull
+    private final HttpServer server;
+    @Nonnull
+    private final ExecutorService executor;
+    private final TreeMap<String, Page> pages = new TreeMap<>();
+    private final TreeMap<String, Attachment> attachments = new TreeMap<>();
+    private final List<Change> pageChanges = new ArrayList<>();
+    private final List<Change> mediaChanges = new ArrayList<>();
+    /** last revision assigned; revisions are unique and increasing, even within single second */
+    private int lastRev;
+    private final Map<String, Boolean> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> callCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger concurrentCalls = new AtomicInteger();
+    private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+    private volatile long minLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile double errorRate;
+    private volatile boolean multicallSupported = true;
+    /** faults injected for calls addressing given id */
+    private final Map<String, Fault> faults = new ConcurrentHashMap<>();
+
+    /**
+     * Create and start server.
+     *
+     * @param userName is name of user allowed to access wiki
+     * @param password is password of user
+     */
+    FakeDokuWikiServer(String userName, String password) {
+        this.userName = Objects.requireNonNull(userName);
+        this.password = Objects.requireNonNull(password);
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 100);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start fake wiki server", e);
+        }
+        this.executor = Executors.newCachedThreadPool(BulkExecutor.daemonThreadFactory("fake-wiki-"));
+        server.setExecutor(executor);
+        server.createContext("/lib/exe/xmlrpc.php", this::handle);
+        server.start();
+    }
+
+    /**
+     * @return url of Xml-Rpc endpoint
+     */
+    @Nonnull
+    String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/lib/exe/xmlrpc.php";
+    }
+
+    /**
+     * Set latency added to each request. Latency is chosen randomly between given bounds
+     */
+    void setLatency(Duration min, Duration max) {
+        if (max.compareTo(min) < 0) {
+            throw new IllegalArgumentException("Maximal latency cannot be smaller than minimal");
+        }
+        this.minLatencyNanos = min.toNanos();
+        this.maxLatencyNanos = max.toNanos();
+    }
+
+    /**
+     * Set fraction of requests that fail with HTTP status 503 without being processed
+     */
+    void setErrorRate(double errorRate) {
+        if ((errorRate < 0) || (errorRate > 1)) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Enable or disable system.multicall; disabled multicall is reported as unknown method, as by server without
+     * multicall support
+     */
+    void setMulticallSupported(boolean multicallSupported) {
+        this.multicallSupported = multicallSupported;
+    }
+
+    /**
+     * Make calls addressing given id (calls whose first parameter is given id, including calls inside multicall) fail
+     * with given fault
+     */
+    void setFault(String id, int code, String message) {
+        faults.put(id, new Fault(code, message));
+    }
+
+    /**
+     * @return number of requests calling given method (calls inside multicall are not counted)
+     */
+    int getCallCount(String method) {
+        var count = callCounts.get(method);
+        return (count == null) ? 0 : count.get();
+    }
+
+    /**
+     * @return total number of requests received
+     */
+    int getCallCount() {
+        return callCounts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    /**
+     * @return maximal number of requests processed concurrently
+     */
+    int getMaxConcurrentCalls() {
+        return maxConcurrentCalls.get();
+    }
+
+    /**
+     * Reset call counters
+     */
+    void resetStatistics() {
+        callCounts.clear();
+        maxConcurrentCalls.set(0);
+    }
+
+    // --- request processing ---
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        var authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null) {
+            return authorization.equals("Basic " + Base64.getEncoder().encodeToString(
+                    (userName + ':' + password).getBytes(StandardCharsets.UTF_8)));
+        }
+        var cookies = exchange.getRequestHeaders().get("Cookie");
+        if (cookies != null) {
+            for (var header : cookies) {
+                for (var cookie : header.split(";")) {
+                    var parts = cookie.trim().split("=", 2);
+                    if ((parts.length == 2) && parts[0].equals(SESSION_COOKIE) && sessions.containsKey(parts[1])) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void delay() {
+        var min = minLatencyNanos;
+        var max = maxLatencyNanos;
+        if (max == 0) {
+            return;
+        }
+        var latency = (max == min) ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+        try {
+            Thread.sleep(latency / 1_000_000, (int) (latency % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        var concurrent = concurrentCalls.incrementAndGet();
+        maxConcurrentCalls.accumulateAndGet(concurrent, Math::max);
+        // call ends before response is sent, as client might send next call as soon as it receives response
+        var finished = new AtomicBoolean();
+        Runnable finish = () -> {
+            if (finished.compareAndSet(false, true)) {
+                concurrentCalls.decrementAndGet();
+            }
+        };
+        try {
+            var request = parseCall(exchange.getRequestBody().readAllBytes());
+            var method = (String) request.get(0);
+            @SuppressWarnings("unchecked")
+            var params = (List<Object>) request.get(1);
+            callCounts.computeIfAbsent(method, key -> new AtomicInteger()).incrementAndGet();
+            delay();
+            if ((errorRate > 0) && (ThreadLocalRandom.current().nextDouble() < errorRate)) {
+                finish.run();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            String response;
+            if (method.equals("dokuwiki.login")) {
+                var success = userName.equals(params.get(0)) && password.equals(params.get(1));
+                if (success) {
+                    var session = UUID.randomUUID().toString();
+                    sessions.put(session, Boolean.TRUE);
+                    exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + '=' + session + "; Path=/");
+                }
+                response = formatResponse(success);
+            } else if (!isAuthorized(exchange)) {
+                finish.run();
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            } else {
+                try {
+                    response = formatResponse(call(method, params));
+                } catch (Fault fault) {
+                    response = formatFault(fault);
+                }
+            }
+            var bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8");
+            finish.run();
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (RuntimeException e) {
+            finish.run();
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            finish.run();
+            exchange.close();
+        }
+    }
+
+    // --- Xml-Rpc serialization ---
+
+    /**
+     * Parse method call
+     *
+     * @return list with method name and list of parameters
+     */
+    @Nonnull
+    private static List<Object> parseCall(byte[] body) {
+        Element root;
+        try {
+            root = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(new java.io.ByteArrayInputStream(body))
+                    .getDocumentElement();
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalArgumentException("Invalid Xml-Rpc request", e);
+        }
+        var method = child(root, "methodName").getTextContent().trim();
+        var params = new ArrayList<>();
+        var paramsElement = childOrNull(root, "params");
+        if (paramsElement != null) {
+            for (var param : children(paramsElement)) {
+                params.add(parseValue(child(param, "value")));
+            }
+        }
+        return List.of(method, params);
+    }
+
+    @Nullable
+    private static Element childOrNull(Element element, String name) {
+        for (var child : children(element)) {
+            if (child.getTagName().equals(name)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Nonnull
+    private static Element child(Element element, String name) {
+        var result = childOrNull(element, name);
+        if (result == null) {
+            throw new IllegalArgumentException("Element " + name + " not found in " + element.getTagName());
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static List<Element> children(Element element) {
+        var result = new ArrayList<Element>();
+        var nodes = element.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            if (nodes.item(i) instanceof Element) {
+                result.add((Element) nodes.item(i));
+            }
+        }
+        return result;
+    }
+
+    private static Object parseValue(Element value) {
+        var typed = children(value);
+        if (typed.isEmpty()) {
+            return value.getTextContent();
+        }
+        var element = typed.get(0);
+        var text = element.getTextContent();
+        switch (element.getTagName()) {
+            case "string":
+                return text;
+            case "int":
+            case "i4":
+                return Integer.parseInt(text.trim());
+            case "boolean":
+                return text.trim().equals("1");
+            case "double":
+                return Double.parseDouble(text.trim());
+            case "base64":
+                return Base64.getMimeDecoder().decode(text.trim());
+            case "dateTime.iso8601":
+                return LocalDateTime.parse(text.trim(), XmlRpcWriter.DATE_TIME_FORMAT);
+            case "struct":
+                var struct = new LinkedHashMap<String, Object>();
+                for (var member : children(element)) {
+                    struct.put(child(member, "name").getTextContent(), parseValue(child(member, "value")));
+                }
+                return struct;
+            case "array":
+                var array = new ArrayList<>();
+                for (var item : children(child(element, "data"))) {
+                    array.add(parseValue(item));
+                }
+                return array;
+            default:
+                throw new IllegalArgumentException("Unsupported value type " + element.getTagName());
+        }
+    }
+
+    @Nonnull
+    private static String formatResponse(Object value) {
+        var buffer = new ByteArrayOutputStream();
+        var writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        try {
+            writer.write("<?xml version=\"1.0\"?>\n<methodResponse><params><param>");
+            new XmlRpcWriter(writer, source -> {
+                throw new IllegalArgumentException("Streamed values are not supported in response");
+            }).writeValue(value);
+            writer.write("</param></params></methodResponse>");
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    @Nonnull
+    private static String formatFault(Fault fault) {
+        var buffer = new ByteArrayOutputStream();
+        var writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        try {
+            writer.write("<?xml version=\"1.0\"?>\n<methodResponse><fault>");
+            new XmlRpcWriter(writer, source -> {
+            }).writeValue(Map.of("faultCode", fault.code, "faultString", fault.getMessage()));
+            writer.write("</fault></methodResponse>");
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    // --- emulated methods ---
+
+    private static LocalDateTime toDateTime(int timestamp) {
+        return LocalDateTime.ofEpochSecond(timestamp, 0, ZoneOffset.UTC);
+    }
+
+    private static int getSegmentCount(String id) {
+        int count = 1;
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) == ':') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Evaluate if id is in namespace and within depth, using DokuWiki's search semantics - depth is absolute, page in
+     * root namespace has depth 1
+     */
+    private static boolean matches(String id, String namespace, int depth) {
+        var ns = namespace.replace('/', ':');
+        if (ns.startsWith(":")) {
+            ns = ns.substring(1);
+        }
+        if (!ns.isEmpty() && !id.startsWith(ns.endsWith(":") ? ns : ns + ':')) {
+            return false;
+        }
+        return (depth <= 0) || (getSegmentCount(id) <= depth);
+    }
+
+    private static int getDepth(Object options) {
+        if (options instanceof Map) {
+            var depth = ((Map<?, ?>) options).get("depth");
+            if (depth instanceof Integer) {
+                return (Integer) depth;
+            }
+        }
+        return 0;
+    }
+
+    private int nextRev() {
+        var now = (int) (System.currentTimeMillis() / 1000);
+        lastRev = Math.max(now, lastRev + 1);
+        return lastRev;
+    }
+
+    @Nonnull
+    private Map<String, Object> pageInfo(String id) {
+        var page = pages.get(id);
+        if (page == null) {
+            throw new Fault(121, "The requested page does not exist");
+        }
+        var result = new LinkedHashMap<String, Object>();
+        result.put("name", id);
+        result.put("lastModified", toDateTime(page.rev));
+        result.put("author", page.author);
+        result.put("version", page.rev);
+        return result;
+    }
+
+    @Nonnull
+    private List<Object> pageList(String namespace, int depth) {
+        var result = new ArrayList<>();
+        for (var entry : pages.entrySet()) {
+            if (matches(entry.getKey(), namespace, depth)) {
+                var item = new LinkedHashMap<String, Object>();
+                item.put("id", entry.getKey());
+                item.put("rev", entry.getValue().rev);
+                item.put("mtime", entry.getValue().rev);
+                item.put("size", entry.getValue().text.getBytes(StandardCharsets.UTF_8).length);
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Nonnull
+    private List<Object> allPages() {
+        var result = new ArrayList<>();
+        for (var entry : pages.entrySet()) {
+            var item = new LinkedHashMap<String, Object>();
+            item.put("id", entry.getKey());
+            item.put("perms", 255);
+            item.put("size", entry.getValue().text.getBytes(StandardCharsets.UTF_8).length);
+            item.put("lastModified", toDateTime(entry.getValue().rev));
+            result.add(item);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private List<Object> search(String query) {
+        var needle = query.toLowerCase(Locale.ROOT);
+        var result = new ArrayList<>();
+        for (var entry : pages.entrySet()) {
+            var text = entry.getValue().text;
+            var haystack = text.toLowerCase(Locale.ROOT);
+            int score = 0;
+            int first = -1;
+            for (int pos = haystack.indexOf(needle); pos >= 0; pos = haystack.indexOf(needle, pos + 1)) {
+                if (first < 0) {
+                    first = pos;
+                }
+                score++;
+            }
+            if (score > 0) {
+                var item = new LinkedHashMap<String, Object>();
+                item.put("id", entry.getKey());
+                item.put("score", score);
+                item.put("rev", entry.getValue().rev);
+                item.put("mtime", entry.getValue().rev);
+                item.put("size", text.getBytes(StandardCharsets.UTF_8).length);
+                item.put("snippet", text.substring(Math.max(0, first - 20),
+                        Math.min(text.length(), first + needle.length() + 20)));
+                item.put("title", entry.getKey().substring(entry.getKey().lastIndexOf(':') + 1));
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    private boolean putPage(String id, String text) {
+        var rev = nextRev();
+        if (text.isEmpty()) {
+            if (pages.remove(id) == null) {
+                return true;
+            }
+        } else {
+            pages.put(id, new Page(text, rev, userName));
+        }
+        pageChanges.add(new Change(id, rev, userName));
+        return true;
+    }
+
+    @Nonnull
+    private List<Object> attachmentList(String namespace, int depth) {
+        var result = new ArrayList<>();
+        for (var entry : attachments.entrySet()) {
+            if (matches(entry.getKey(), namespace, depth)) {
+                var id = entry.getKey();
+                var item = new LinkedHashMap<String, Object>();
+                item.put("id", id);
+                item.put("file", id.substring(id.lastIndexOf(':') + 1));
+                item.put("size", entry.getValue().content.length);
+                item.put("mtime", entry.getValue().rev);
+                item.put("lastModified", toDateTime(entry.getValue().rev));
+                item.put("isimg", id.matches(".*\\.(png|jpe?g|gif|svg)$"));
+                item.put("writable", true);
+                item.put("perms", 255);
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Nonnull
+    private Map<String, Object> attachmentInfo(String id) {
+        var attachment = attachments.get(id);
+        var result = new LinkedHashMap<String, Object>();
+        // as DokuWiki, report missing attachment as empty file modified at the beginning of epoch
+        result.put("lastModified", toDateTime((attachment == null) ? 0 : attachment.rev));
+        result.put("size", (attachment == null) ? 0 : attachment.content.length);
+        return result;
+    }
+
+    private boolean putAttachment(String id, byte[] content, Object options) {
+        var overwrite = (options instanceof Map) && Boolean.TRUE.equals(((Map<?, ?>) options).get("ow"));
+        if (attachments.containsKey(id) && !overwrite) {
+            throw new Fault(222, "File already exists. Nothing done.");
+        }
+        var rev = nextRev();
+        attachments.put(id, new Attachment(content, rev));
+        mediaChanges.add(new Change(id, rev, userName));
+        return true;
+    }
+
+    private int deleteAttachment(String id) {
+        if (attachments.remove(id) == null) {
+            throw new Fault(221, "Could not delete file");
+        }
+        mediaChanges.add(new Change(id, nextRev(), userName));
+        return 0;
+    }
+
+    @Nonnull
+    private static List<Object> recentChanges(List<Change> changes, int since) {
+        var result = new ArrayList<>();
+        for (var change : changes) {
+            if (change.rev >= since) {
+                var item = new LinkedHashMap<String, Object>();
+                item.put("name", change.id);
+                item.put("lastModified", toDateTime(change.rev));
+                item.put("author", change.author);
+                item.put("version", change.rev);
+                result.add(item);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new Fault(321, "There are no changes in the specified timeframe");
+        }
+        return result;
+    }
+
+    @Nonnull
+    private List<Object> multicall(List<?> calls) {
+        var result = new ArrayList<>();
+        for (var call : calls) {
+            var struct = (Map<?, ?>) call;
+            try {
+                @SuppressWarnings("unchecked")
+                var params = (List<Object>) struct.get("params");
+                result.add(List.of(call((String) struct.get("methodName"), params)));
+            } catch (Fault fault) {
+                result.add(Map.of("faultCode", fault.code, "faultString", fault.getMessage()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Clean id the way DokuWiki's cleanID does
+     */
+    @Nonnull
+    private static String cleanId(Object id) {
+        return PageId.canonicalize((String) id);
+    }
+
+    @Nonnull
+    private synchronized Object call(String method, List<Object> params) {
+        var fault = (!params.isEmpty() && (params.get(0) instanceof String)) ? faults.get(params.get(0)) : null;
+        if (fault != null) {
+            throw new Fault(fault.code, fault.getMessage());
+        }
+        switch (method) {
+            case "dokuwiki.getVersion":
+                return "Release 2018-04-22b \"Greebo\" (fake)";
+            case "dokuwiki.getPagelist":
+                return pageList((String) params.get(0), getDepth((params.size() > 1) ? params.get(1) : null));
+            case "dokuwiki.search":
+                return search((String) params.get(0));
+            case "wiki.getAllPages":
+                return allPages();
+            case "wiki.getPage":
+                var page = pages.get(cleanId(params.get(0)));
+                return (page == null) ? "" : page.text;
+            case "wiki.getPageInfo":
+                return pageInfo(cleanId(params.get(0)));
+            case "wiki.putPage":
+                // cleanText - DokuWiki stores text with unix line endings
+                return putPage(cleanId(params.get(0)), ((String) params.get(1)).replaceAll("\r\n?", "\n"));
+            case "wiki.getAttachments":
+                return attachmentList((String) params.get(0), getDepth((params.size() > 1) ? params.get(1) : null));
+            case "wiki.getAttachment":
+                var attachment = attachments.get(cleanId(params.get(0)));
+                if (attachment == null) {
+                    throw new Fault(221, "The requested file does not exist");
+                }
+                return attachment.content;
+            case "wiki.getAttachmentInfo":
+                return attachmentInfo(cleanId(params.get(0)));
+            case "wiki.putAttachment":
+                return putAttachment(cleanId(params.get(0)), (byte[]) params.get(1),
+                        (params.size() > 2) ? params.get(2) : null);
+            case "wiki.deleteAttachment":
+                return deleteAttachment(cleanId(params.get(0)));
+            case "wiki.getRecentChanges":
+                return recentChanges(pageChanges, (Integer) params.get(0));
+            case "wiki.getRecentMediaChanges":
+                return recentChanges(mediaChanges, (Integer) params.get(0));
+            case "system.multicall":
+                if (multicallSupported) {
+                    return multicall((List<?>) params.get(0));
+                }
+                break;
+            default:
+                break;
+        }
+        throw new Fault(-32601, "server error. requested method " + method + " does not exist.");
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "FakeDokuWikiServer{" +
+                "url=" + getUrl() +
+                '}';
+    }
+}
@@ -0,0 +1,337 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcFaultException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests of client against {@link FakeDokuWikiServer}; verifies both client behaviour and that fake server emulates
+ * wiki faithfully enough to be used for offline testing
+ */
+class FakeDokuWikiServerTest {
+
+    private FakeDokuWikiServer server;
+    private DokuWikiClient client;
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+        client.putPage("test:page1", "Content of page 1");
+        client.putPage("test:page2", "Content of page 2");
+        client.putPage("test:sub:page3", "Content of page 3");
+        client.putPage("test:sub:deep:page4", "Content of page 4");
+        client.putPage("other:page5", "Unrelated content");
+        server.resetStatistics();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void getVersionTest() {
+        assertThat(client.getVersion()).contains("fake");
+        assertThat(server.getCallCount("dokuwiki.getVersion")).isEqualTo(1);
+    }
+
+    @Test
+    void unauthorizedTest() {
+        var intruder = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "wrong"));
+        assertThatThrownBy(intruder::getVersion)
+                .hasRootCauseInstanceOf(HttpStatusException.class);
+    }
+
+    @Test
+    void urlClientTest() {
+        var urlClient = new DokuWikiClient(server.getUrl(), "user", "password");
+        assertThat(urlClient.toString()).contains("streamingClient=null");
+        assertThat(urlClient.getPage("test:page1")).isEqualTo("Content of page 1");
+        assertThatThrownBy(() -> urlClient.getAttachment("test:missing.svg"))
+                .isInstanceOf(XmlRpcFaultException.class)
+                .hasMessage("The requested file does not exist");
+        assertThat(urlClient.toString()).contains("streamingClient=null");
+        try (var pages = urlClient.streamPages("test", 0)) {
+            assertThat(pages.count()).isEqualTo(4);
+        }
+        assertThat(urlClient.toString()).doesNotContain("streamingClient=null");
+    }
+
+    @Test
+    void sessionLoginTest() {
+        var sessionClient = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password", true));
+        assertThat(sessionClient.getPage("test:page1")).isEqualTo("Content of page 1");
+        assertThat(server.getCallCount("dokuwiki.login")).isEqualTo(1);
+    }
+
+    @Test
+    void getPagesTest() {
+        assertThat(client.getPages("test", 0)).extracting(PageListResult::getId)
+                .containsExactly("test:page1", "test:page2", "test:sub:deep:page4", "test:sub:page3");
+        assertThat(client.getPages("test", 2)).extracting(PageListResult::getId)
+                .containsExactly("test:page1", "test:page2");
+        assertThat(client.getPages("test", 3)).extracting(PageListResult::getId)
+                .containsExactly("test:page1", "test:page2", "test:sub:page3");
+        assertThat(client.getNamespaceNames("test")).containsExactly("sub");
+        assertThat(client.getNamespaceNames(":test")).containsExactly("sub");
+        assertThat(client.getNamespaceNames(":test:")).containsExactly("sub");
+        assertThat(client.getPageNames("test")).containsExactly("page1", "page2");
+    }
+
+    @Test
+    void streamListingsTest() {
+        try (var pages = client.streamPages("test", 0)) {
+            assertThat(pages).usingElementComparatorOnFields("id", "rev", "size")
+                    .containsExactlyElementsOf(client.getPages("test", 0));
+        }
+        try (var pages = client.streamPages(PageId.of("test"), 3)) {
+            assertThat(pages.map(PageListResult::getId)).containsExactly("test:page1", "test:page2", "test:sub:page3");
+        }
+        try (var pages = client.streamAllPages()) {
+            assertThat(pages.map(PageData::getId)).hasSize(5).contains("other:page5");
+        }
+        try (var results = client.streamSearchPages("page 2")) {
+            assertThat(results.map(SearchResult::getId)).containsExactly("test:page2");
+        }
+        client.putAttachment("test:sub:file.txt", "content".getBytes(StandardCharsets.UTF_8), false);
+        try (var attachments = client.streamAttachments("test", 0)) {
+            assertThat(attachments.map(AttachmentInfo::getId)).containsExactly("test:sub:file.txt");
+        }
+    }
+
+    @Test
+    void streamListingPartialTest() {
+        for (int i = 0; i < 500; i++) {
+            client.putPage("big:page" + i, "Content " + i);
+        }
+        // stream closed before it is consumed releases response; client remains usable
+        for (int i = 0; i < 10; i++) {
+            try (var pages = client.streamPages("big", 0)) {
+                assertThat(pages.limit(3).count()).isEqualTo(3);
+            }
+        }
+        try (var pages = client.streamPages("big", 0)) {
+            assertThat(pages.count()).isEqualTo(500);
+        }
+        // fault reported by wiki is thrown when stream is opened
+        server.setFault("secret", 1, "You are not allowed to list this namespace");
+        assertThatThrownBy(() -> client.streamPages("secret", 0))
+                .isInstanceOf(DokuWikiFaultException.class)
+                .hasMessage("You are not allowed to list this namespace");
+    }
+
+    @Test
+    void namespaceIndexTest() {
+        var index = NamespaceIndex.build(client);
+        assertThat(index.getNamespaceNames("test")).containsExactly("sub");
+        assertThat(index.getNamespaceNames(":test")).containsExactly("sub");
+        assertThat(index.getPageNames(":test:sub:")).containsExactly("page3");
+        assertThat(index.getNamespaceNames("")).containsExactly("other", "test");
+    }
+
+    @Test
+    void putPageTest() {
+        client.putPage("test:new", "New content");
+        assertThat(client.getPage("test:new")).isEqualTo("New content");
+        var info = client.getPageInfo("test:new");
+        assertThat(info.getName()).isEqualTo("test:new");
+        client.putPage("test:new", "Changed content");
+        assertThat(client.getPageInfo("test:new").getVersion()).isGreaterThan(info.getVersion());
+        client.deletePage("test:new");
+        assertThat(client.getPage("test:new")).isEmpty();
+        assertThatThrownBy(() -> client.getPageInfo("test:new"))
+                .isInstanceOf(DokuWikiFaultException.class)
+                .hasMessage("The requested page does not exist");
+    }
+
+    @Test
+    void deleteNamespaceParallelTest() {
+        client.putAttachment("test:file.txt", "content".getBytes(StandardCharsets.UTF_8), false);
+        client.putAttachment("test:sub:image.png", new byte[]{1, 2, 3}, false);
+        var result = client.deleteNamespace("test", 3);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getSucceeded()).containsExactlyInAnyOrder("test:page1", "test:page2", "test:sub:page3",
+                "test:sub:deep:page4", "test:file.txt", "test:sub:image.png");
+        assertThat(server.getMaxConcurrentCalls()).isLessThanOrEqualTo(3);
+        assertThat(client.getPages("test", 0)).isEmpty();
+        assertThat(client.getAttachments("test", 0)).isEmpty();
+        assertThat(client.getPage("other:page5")).isEqualTo("Unrelated content");
+    }
+
+    @Test
+    void deleteParallelFailureTest() {
+        client.putAttachment("test:file.txt", "content".getBytes(StandardCharsets.UTF_8), false);
+        client.putAttachment("test:locked.txt", "locked".getBytes(StandardCharsets.UTF_8), false);
+        server.setFault("test:sub:page3", 1, "You are not allowed to edit this page");
+        server.setFault("test:locked.txt", 1, "You are not allowed to delete this file");
+        // failure to delete one page does not prevent removal of others
+        var pages = client.deletePages("test", 2);
+        assertThat(pages.isSuccess()).isFalse();
+        assertThat(pages.getSucceeded()).containsExactlyInAnyOrder("test:page1", "test:page2",
+                "test:sub:deep:page4");
+        assertThat(pages.getFailed()).containsOnlyKeys("test:sub:page3");
+        assertThat(pages.getFailed().get("test:sub:page3"))
+                .isInstanceOf(DokuWikiFaultException.class)
+                .hasMessage("You are not allowed to edit this page");
+        var attachments = client.deleteAttachments("test", 2);
+        assertThat(attachments.getSucceeded()).containsExactly("test:file.txt");
+        assertThat(attachments.getFailed()).containsOnlyKeys("test:locked.txt");
+        assertThat(client.getPages("test", 0)).extracting(PageListResult::getId).containsExactly("test:sub:page3");
+        assertThat(client.getAttachments("test", 0)).extracting(AttachmentInfo::getId)
+                .containsExactly("test:locked.txt");
+    }
+
+    @Test
+    void searchTest() {
+        assertThat(client.searchPageIds("PAGE 2")).containsExactly("test:page2");
+        assertThat(client.searchPages("unrelated")).extracting(SearchResult::getId).containsExactly("other:page5");
+    }
+
+    @Test
+    void attachmentTest() {
+        var content = "attachment content".getBytes(StandardCharsets.UTF_8);
+        client.putAttachment("test:file.txt", content, false);
+        assertThat(client.getAttachment("test:file.txt")).isEqualTo(content);
+        assertThat(client.getAttachments("test", 0)).extracting(AttachmentInfo::getId)
+                .containsExactly("test:file.txt");
+        assertThatThrownBy(() -> client.putAttachment("test:file.txt", content, false))
+                .isInstanceOf(DokuWikiFaultException.class)
+                .hasMessage("File already exists. Nothing done.");
+        client.deleteAttachment("test:file.txt");
+        assertThatThrownBy(() -> client.getAttachment("test:file.txt"))
+                .isInstanceOf(DokuWikiFaultException.class)
+                .hasMessage("The requested file does not exist");
+    }
+
+    @Test
+    void recentChangesTest() {
+        assertThat(client.getRecentChanges(0)).extracting(RecentChange::getId)
+                .contains("test:page1", "other:page5");
+        // wiki reports no changes as fault, client translates it to empty list
+        assertThat(client.getRecentMediaChanges(0)).isEmpty();
+    }
+
+    @Test
+    void batchTest() {
+        var results = client.newBatch()
+                .putPage("test:batch1", "Batch 1")
+                .putPage("test:batch2", "Batch 2")
+                .deleteAttachment("test:missing.txt")
+                .execute();
+        assertThat(results).extracting(BatchCallResult::isSuccess).containsExactly(true, true, false);
+        assertThat(results.get(2).getFaultString()).isEqualTo("Could not delete file");
+        assertThat(server.getCallCount("system.multicall")).isEqualTo(1);
+        assertThat(server.getCallCount("wiki.putPage")).isZero();
+        assertThat(client.getPage("test:batch2")).isEqualTo("Batch 2");
+    }
+
+    @Test
+    void batchFailureTest() {
+        var http = new HttpClientTransport(server.getUrl(), "user", "password");
+        var multicalls = new AtomicInteger();
+        // second multicall request fails in transport
+        var failingClient = new DokuWikiClient((method, body) -> {
+            if (method.equals("system.multicall") && multicalls.incrementAndGet() == 2) {
+                throw new IOException("Connection reset");
+            }
+            return http.send(method, body);
+        });
+        var batch = failingClient.newBatch(2)
+                .putPage("test:batch1", "Batch 1")
+                .putPage("test:batch2", "Batch 2")
+                .putPage("test:batch3", "Batch 3")
+                .putPage("test:batch4", "Batch 4")
+                .putPage("test:batch5", "Batch 5");
+        assertThatThrownBy(batch::execute)
+                .isInstanceOfSatisfying(BatchExecutionException.class, e -> assertThat(e.getResults())
+                        .extracting(BatchCallResult::getId).containsExactly("test:batch1", "test:batch2"))
+                .hasRootCauseInstanceOf(IOException.class);
+        // executed chunk is not sent again
+        assertThat(batch.size()).isEqualTo(3);
+        assertThat(batch.execute()).extracting(BatchCallResult::getId)
+                .containsExactly("test:batch3", "test:batch4", "test:batch5");
+        assertThat(batch.size()).isZero();
+        assertThat(server.getCallCount("system.multicall")).isEqualTo(3);
+        assertThat(client.getPage("test:batch5")).isEqualTo("Batch 5");
+    }
+
+    @Test
+    void batchResponseSizeTest() {
+        var responseSizes = new ArrayDeque<>(List.of(2, 4));
+        // wiki returns fewer results than calls for first chunk and more results than calls for second chunk
+        var brokenClient = new DokuWikiClient((method, body) -> new ByteArrayInputStream(
+                ("<?xml version=\"1.0\"?><methodResponse><params><param><value><array><data>"
+                        + "<value><array><data><value><boolean>1</boolean></value></data></array></value>"
+                        .repeat(responseSizes.remove())
+                        + "</data></array></value></param></params></methodResponse>")
+                        .getBytes(StandardCharsets.UTF_8)));
+        var results = brokenClient.newBatch(3)
+                .putPage("test:batch1", "Batch 1")
+                .putPage("test:batch2", "Batch 2")
+                .deleteAttachment("test:file.txt")
+                .putPage("test:batch4", "Batch 4")
+                .execute();
+        assertThat(results).extracting(BatchCallResult::getId)
+                .containsExactly("test:batch1", "test:batch2", "test:file.txt", "test:batch4");
+        assertThat(results).extracting(BatchCallResult::isSuccess).containsExactly(true, true, false, true);
+        assertThat(results.get(2).getMethodName()).isEqualTo("wiki.deleteAttachment");
+        assertThat(results.get(2).getFaultCode()).isEqualTo(BatchCallResult.MISSING_RESULT);
+        assertThat(results.get(2).getFaultString())
+                .isEqualTo("Wiki did not return result for call in multicall response");
+    }
+
+    @Test
+    void cachingClientTest() {
+        var cachingClient = new CachingDokuWikiClient(
+                new HttpClientTransport(server.getUrl(), "user", "password"), new PageCache(100_000));
+        for (var page : cachingClient.getPages("test", 0)) {
+            assertThat(cachingClient.getPage(page)).startsWith("Content of page");
+        }
+        for (var page : cachingClient.getPages("test", 0)) {
+            assertThat(cachingClient.getPage(page)).startsWith("Content of page");
+        }
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(4);
+    }
+
+    @Test
+    void asyncClientTest() {
+        server.setLatency(Duration.ofMillis(20), Duration.ofMillis(40));
+        try (var asyncClient = new AsyncDokuWikiClient(client, 4)) {
+            var futures = new ArrayList<CompletableFuture<String>>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(asyncClient.getPageAsync("test:page" + (i % 2 + 1)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            assertThat(futures.get(3).join()).isEqualTo("Content of page 2");
+        }
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(16);
+        assertThat(server.getMaxConcurrentCalls()).isBetween(2, 4);
+    }
+
+    @Test
+    void retryingTransportTest() {
+        server.setErrorRate(0.3);
+        var transport = new RetryingTransport(new HttpClientTransport(server.getUrl(), "user", "password"), 10,
+                Duration.ofMillis(1), Duration.ofMillis(5), false);
+        var retryingClient = new DokuWikiClient(transport);
+        for (int i = 0; i < 20; i++) {
+            assertThat(retryingClient.getPage("test:page1")).isEqualTo("Content of page 1");
+        }
+        assertThat(transport.getExhaustedCalls()).isZero();
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(20 + transport.getRetries());
+    }
+}
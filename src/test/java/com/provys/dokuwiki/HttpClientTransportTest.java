@@ -0,0 +1,160 @@
+package com.provys.dokuwiki;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HttpClientTransportTest {
+
+    private static final String RESPONSE = "<?xml version=\"1.0\"?>\n<methodResponse><params><param>" +
+            "<value><string>Release test</string></value></param></params></methodResponse>";
+
+    private HttpServer server;
+    private String url;
+    private volatile String receivedBody;
+    private volatile String receivedAuthorization;
+    private final AtomicInteger logins = new AtomicInteger();
+    /** session accepted by server */
+    private volatile String validSession;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/xmlrpc.php", this::handle);
+        server.createContext("/session.php", this::handleSession);
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        if ("deflate".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            body = new InflaterInputStream(body);
+        }
+        receivedBody = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        receivedAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+        var response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        var acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if ((acceptEncoding != null) && acceptEncoding.contains("gzip")) {
+            var buffer = new ByteArrayOutputStream();
+            try (var gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(response);
+            }
+            response = buffer.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, response.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private void handleSession(HttpExchange exchange) throws IOException {
+        var body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String response;
+        if (body.contains("<methodName>dokuwiki.login</methodName>")) {
+            validSession = "s" + logins.incrementAndGet();
+            exchange.getResponseHeaders().add("Set-Cookie", "DWSESSION=" + validSession + "; Path=/");
+            response = "<?xml version=\"1.0\"?>\n<methodResponse><params><param>" +
+                    "<value><boolean>1</boolean></value></param></params></methodResponse>";
+        } else {
+            var cookie = exchange.getRequestHeaders().getFirst("Cookie");
+            if ((cookie == null) || !cookie.contains("DWSESSION=" + validSession)) {
+                exchange.sendResponseHeaders(401, -1);
+                exchange.close();
+                return;
+            }
+            response = RESPONSE;
+        }
+        var bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    void sendTest() {
+        var client = new DokuWikiClient(new HttpClientTransport(url + "/xmlrpc.php", "user", "password"));
+        assertThat(client.getVersion()).isEqualTo("Release test");
+        assertThat(client.getVersion()).isEqualTo("Release test");
+        assertThat(receivedBody).contains("<methodName>dokuwiki.getVersion</methodName>");
+        assertThat(receivedAuthorization).isEqualTo("Basic dXNlcjpwYXNzd29yZA==");
+    }
+
+    @Test
+    void sendCompressedTest() {
+        var client = new DokuWikiClient(HttpClientTransport.builder(url + "/xmlrpc.php", "user", "password")
+                .connectTimeout(Duration.ofSeconds(5))
+                .requestTimeout(Duration.ofSeconds(5))
+                .compressRequests(true)
+                .build());
+        assertThat(client.getPage("ns:" + "long name ".repeat(100))).isEqualTo("Release test");
+        assertThat(receivedBody).contains("<methodName>wiki.getPage</methodName>")
+                .contains("long name long name");
+    }
+
+    @Test
+    void builderTest() {
+        var transport = HttpClientTransport.builder(url + "/session.php", "user", "password")
+                .requestTimeout(null)
+                .http2(true)
+                .sessionLogin(true)
+                .build();
+        assertThat(transport.getRequestTimeout()).isNull();
+        assertThat(transport.isCompressRequests()).isFalse();
+        assertThat(transport.isSessionLogin()).isTrue();
+        assertThat(transport.getVersion()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(new DokuWikiClient(transport).getVersion()).isEqualTo("Release test");
+        assertThat(logins.get()).isEqualTo(1);
+        var defaultTransport = HttpClientTransport.builder(url + "/xmlrpc.php", "user", "password").build();
+        assertThat(defaultTransport.getRequestTimeout()).isEqualTo(HttpClientTransport.DEFAULT_REQUEST_TIMEOUT);
+        assertThat(defaultTransport.isSessionLogin()).isFalse();
+        assertThat(defaultTransport.getVersion()).isEqualTo(HttpClient.Version.HTTP_1_1);
+    }
+
+    @Test
+    void sessionLoginTest() {
+        var client = new DokuWikiClient(new HttpClientTransport(url + "/session.php", "user", "password", true));
+        assertThat(client.getVersion()).isEqualTo("Release test");
+        assertThat(client.getVersion()).isEqualTo("Release test");
+        assertThat(logins.get()).isEqualTo(1);
+        // server forgets session
+        validSession = "expired";
+        assertThat(client.getVersion()).isEqualTo("Release test");
+        assertThat(logins.get()).isEqualTo(2);
+    }
+
+    @Test
+    void sendFailedTest() {
+        var transport = new HttpClientTransport(url + "/missing", "user", "password");
+        assertThatThrownBy(() -> transport.send("dokuwiki.getVersion", XmlRpcRequestBody.of("dokuwiki.getVersion")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("404");
+    }
+}
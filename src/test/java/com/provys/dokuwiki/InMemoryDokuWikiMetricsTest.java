@@ -0,0 +1,59 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class InMemoryDokuWikiMetricsTest {
+
+    private static final String RESPONSE = "<?xml version=\"1.0\"?>\n<methodResponse><params><param>" +
+            "<value><string>Page text</string></value></param></params></methodResponse>";
+    private static final String FAULT = "<?xml version=\"1.0\"?>\n<methodResponse><fault><value><struct>" +
+            "<member><name>faultCode</name><value><int>121</int></value></member>" +
+            "<member><name>faultString</name><value><string>The requested file does not exist</string></value>" +
+            "</member></struct></value></fault></methodResponse>";
+
+    @Test
+    void metricsTest() {
+        DokuWikiTransport transport = (method, body) -> {
+            switch (method) {
+                case "wiki.getPage":
+                    return new ByteArrayInputStream(RESPONSE.getBytes(StandardCharsets.UTF_8));
+                case "wiki.getAttachment":
+                    return new ByteArrayInputStream(FAULT.getBytes(StandardCharsets.UTF_8));
+                default:
+                    throw new IOException("Connection refused");
+            }
+        };
+        var metrics = new InMemoryDokuWikiMetrics();
+        var client = new DokuWikiClient(transport, metrics);
+        assertThat(client.getPage("ns:page")).isEqualTo("Page text");
+        assertThat(client.getPage("ns:page")).isEqualTo("Page text");
+        assertThatThrownBy(() -> client.getAttachment("ns:file.txt")).isInstanceOf(DokuWikiFaultException.class);
+        assertThatThrownBy(() -> client.deletePage("ns:page")).isInstanceOf(RuntimeException.class);
+        var getPage = metrics.getStatistics("wiki.getPage");
+        assertThat(getPage).isNotNull();
+        assertThat(getPage.getCalls()).isEqualTo(2);
+        assertThat(getPage.getFaults()).isZero();
+        assertThat(getPage.getInFlight()).isZero();
+        assertThat(getPage.getResponseBytes()).isEqualTo(2L * RESPONSE.length());
+        assertThat(getPage.getRequestBytes()).isEqualTo(
+                2 * XmlRpcRequestBody.of("wiki.getPage", "ns:page").getContentLength());
+        assertThat(getPage.getLatencyPercentile(0.5)).isGreaterThan(Duration.ZERO)
+                .isLessThanOrEqualTo(getPage.getLatencyPercentile(1));
+        var getAttachment = metrics.getStatistics("wiki.getAttachment");
+        assertThat(getAttachment).isNotNull();
+        assertThat(getAttachment.getFaults()).isEqualTo(1);
+        var putPage = metrics.getStatistics("wiki.putPage");
+        assertThat(putPage).isNotNull();
+        assertThat(putPage.getErrors()).isEqualTo(1);
+        assertThat(putPage.getInFlight()).isZero();
+        assertThat(metrics.getStatistics()).hasSize(3);
+        assertThat(client.getMetrics()).isSameAs(metrics);
+    }
+}
@@ -0,0 +1,176 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MirroringDokuWikiClientTest {
+
+    private static final byte[] CONTENT = "attachment content".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+    private FakeDokuWikiServer server;
+    private DokuWikiClient wiki;
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        wiki = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+        wiki.putPage("mirror:page1", "Content of page 1");
+        wiki.putPage("mirror:sub:page2", "Content of page 2");
+        wiki.putPage("mirror:copy", "Content of page 1");
+        wiki.putPage("other:page3", "Content of page 3");
+        wiki.putAttachment("mirror:file.txt", CONTENT, false);
+        server.resetStatistics();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    private MirroringDokuWikiClient newMirror() {
+        return new MirroringDokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"),
+                directory, "mirror");
+    }
+
+    @Test
+    void refreshTest() {
+        var mirror = newMirror();
+        assertThat(mirror.getLastRefresh()).isNull();
+        var result = mirror.refresh(2);
+        assertThat(result.getSucceeded())
+                .containsExactlyInAnyOrder("mirror:page1", "mirror:sub:page2", "mirror:copy", "mirror:file.txt");
+        assertThat(mirror.getPageCount()).isEqualTo(3);
+        assertThat(mirror.getAttachmentCount()).isEqualTo(1);
+        server.resetStatistics();
+        assertThat(mirror.getPage("mirror:page1")).isEqualTo("Content of page 1");
+        assertThat(mirror.getPage("mirror:copy")).isEqualTo("Content of page 1");
+        assertThat(mirror.getAttachment("mirror:file.txt")).isEqualTo(CONTENT);
+        assertThat(server.getCallCount()).isZero();
+        // page outside of mirrored namespace is read from wiki
+        assertThat(mirror.getPage("other:page3")).isEqualTo("Content of page 3");
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(1);
+        // page missing in replica might have been created since refresh
+        wiki.putPage("mirror:created", "Created after refresh");
+        assertThat(mirror.getPage("mirror:created")).isEqualTo("Created after refresh");
+        assertThat(mirror.getPage("mirror:missing")).isEmpty();
+    }
+
+    @Test
+    void canonicalIdTest() {
+        var mirror = new MirroringDokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"),
+                directory, ":Mirror:");
+        assertThat(mirror.getNamespace()).isEqualTo("mirror");
+        assertThat(mirror.isMirrored("Mirror:Page1")).isTrue();
+        assertThat(mirror.isMirrored(":mirror;sub:page2")).isTrue();
+        assertThat(mirror.isMirrored("mirrored:page")).isFalse();
+        mirror.refresh();
+        server.resetStatistics();
+        assertThat(mirror.getPage("Mirror:Page1")).isEqualTo("Content of page 1");
+        assertThat(mirror.getPage(":mirror;sub:page2")).isEqualTo("Content of page 2");
+        assertThat(mirror.getAttachment("MIRROR:File.txt")).isEqualTo(CONTENT);
+        assertThat(server.getCallCount()).isZero();
+        // write via non-canonical id marks canonical id stale
+        mirror.putPage("Mirror:Page1", "Written via mirror");
+        assertThat(mirror.getPage("mirror:page1")).isEqualTo("Written via mirror");
+    }
+
+    @Test
+    void refreshDuringWriteTest() {
+        var http = new HttpClientTransport(server.getUrl(), "user", "password");
+        var mirrorReference = new AtomicReference<MirroringDokuWikiClient>();
+        // refresh retrieves listing while write is in progress, before it reaches wiki
+        var mirror = new MirroringDokuWikiClient((method, body) -> {
+            if (method.equals("wiki.putPage")) {
+                CompletableFuture.runAsync(() -> mirrorReference.get().refresh()).join();
+            }
+            return http.send(method, body);
+        }, directory, "mirror");
+        mirrorReference.set(mirror);
+        mirror.refresh();
+        mirror.putPage("mirror:page1", "Written via mirror");
+        assertThat(mirror.getPage("mirror:page1")).isEqualTo("Written via mirror");
+    }
+
+    @Test
+    void incrementalRefreshTest() {
+        var mirror = newMirror();
+        mirror.refresh();
+        wiki.putPage("mirror:page1", "Changed content");
+        wiki.putPage("mirror:sub:page2", "");
+        // changes by other clients are not visible until refresh
+        assertThat(mirror.getPage("mirror:page1")).isEqualTo("Content of page 1");
+        server.resetStatistics();
+        assertThat(mirror.refresh().getSucceeded()).containsExactly("mirror:page1");
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(1);
+        assertThat(server.getCallCount("wiki.getAttachment")).isZero();
+        assertThat(mirror.getPage("mirror:page1")).isEqualTo("Changed content");
+        assertThat(mirror.getPage("mirror:sub:page2")).isEmpty();
+        assertThat(mirror.getPageCount()).isEqualTo(2);
+    }
+
+    @Test
+    void writeThroughMirrorTest() {
+        var mirror = newMirror();
+        mirror.refresh();
+        mirror.putPage("mirror:page1", "Written via mirror");
+        assertThat(mirror.getPage("mirror:page1")).isEqualTo("Written via mirror");
+        mirror.deleteAttachment("mirror:file.txt");
+        assertThatThrownBy(() -> mirror.getAttachment("mirror:file.txt"))
+                .isInstanceOf(DokuWikiFaultException.class);
+        mirror.refresh();
+        server.resetStatistics();
+        assertThat(mirror.getPage("mirror:page1")).isEqualTo("Written via mirror");
+        assertThat(mirror.getAttachmentCount()).isZero();
+        assertThat(server.getCallCount()).isZero();
+    }
+
+    @Test
+    void putPageIfChangedTest() {
+        var mirror = newMirror();
+        mirror.refresh();
+        // replica still holds original text, change detection must compare with wiki
+        wiki.putPage("mirror:page1", "Changed content");
+        assertThat(mirror.putPage("mirror:page1", "Content of page 1", null, null, new PageFingerprintStore()))
+                .isTrue();
+        assertThat(wiki.getPage("mirror:page1")).isEqualTo("Content of page 1");
+        assertThat(mirror.putPage("mirror:copy", "Content of page 1", null, null, new PageFingerprintStore()))
+                .isFalse();
+    }
+
+    @Test
+    void offlineTest() throws IOException {
+        newMirror().refresh();
+        server.close();
+        var mirror = newMirror();
+        assertThat(mirror.getLastRefresh()).isNotNull();
+        assertThat(mirror.getPage("mirror:sub:page2")).isEqualTo("Content of page 2");
+        var target = directory.resolve("copy.txt");
+        assertThat(mirror.getAttachment("mirror:file.txt", target)).isEqualTo(CONTENT.length);
+        assertThat(Files.readAllBytes(target)).isEqualTo(CONTENT);
+        // failed refresh leaves replica intact
+        assertThatThrownBy(mirror::refresh).isInstanceOf(RuntimeException.class);
+        assertThat(mirror.getPage("mirror:page1")).isEqualTo("Content of page 1");
+    }
+
+    @Test
+    void deduplicationTest() throws IOException {
+        newMirror().refresh();
+        try (var files = Files.walk(directory.resolve("objects"))) {
+            // page1 and copy share content
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(3);
+        }
+    }
+}
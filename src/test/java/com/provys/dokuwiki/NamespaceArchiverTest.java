@@ -0,0 +1,163 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NamespaceArchiverTest {
+
+    @TempDir
+    Path directory;
+
+    private FakeDokuWikiServer source;
+    private DokuWikiClient sourceClient;
+    private FakeDokuWikiServer target;
+    private DokuWikiClient targetClient;
+
+    @BeforeEach
+    void startServers() {
+        source = new FakeDokuWikiServer("user", "password");
+        sourceClient = new DokuWikiClient(new HttpClientTransport(source.getUrl(), "user", "password"));
+        var batch = sourceClient.newBatch();
+        batch.putPage("ns:start", "Start page");
+        batch.putPage("ns:a:page", "Page in a");
+        batch.putPage("ns:a:b:page", "Page in b");
+        batch.putPage("other:page", "Other page");
+        batch.putAttachment("ns:file.txt", "file".getBytes(StandardCharsets.UTF_8), false);
+        batch.putAttachment("ns:a:image.png", new byte[]{1, 2, 3, 4}, false);
+        // namespace ns:c contains nothing but sub-namespace
+        batch.putAttachment("ns:c:d:deep.txt", "deep".getBytes(StandardCharsets.UTF_8), false);
+        batch.execute();
+        source.resetStatistics();
+        target = new FakeDokuWikiServer("user", "password");
+        targetClient = new DokuWikiClient(new HttpClientTransport(target.getUrl(), "user", "password"));
+    }
+
+    @AfterEach
+    void stopServers() {
+        source.close();
+        target.close();
+    }
+
+    @Test
+    void exportTest() throws IOException {
+        var archive = directory.resolve("ns.zip");
+        var result = new NamespaceArchiver(sourceClient, 4).exportNamespace("ns", archive);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getSucceeded()).containsExactlyInAnyOrder("ns:start", "ns:a:page", "ns:a:b:page",
+                "ns:file.txt", "ns:a:image.png", "ns:c:d:deep.txt");
+        assertThat(directory.resolve("ns.zip.staging")).doesNotExist();
+        try (var zip = new ZipFile(archive.toFile())) {
+            assertThat(zip.entries().nextElement().getName()).isEqualTo(NamespaceArchiver.MANIFEST_ENTRY);
+            assertThat(new String(zip.getInputStream(zip.getEntry("pages/ns/a/b/page.txt")).readAllBytes(),
+                    StandardCharsets.UTF_8)).isEqualTo("Page in b");
+            assertThat(zip.getInputStream(zip.getEntry("media/ns/a/image.png")).readAllBytes())
+                    .isEqualTo(new byte[]{1, 2, 3, 4});
+            assertThat(zip.getEntry("pages/other/page.txt")).isNull();
+        }
+    }
+
+    @Test
+    void roundTripTest() {
+        var archive = directory.resolve("ns.zip");
+        new NamespaceArchiver(sourceClient, 4).exportNamespace("ns", archive);
+        var result = new NamespaceArchiver(targetClient, 4).importNamespace(archive, "copy");
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(targetClient.getPage("copy:start")).isEqualTo("Start page");
+        assertThat(targetClient.getPage("copy:a:b:page")).isEqualTo("Page in b");
+        assertThat(targetClient.getAttachment("copy:a:image.png")).isEqualTo(new byte[]{1, 2, 3, 4});
+        assertThat(targetClient.getAttachment("copy:file.txt")).isEqualTo("file".getBytes(StandardCharsets.UTF_8));
+        assertThat(targetClient.getAttachment("copy:c:d:deep.txt"))
+                .isEqualTo("deep".getBytes(StandardCharsets.UTF_8));
+        assertThat(targetClient.getPage("ns:start")).isEmpty();
+    }
+
+    @Test
+    void nonCanonicalNamespaceTest() {
+        var archive = directory.resolve("ns.zip");
+        var exported = new NamespaceArchiver(sourceClient, 4).exportNamespace(":NS:", archive);
+        assertThat(exported.getSucceeded()).hasSize(6);
+        var result = new NamespaceArchiver(targetClient, 4).importNamespace(archive, ":Copy:");
+        assertThat(result.getSucceeded()).contains("copy:start", "copy:c:d:deep.txt");
+        assertThat(targetClient.getPage("copy:a:b:page")).isEqualTo("Page in b");
+    }
+
+    @Test
+    void resumeExportTest() throws IOException {
+        var archive = directory.resolve("ns.zip");
+        var archiver = new NamespaceArchiver(sourceClient, 4);
+        // directory in place of page file makes export of this page fail
+        var blocker = directory.resolve("ns.zip.staging/pages/ns/start.txt/blocker");
+        Files.createDirectories(blocker);
+        var failed = archiver.exportNamespace("ns", archive);
+        assertThat(failed.getFailed()).containsOnlyKeys("ns:start");
+        assertThat(archive).doesNotExist();
+        Files.delete(blocker);
+        Files.delete(blocker.getParent());
+        source.resetStatistics();
+        var result = archiver.exportNamespace("ns", archive);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(archive).exists();
+        // only page that failed is downloaded again
+        assertThat(source.getCallCount("wiki.getPage")).isEqualTo(1);
+        assertThat(source.getCallCount("wiki.getAttachment")).isZero();
+    }
+
+    @Test
+    void resumeImportTest() throws IOException {
+        var archive = directory.resolve("ns.zip");
+        new NamespaceArchiver(sourceClient, 4).exportNamespace("ns", archive);
+        var checkpoint = directory.resolve("import.checkpoint");
+        // simulates import interrupted after first page
+        Files.writeString(checkpoint, "page\tcopy:start\n");
+        var result = new NamespaceArchiver(targetClient, 2).importNamespace(archive, "copy", checkpoint);
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(target.getCallCount("wiki.putPage")).isEqualTo(2);
+        assertThat(target.getCallCount("wiki.putAttachment")).isEqualTo(3);
+        assertThat(targetClient.getPage("copy:start")).isEmpty();
+        assertThat(checkpoint).doesNotExist();
+    }
+
+    @Test
+    void invalidArchiveTest() throws IOException {
+        var archive = directory.resolve("invalid.zip");
+        try (var zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry(NamespaceArchiver.MANIFEST_ENTRY));
+            zip.write("namespace\tns\npage\tns:missing\t1\t1\t1\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        assertThatThrownBy(() -> new NamespaceArchiver(targetClient, 2).importNamespace(archive, "ns"))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThat(target.getCallCount("wiki.putPage")).isZero();
+    }
+
+    @Test
+    void foreignItemTest() throws IOException {
+        var archive = directory.resolve("foreign.zip");
+        try (var zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry(NamespaceArchiver.MANIFEST_ENTRY));
+            zip.write("namespace\tns\npage\tnsx:page\t1\t1\t1\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("pages/nsx/page.txt"));
+            zip.write("Foreign page".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        // item outside of exported namespace cannot be translated to target namespace
+        assertThatThrownBy(() -> new NamespaceArchiver(targetClient, 2).importNamespace(archive, "copy"))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasRootCauseMessage("Item nsx:page in archive " + archive + " is not in exported namespace ns");
+        assertThat(target.getCallCount("wiki.putPage")).isZero();
+    }
+}
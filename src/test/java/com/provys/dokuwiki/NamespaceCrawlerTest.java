@@ -0,0 +1,99 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NamespaceCrawlerTest {
+
+    private FakeDokuWikiServer server;
+    private DokuWikiClient client;
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+        var batch = client.newBatch();
+        for (var ns : List.of("crawl", "crawl:a", "crawl:b", "crawl:c", "crawl:a:x", "crawl:a:y", "crawl:b:z")) {
+            batch.putPage(ns + ":page1", "Content");
+            batch.putPage(ns + ":page2", "Content");
+        }
+        // namespace without pages of its own
+        batch.putPage("crawl:d:deep:page", "Content");
+        batch.putPage("other:page", "Content");
+        batch.putAttachment("crawl:file.txt", "file".getBytes(StandardCharsets.UTF_8), false);
+        batch.putAttachment("crawl:a:x:file.txt", "file".getBytes(StandardCharsets.UTF_8), false);
+        batch.execute();
+        server.resetStatistics();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    private static List<String> ids(java.util.stream.Stream<PageListResult> pages) {
+        try (pages) {
+            return pages.map(PageListResult::getId).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void crawlPagesTest() {
+        server.setLatency(Duration.ofMillis(20), Duration.ofMillis(20));
+        var crawled = ids(client.crawlPages("crawl", 4, 2));
+        assertThat(crawled).hasSize(15)
+                .doesNotContain("other:page")
+                .contains("crawl:page1", "crawl:a:x:page2", "crawl:b:z:page1", "crawl:d:deep:page");
+        // root + 4 children + 3 grandchildren + crawl:d:deep; no unbounded listing
+        assertThat(server.getCallCount("dokuwiki.getPagelist")).isEqualTo(9);
+        assertThat(server.getMaxConcurrentCalls()).isGreaterThan(1);
+    }
+
+    @Test
+    void crawlLookaheadLimitTest() {
+        // crawl:d only contains page two levels below it, default lookahead does not see it
+        var crawled = ids(client.crawlPages("crawl", 4));
+        assertThat(crawled).hasSize(14).doesNotContain("crawl:d:deep:page");
+        assertThat(ids(client.crawlPages("crawl", 4, 1, true))).hasSize(15).contains("crawl:d:deep:page");
+    }
+
+    @Test
+    void crawlLookaheadTest() {
+        assertThat(ids(client.crawlPages(":crawl:", 2, 2)))
+                .isEqualTo(ids(client.getPages("crawl", 0).stream()));
+        assertThat(ids(client.crawlPages("", 3, 2))).hasSize(client.getAllPages().size());
+    }
+
+    @Test
+    void crawlAttachmentsTest() {
+        try (var attachments = client.crawlAttachments("crawl", 2, 2)) {
+            assertThat(attachments.map(AttachmentInfo::getId))
+                    .containsExactlyInAnyOrder("crawl:file.txt", "crawl:a:x:file.txt");
+        }
+    }
+
+    @Test
+    void crawlDeepBranchTest() {
+        // no page within lookahead of crawl:e, nor of crawl:e:f
+        client.putPage("crawl:e:f:g:h:page", "Content");
+        assertThat(ids(client.crawlPages("crawl", 2))).doesNotContain("crawl:e:f:g:h:page");
+        // sweep finds it
+        assertThat(ids(client.crawlPages("crawl", 2, 1, true))).contains("crawl:e:f:g:h:page")
+                .isEqualTo(ids(client.getPages("crawl", 0).stream()));
+    }
+
+    @Test
+    void crawlFailureTest() {
+        server.setErrorRate(1);
+        assertThatThrownBy(() -> ids(client.crawlPages("crawl", 2)))
+                .hasRootCauseInstanceOf(HttpStatusException.class);
+    }
+}
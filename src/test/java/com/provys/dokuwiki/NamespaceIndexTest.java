@@ -0,0 +1,85 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NamespaceIndexTest {
+
+    private FakeDokuWikiServer server;
+    private DokuWikiClient client;
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+        client.putPage("index:page1", "Content 1");
+        client.putPage("index:page2", "Content 2");
+        client.putPage("index:sub:page3", "Content 3");
+        client.putAttachment("index:file.txt", "content".getBytes(StandardCharsets.UTF_8), false);
+        client.putAttachment("index:media:image.png", new byte[]{1, 2, 3}, false);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void buildTest() {
+        var index = NamespaceIndex.build(client);
+        assertThat(index.getPageCount()).isEqualTo(3);
+        assertThat(index.getAttachmentCount()).isEqualTo(2);
+        // namespace containing only attachments is listed too
+        assertThat(index.getNamespaceNames("index")).containsExactly("media", "sub");
+        assertThat(index.getPageNames("index:")).containsExactly("page1", "page2");
+        assertThat(index.getAttachmentFileNames(":index")).containsExactly("file.txt");
+        assertThat(index.getAttachmentFileNames("index:media")).containsExactly("image.png");
+        assertThat(index.getPageNames("index:missing")).isEmpty();
+        assertThat(index.getBuiltAt()).isNotNull();
+        assertThat(index.getRefreshedAt()).isEqualTo(index.getBuiltAt());
+    }
+
+    @Test
+    void refreshTest() {
+        var index = NamespaceIndex.build(client);
+        // newest change might have been followed by another one in the same second, thus it is verified again
+        assertThat(index.refresh()).isEqualTo(1);
+        assertThat(index.getAttachmentCount()).isEqualTo(2);
+        client.putPage("index:new:page4", "Content 4");
+        client.deletePage("index:page2");
+        client.putAttachment("index:new:file.txt", "new".getBytes(StandardCharsets.UTF_8), false);
+        client.deleteAttachment("index:media:image.png");
+        // changed page is verified once, even if it was changed repeatedly
+        client.putPage("index:page1", "Changed");
+        client.putPage("index:page1", "Changed again");
+        assertThat(index.refresh()).isEqualTo(5);
+        assertThat(index.getPageCount()).isEqualTo(3);
+        assertThat(index.getAttachmentCount()).isEqualTo(2);
+        assertThat(index.getPageNames("index")).containsExactly("page1");
+        assertThat(index.getPageNames("index:new")).containsExactly("page4");
+        assertThat(index.getAttachmentFileNames("index:new")).containsExactly("file.txt");
+        assertThat(index.getAttachmentFileNames("index:media")).isEmpty();
+        assertThat(index.refresh()).isZero();
+    }
+
+    @Test
+    void rebuildTest() {
+        var index = NamespaceIndex.build(client);
+        client.deleteNamespace("index:sub");
+        client.putPage("other:page", "Other");
+        server.resetStatistics();
+        index.rebuild();
+        assertThat(index.getNamespaceNames("")).containsExactly("index", "other");
+        assertThat(index.getNamespaceNames("index")).containsExactly("media");
+        assertThat(index.getPageCount()).isEqualTo(3);
+        // rebuild does not verify individual pages
+        assertThat(server.getCallCount("wiki.getPageInfo")).isZero();
+        assertThat(index.refresh()).isEqualTo(1);
+        assertThat(index.getPageCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,65 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NamespaceSynchronizerTest {
+
+    @TempDir
+    Path directory;
+
+    private FakeDokuWikiServer server;
+    private DokuWikiClient client;
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void synchronizeTest() throws IOException {
+        Files.createDirectories(directory.resolve("Sub Dir"));
+        Files.writeString(directory.resolve("My Page.txt"), "First line\r\nSecond line\r\n");
+        Files.writeString(directory.resolve("Sub Dir/Other.txt"), "Other page\n");
+        Files.write(directory.resolve("Sub Dir/Image File.png"), new byte[]{1, 2, 3});
+        client.putPage("sync:obsolete", "Obsolete page");
+        var result = new NamespaceSynchronizer(client, "Sync", 2).addDirectory(directory).synchronize();
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(client.getPage("sync:my_page")).isEqualTo("First line\nSecond line");
+        assertThat(client.getPage("sync:sub_dir:other")).isEqualTo("Other page");
+        assertThat(client.getAttachment("sync:sub_dir:image_file.png")).isEqualTo(new byte[]{1, 2, 3});
+        assertThat(client.getPage("sync:obsolete")).isEmpty();
+        // wiki stores pages under canonical ids, thus nothing should change on the next run
+        var plan = new NamespaceSynchronizer(client, "sync", 2).addDirectory(directory).plan();
+        assertThat(plan.getActions()).isEmpty();
+        assertThat(plan.getUnchanged()).isEqualTo(3);
+    }
+
+    @Test
+    void unchangedTextTest() {
+        client.putPage("sync:page", "Text\n");
+        // same text with different line endings and trailing whitespace is not uploaded again
+        var plan = new NamespaceSynchronizer(client, "sync", 2).addPage("Page", "Text\r\n  ").plan();
+        assertThat(plan.getActions()).extracting(SyncAction::getType)
+                .containsExactly(SyncAction.Type.UPDATE_PAGE);
+        new NamespaceSynchronizer(client, "sync", 2).addPage("Page", "Text\r\n  ").synchronize();
+        plan = new NamespaceSynchronizer(client, "sync", 2).addPage("Page", "Text\r\n  ").plan();
+        assertThat(plan.getActions()).isEmpty();
+        plan = new NamespaceSynchronizer(client, "sync", 2).addPage("page", "Text\n").plan();
+        assertThat(plan.getActions()).isEmpty();
+    }
+}
@@ -0,0 +1,45 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PageCacheTest {
+
+    @Test
+    void getTest() {
+        var pageCache = new PageCache(1000);
+        pageCache.put("ns:page", 10, "Test text");
+        assertThat(pageCache.get("ns:page", 10)).isEqualTo("Test text");
+        assertThat(pageCache.get("ns:page", 11)).isNull();
+        assertThat(pageCache.get("ns:other", 10)).isNull();
+        assertThat(pageCache.getHitCount()).isEqualTo(1);
+        assertThat(pageCache.getMissCount()).isEqualTo(2);
+        assertThat(pageCache.getSizeInBytes()).isEqualTo(18);
+    }
+
+    @Test
+    void evictionTest() {
+        var pageCache = new PageCache(40);
+        pageCache.put("ns:page1", 1, "0123456789");
+        pageCache.put("ns:page2", 1, "0123456789");
+        assertThat(pageCache.get("ns:page1", 1)).isNotNull();
+        pageCache.put("ns:page3", 1, "0123456789");
+        assertThat(pageCache.size()).isEqualTo(2);
+        assertThat(pageCache.getEvictionCount()).isEqualTo(1);
+        assertThat(pageCache.get("ns:page2", 1)).isNull();
+        assertThat(pageCache.get("ns:page1", 1)).isEqualTo("0123456789");
+        pageCache.put("ns:big", 1, "0123456789012345678901234567890");
+        assertThat(pageCache.get("ns:big", 1)).isNull();
+        assertThat(pageCache.getSizeInBytes()).isEqualTo(40);
+    }
+
+    @Test
+    void invalidateTest() {
+        var pageCache = new PageCache(1000);
+        pageCache.put("ns:page", 10, "Test text");
+        pageCache.invalidate("ns:page");
+        assertThat(pageCache.get("ns:page", 10)).isNull();
+        assertThat(pageCache.getSizeInBytes()).isZero();
+    }
+}
@@ -0,0 +1,123 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PageContentFetcherTest {
+
+    private FakeDokuWikiServer server;
+    private DokuWikiClient client;
+    private final List<String> ids = new ArrayList<>();
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+        var batch = client.newBatch();
+        for (int i = 0; i < 25; i++) {
+            batch.putPage("fetch:page" + i, "Content " + i);
+            ids.add("fetch:page" + i);
+        }
+        batch.execute();
+        server.resetStatistics();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void getPageContentsTest() {
+        ids.add("fetch:missing");
+        var contents = client.getPageContents(ids, 3, 10);
+        assertThat(contents.keySet()).containsExactlyElementsOf(ids);
+        assertThat(contents.get("fetch:page7")).isEqualTo("Content 7");
+        assertThat(contents.get("fetch:missing")).isEmpty();
+        assertThat(server.getCallCount("system.multicall")).isEqualTo(3);
+        assertThat(server.getCallCount("wiki.getPage")).isZero();
+    }
+
+    @Test
+    void getPageContentsByPageIdTest() {
+        var pageIds = List.of(PageId.of("fetch:page3"), PageId.of("Fetch:Page1"));
+        assertThat(client.getPageContentsByPageId(pageIds))
+                .containsExactly(entry(PageId.of("fetch:page3"), "Content 3"),
+                        entry(PageId.of("fetch:page1"), "Content 1"));
+    }
+
+    @Test
+    void multicallNotSupportedTest() {
+        server.setMulticallSupported(false);
+        var contents = client.getPageContents(ids, 4, 10);
+        assertThat(contents).hasSize(25);
+        assertThat(contents.get("fetch:page24")).isEqualTo("Content 24");
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(25);
+        assertThat(server.getCallCount("system.multicall")).isBetween(1, 3);
+    }
+
+    @Test
+    void multicallNotSupportedUrlClientTest() {
+        server.setMulticallSupported(false);
+        var urlClient = new DokuWikiClient(server.getUrl(), "user", "password");
+        var contents = urlClient.getPageContents(ids, 1, 10);
+        assertThat(contents).hasSize(25);
+        assertThat(contents.get("fetch:page24")).isEqualTo("Content 24");
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(25);
+        assertThat(server.getCallCount("system.multicall")).isEqualTo(1);
+    }
+
+    @Test
+    void streamPageContentsTest() {
+        server.setFault("fetch:bad", 1, "You are not allowed to read this page");
+        ids.add("fetch:bad");
+        ids.add("fetch:page3");
+        List<PageContent> contents;
+        try (var stream = client.streamPageContents(ids, 2, 1)) {
+            contents = stream.collect(Collectors.toList());
+        }
+        assertThat(contents).hasSize(26);
+        assertThat(contents).filteredOn(PageContent::isSuccess).hasSize(25);
+        assertThat(server.getMaxConcurrentCalls()).isLessThanOrEqualTo(2);
+        assertThatThrownBy(() -> client.getPageContents(ids, 2, 5))
+                .hasMessageContaining("1 of 27");
+    }
+
+    @Test
+    void multicallFaultTest() {
+        var http = new HttpClientTransport(server.getUrl(), "user", "password");
+        var multicalls = new AtomicInteger();
+        // first multicall request is rejected with fault other than unknown method
+        var faultingClient = new DokuWikiClient((method, body) -> {
+            if (method.equals("system.multicall") && (multicalls.incrementAndGet() == 1)) {
+                return new ByteArrayInputStream(("<?xml version=\"1.0\"?><methodResponse><fault><value><struct>"
+                        + "<member><name>faultCode</name><value><int>-32603</int></value></member>"
+                        + "<member><name>faultString</name><value><string>Internal error</string></value></member>"
+                        + "</struct></value></fault></methodResponse>").getBytes(StandardCharsets.UTF_8));
+            }
+            return http.send(method, body);
+        });
+        server.setFault("fetch:page12", 1, "You are not allowed to read this page");
+        List<PageContent> contents;
+        try (var stream = faultingClient.streamPageContents(ids, 1, 10)) {
+            contents = stream.collect(Collectors.toList());
+        }
+        assertThat(contents).filteredOn(content -> !content.isSuccess()).extracting(PageContent::getId)
+                .containsExactlyInAnyOrder("fetch:page0", "fetch:page1", "fetch:page2", "fetch:page3",
+                        "fetch:page4", "fetch:page5", "fetch:page6", "fetch:page7", "fetch:page8", "fetch:page9",
+                        "fetch:page12");
+        // neither fault disables multicall
+        assertThat(multicalls.get()).isEqualTo(3);
+        assertThat(server.getCallCount("wiki.getPage")).isZero();
+    }
+}
@@ -0,0 +1,79 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PageFingerprintStoreTest {
+
+    private FakeDokuWikiServer server;
+    private DokuWikiClient client;
+
+    @BeforeEach
+    void startServer() {
+        server = new FakeDokuWikiServer("user", "password");
+        client = new DokuWikiClient(new HttpClientTransport(server.getUrl(), "user", "password"));
+        client.putPage("ns:page", "Line 1\nLine 2");
+        server.resetStatistics();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void putPageCleanTextTest() {
+        var fingerprints = new PageFingerprintStore();
+        // store does not know page - text on wiki is compared after line endings and trailing whitespace are cleaned
+        assertThat(client.putPage("ns:page", "Line 1\r\nLine 2\r\n", null, null, fingerprints)).isFalse();
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(1);
+        assertThat(server.getCallCount("wiki.putPage")).isZero();
+        // page is recorded in store, next comparison does not need its text
+        assertThat(client.putPage("ns:page", "Line 1\nLine 2  \n", null, null, fingerprints)).isFalse();
+        assertThat(server.getCallCount("wiki.getPage")).isEqualTo(1);
+        assertThat(server.getCallCount("wiki.putPage")).isZero();
+        assertThat(client.putPage("ns:page", "Line 1\r\nChanged\r\n", null, null, fingerprints)).isTrue();
+        assertThat(client.getPage("ns:page")).isEqualTo("Line 1\nChanged\n");
+        assertThat(client.putPage("ns:page", "Line 1\nChanged", null, null, fingerprints)).isFalse();
+        assertThat(server.getCallCount("wiki.putPage")).isEqualTo(1);
+    }
+
+    @Test
+    void putPageNewTest() {
+        var fingerprints = new PageFingerprintStore();
+        fingerprints.record("ns:new", 1, "stale");
+        // empty text of missing page is no change; stale entry of missing page is dropped
+        assertThat(client.putPage("ns:new", " \r\n", null, null, fingerprints)).isFalse();
+        assertThat(fingerprints.size()).isZero();
+        assertThat(client.putPage("ns:new", "New text", null, null, fingerprints)).isTrue();
+        assertThat(fingerprints.getRev("ns:new")).isEqualTo(client.getPageInfo("ns:new").getVersion());
+        // text written by client is recognised without reading page back
+        assertThat(client.putPage(PageId.of("NS:New"), "New text\n", null, null, fingerprints)).isFalse();
+        assertThat(server.getCallCount("wiki.getPage")).isZero();
+        assertThat(server.getCallCount("wiki.putPage")).isEqualTo(1);
+    }
+
+    @Test
+    void saveTest(@TempDir Path tempDir) throws IOException {
+        var file = tempDir.resolve("fingerprints.tsv");
+        var fingerprints = new PageFingerprintStore(file);
+        fingerprints.record("ns:page", 5, "abcd");
+        fingerprints.save();
+        var loaded = new PageFingerprintStore(file);
+        assertThat(loaded.size()).isEqualTo(1);
+        assertThat(loaded.getRev("ns:page")).isEqualTo(5);
+        assertThat(loaded.isUnchanged("ns:page", 5, "abcd")).isTrue();
+        Files.writeString(file, "ns:page\t5\n");
+        assertThatThrownBy(() -> new PageFingerprintStore(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid page fingerprints line ns:page\t5");
+    }
+}
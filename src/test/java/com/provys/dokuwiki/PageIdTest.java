@@ -0,0 +1,70 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PageIdTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "ns:page, ns:page",
+            "NS:Page, ns:page",
+            "ns;sub;page, ns:sub:page",
+            "ns/page, ns_page",
+            "'  ns:my page ', ns:my_page",
+            "ns:my  page, ns:my_page",
+            ":ns:page:, ns:page",
+            "ns:_page, ns:page",
+            "ns_:page, ns:page",
+            "ns::page, ns:page",
+            "ns:page.txt, ns:page.txt",
+            "ns:příliš, ns:prilis",
+            "ns:Žluťoučký kůň, ns:zlutoucky_kun",
+            "ns:Übergröße, ns:uebergroesse",
+            "ns:Łódź, ns:lodz",
+            "ns:Ørsted, ns:orsted",
+            "ns:Đakovo, ns:dakovo",
+            "ns:Þórður, ns:thordhur",
+            "ns:Ħamrun, ns:hamrun",
+            "ns:paraŀlel, ns:parallel",
+            "ns:日本語, ns:日本語"
+    })
+    void canonicalizeTest(String id, String expected) {
+        assertThat(PageId.canonicalize(id)).isEqualTo(expected);
+    }
+
+    @Test
+    void canonicalizeSameInstanceTest() {
+        var id = "playground:java:test";
+        assertThat(PageId.canonicalize(id)).isSameAs(id);
+    }
+
+    @Test
+    void ofTest() {
+        var pageId = PageId.of("Playground:Java:Test");
+        assertThat(pageId).isSameAs(PageId.of("playground:java:test"));
+        assertThat(pageId.getName()).isEqualTo("test");
+        assertThat(pageId.getNamespace()).isEqualTo("playground:java");
+        assertThat(pageId.getParent()).isSameAs(PageId.of("playground:java"))
+                .isSameAs(pageId.getParent());
+        assertThat(pageId.getDepth()).isEqualTo(3);
+        assertThat(pageId.getSegment(1)).isEqualTo("java");
+        assertThat(PageId.of("start").getParent()).isSameAs(PageId.ROOT);
+        assertThat(PageId.ROOT.getNamespaceDepth()).isEqualTo(new PageIdParser().getDepth(""));
+        assertThat(PageId.of("ns:sub").getNamespaceDepth()).isEqualTo(new PageIdParser().getDepth("ns:sub"));
+    }
+
+    @Test
+    void pageIdParserTest() {
+        var parser = new PageIdParser();
+        assertThat(parser.getNamespace("playground:java:test")).isEqualTo("playground:java");
+        assertThat(parser.getName("playground:java:test")).isEqualTo("test");
+        assertThat(parser.getNamespace("test")).isEmpty();
+        assertThat(parser.trimNamespace(":ns:sub:")).isEqualTo("ns:sub");
+        assertThat(parser.trimNamespace("ns")).isEqualTo("ns");
+        assertThat(parser.trimNamespace(":")).isEmpty();
+    }
+}
@@ -0,0 +1,29 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RateLimitingTransportTest {
+
+    @Test
+    void rateTest() throws IOException {
+        var transport = new RateLimitingTransport((method, body) -> new ByteArrayInputStream(new byte[0]),
+                100, 5);
+        var body = XmlRpcRequestBody.of("wiki.getPage", "ns:page");
+        var start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            transport.send("wiki.getPage", body).close();
+        }
+        // burst is sent without waiting
+        assertThat(transport.getThrottledCalls()).isZero();
+        for (int i = 0; i < 10; i++) {
+            transport.send("wiki.getPage", body).close();
+        }
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(90_000_000L);
+        assertThat(transport.getThrottledCalls()).isBetween(9L, 10L);
+    }
+}
@@ -0,0 +1,141 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcArray;
+import com.provys.xmlrpc.XmlRpcStruct;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RetryingTransportTest {
+
+    /**
+     * Transport failing with given exception for given number of calls, then succeeding
+     */
+    private static DokuWikiTransport failing(AtomicInteger calls, int failures, IOException exception) {
+        return (method, body) -> {
+            if (calls.incrementAndGet() <= failures) {
+                throw exception;
+            }
+            return new ByteArrayInputStream(new byte[0]);
+        };
+    }
+
+    private static RetryingTransport retrying(DokuWikiTransport delegate, boolean retryWrites) {
+        return new RetryingTransport(delegate, 3, Duration.ofMillis(1), Duration.ofMillis(5), retryWrites);
+    }
+
+    @Test
+    void isReadMethodTest() {
+        assertThat(RetryingTransport.isReadMethod("wiki.getPage")).isTrue();
+        assertThat(RetryingTransport.isReadMethod("dokuwiki.getPagelist")).isTrue();
+        assertThat(RetryingTransport.isReadMethod("wiki.listLinks")).isTrue();
+        assertThat(RetryingTransport.isReadMethod("dokuwiki.search")).isTrue();
+        assertThat(RetryingTransport.isReadMethod("wiki.putPage")).isFalse();
+        assertThat(RetryingTransport.isReadMethod("wiki.deleteAttachment")).isFalse();
+        assertThat(RetryingTransport.isReadMethod("system.multicall")).isFalse();
+    }
+
+    @Test
+    void isTransientTest() {
+        assertThat(RetryingTransport.isTransient(new ConnectException("Connection refused"))).isTrue();
+        assertThat(RetryingTransport.isTransient(new SocketTimeoutException("Read timed out"))).isTrue();
+        assertThat(RetryingTransport.isTransient(new HttpTimeoutException("request timed out"))).isTrue();
+        assertThat(RetryingTransport.isTransient(new HttpStatusException("wiki.getPage", 503))).isTrue();
+        assertThat(RetryingTransport.isTransient(new HttpStatusException("wiki.getPage", 404))).isFalse();
+        assertThat(RetryingTransport.isTransient(new IOException("Login of user user to wiki failed"))).isFalse();
+        assertThat(RetryingTransport.isTransient(new IOException("Unsupported content encoding br of response")))
+                .isFalse();
+        assertThat(RetryingTransport.isTransient(new IOException("Session expired during Xml-Rpc call wiki.getPage")))
+                .isFalse();
+        assertThat(RetryingTransport.isTransient(new CircuitBreakerOpenException("wiki.getPage"))).isFalse();
+    }
+
+    @Test
+    void noRetryLoginFailureTest() {
+        var calls = new AtomicInteger();
+        var transport = retrying(failing(calls, 1, new IOException("Login of user user to wiki failed")), false);
+        assertThatThrownBy(() -> transport.send("wiki.getPage", XmlRpcRequestBody.of("wiki.getPage", "ns:page")))
+                .hasMessage("Login of user user to wiki failed");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retryReadTest() throws IOException {
+        var calls = new AtomicInteger();
+        var transport = retrying(failing(calls, 2, new HttpStatusException("wiki.getPage", 503)), false);
+        transport.send("wiki.getPage", XmlRpcRequestBody.of("wiki.getPage", "ns:page")).close();
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(transport.getRetries()).isEqualTo(2);
+        assertThat(transport.getRecoveredCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void retryExhaustedTest() {
+        var calls = new AtomicInteger();
+        var transport = retrying(failing(calls, 5, new ConnectException("Connection refused")), false);
+        assertThatThrownBy(() -> transport.send("wiki.getPage", XmlRpcRequestBody.of("wiki.getPage", "ns:page")))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Connection refused");
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(transport.getExhaustedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void noRetryTest() {
+        var calls = new AtomicInteger();
+        var transport = retrying(failing(calls, 1, new ConnectException("Connection refused")), false);
+        assertThatThrownBy(() -> transport.send("wiki.putPage", XmlRpcRequestBody.of("wiki.putPage", "ns:page")))
+                .isInstanceOf(IOException.class);
+        var calls2 = new AtomicInteger();
+        var transport2 = retrying(failing(calls2, 1, new HttpStatusException("wiki.getPage", 404)), true);
+        assertThatThrownBy(() -> transport2.send("wiki.getPage", XmlRpcRequestBody.of("wiki.getPage", "ns:page")))
+                .isInstanceOf(HttpStatusException.class);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(calls2.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retryWriteTest() throws IOException {
+        var calls = new AtomicInteger();
+        var transport = retrying(failing(calls, 1, new ConnectException("Connection refused")), true);
+        transport.send("wiki.putPage", XmlRpcRequestBody.of("wiki.putPage", "ns:page")).close();
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    private static XmlRpcArray multicall(String... methods) {
+        var calls = new XmlRpcArray();
+        for (var method : methods) {
+            var call = new XmlRpcStruct();
+            call.put("methodName", method);
+            call.put("params", new XmlRpcArray());
+            calls.add(call);
+        }
+        return calls;
+    }
+
+    @Test
+    void retryMulticallTest() throws IOException {
+        var readBody = XmlRpcRequestBody.of("system.multicall", multicall("wiki.getPage", "wiki.getPageInfo"));
+        assertThat(readBody.isReadOnly()).isTrue();
+        var calls = new AtomicInteger();
+        retrying(failing(calls, 1, new ConnectException("Connection refused")), false)
+                .send("system.multicall", readBody).close();
+        assertThat(calls.get()).isEqualTo(2);
+        // multicall containing write is not repeated
+        var writeBody = XmlRpcRequestBody.of("system.multicall", multicall("wiki.getPage", "wiki.putPage"));
+        assertThat(writeBody.isReadOnly()).isFalse();
+        var calls2 = new AtomicInteger();
+        assertThatThrownBy(() -> retrying(failing(calls2, 1, new ConnectException("Connection refused")), false)
+                .send("system.multicall", writeBody))
+                .isInstanceOf(IOException.class);
+        assertThat(calls2.get()).isEqualTo(1);
+    }
+}
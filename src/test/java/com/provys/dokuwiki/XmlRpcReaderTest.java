@@ -0,0 +1,78 @@
+package com.provys.dokuwiki;
+
+import com.provys.xmlrpc.XmlRpcArray;
+import com.provys.xmlrpc.XmlRpcStruct;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class XmlRpcReaderTest {
+
+    private static XmlRpcReader reader(String response) {
+        return new XmlRpcReader(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void readResponseTest() {
+        var reader = reader("<?xml version=\"1.0\"?>\n<methodResponse><params><param><value><array><data>" +
+                "<value><struct><member><name>id</name><value><string>ns:a &amp; b</string></value></member>" +
+                "<member><name>size</name><value><int>12</int></value></member>" +
+                "<member><name>lastModified</name><value><dateTime.iso8601>20200115T10:12:13</dateTime.iso8601>" +
+                "</value></member></struct></value>" +
+                "<value>plain</value></data></array></value></param></params></methodResponse>");
+        var response = (XmlRpcArray) reader.readResponse();
+        assertThat(response).hasSize(2);
+        var struct = (XmlRpcStruct) response.get(0);
+        assertThat(struct.get("id")).isEqualTo("ns:a & b");
+        assertThat(struct.get("size")).isEqualTo(12);
+        assertThat(struct.get("lastModified")).isEqualTo(LocalDateTime.of(2020, 1, 15, 10, 12, 13));
+        assertThat(response.get(1)).isEqualTo("plain");
+    }
+
+    @Test
+    void readArrayItemsTest() {
+        var reader = reader("<?xml version=\"1.0\"?><methodResponse><params><param><value><array><data>" +
+                "<value><int>1</int></value>\n<value><string>two</string></value>" +
+                "</data></array></value></param></params></methodResponse>");
+        reader.readResponseStart();
+        reader.readArrayStart();
+        assertThat(reader.nextArrayItem()).isTrue();
+        assertThat(reader.readValue()).isEqualTo(1);
+        assertThat(reader.nextArrayItem()).isTrue();
+        assertThat(reader.readValue()).isEqualTo("two");
+        assertThat(reader.nextArrayItem()).isFalse();
+    }
+
+    @Test
+    void readFaultTest() {
+        var reader = reader("<?xml version=\"1.0\"?><methodResponse><fault><value><struct>" +
+                "<member><name>faultCode</name><value><int>221</int></value></member>" +
+                "<member><name>faultString</name><value><string>The requested file does not exist</string></value>" +
+                "</member></struct></value></fault></methodResponse>");
+        assertThatThrownBy(reader::readResponseStart)
+                .isInstanceOf(DokuWikiFaultException.class)
+                .hasMessage("The requested file does not exist")
+                .extracting(e -> ((DokuWikiFaultException) e).getFaultCode()).isEqualTo(221);
+    }
+
+    @Test
+    void readBase64Test() throws IOException {
+        var content = new byte[100_003];
+        new Random(1).nextBytes(content);
+        var reader = reader("<?xml version=\"1.0\"?><methodResponse><params><param><value><base64>" +
+                Base64.getMimeEncoder().encodeToString(content) +
+                "</base64></value></param></params></methodResponse>");
+        reader.readResponseStart();
+        var outputStream = new ByteArrayOutputStream();
+        assertThat(reader.readBase64(outputStream)).isEqualTo(content.length);
+        assertThat(outputStream.toByteArray()).isEqualTo(content);
+    }
+}
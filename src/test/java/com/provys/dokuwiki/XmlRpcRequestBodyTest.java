@@ -0,0 +1,49 @@
+package com.provys.dokuwiki;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class XmlRpcRequestBodyTest {
+
+    @Test
+    void streamedParameterTest() throws IOException {
+        var content = new byte[20_000];
+        new Random(1).nextBytes(content);
+        var body = XmlRpcRequestBody.of("wiki.putAttachment", "ns:file <1>.bin",
+                new Base64Source(content.length, () -> new ByteArrayInputStream(content), true), Map.of("ow", true));
+        byte[] serialized;
+        try (var inputStream = body.open()) {
+            serialized = inputStream.readAllBytes();
+        }
+        assertThat((long) serialized.length).isEqualTo(body.getContentLength());
+        assertThat(new String(serialized, StandardCharsets.UTF_8)).isEqualTo(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodCall><methodName>wiki.putAttachment</methodName>" +
+                "<params><param><value><string>ns:file &lt;1&gt;.bin</string></value></param>" +
+                "<param><value><base64>" + Base64.getEncoder().encodeToString(content) + "</base64></value></param>" +
+                "<param><value><struct><member><name>ow</name><value><boolean>1</boolean></value></member>" +
+                "</struct></value></param></params></methodCall>");
+    }
+
+    @Test
+    void shortStreamTest() {
+        var body = XmlRpcRequestBody.of("wiki.putAttachment", "ns:file",
+                new Base64Source(10, () -> new ByteArrayInputStream(new byte[5]), true));
+        assertThatThrownBy(() -> body.open().readAllBytes())
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void repeatableTest() {
+        assertThat(XmlRpcRequestBody.of("wiki.getPage", "ns:page").isRepeatable()).isTrue();
+        assertThat(XmlRpcRequestBody.of("wiki.putAttachment", "ns:file",
+                new Base64Source(5, () -> new ByteArrayInputStream(new byte[5]), false)).isRepeatable()).isFalse();
+    }
+}